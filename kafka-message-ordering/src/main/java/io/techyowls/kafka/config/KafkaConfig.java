@@ -1,9 +1,26 @@
 package io.techyowls.kafka.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.techyowls.kafka.consumer.EventDeduplicator;
+import io.techyowls.kafka.consumer.HighWaterMarkStore;
+import io.techyowls.kafka.consumer.JdbcHighWaterMarkStore;
+import io.techyowls.kafka.consumer.KeyOrderedParallelConsumer;
+import io.techyowls.kafka.consumer.OrderEventConsumer;
 import io.techyowls.kafka.model.OrderEvent;
+import io.techyowls.kafka.outbox.OutboxEventRepository;
+import io.techyowls.kafka.outbox.OutboxRelay;
+import io.techyowls.kafka.producer.KeyBasedOrderEventProducer;
+import io.techyowls.kafka.serde.LocalSchemaRegistry;
+import io.techyowls.kafka.serde.OrderEventBinaryDeserializer;
+import io.techyowls.kafka.serde.OrderEventBinarySerializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -11,11 +28,16 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 /**
- * Kafka configuration with idempotent producer for guaranteed ordering.
+ * Kafka configuration with idempotent producer for guaranteed ordering,
+ * the outbox relay, consumer-side deduplication, the optional key-ordered
+ * parallel consumer, and the choice of JSON or binary order event serde.
  */
 @Configuration
 public class KafkaConfig {
@@ -23,6 +45,15 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${order-events.producer.profile:balanced}")
+    private ProducerProfile producerProfile;
+
+    @Value("${order-events.serde:json}")
+    private String serde;
+
+    @Value("${order-events.schema-registry-dir:${java.io.tmpdir}/order-event-schemas}")
+    private String schemaRegistryDir;
+
     @Bean
     public ProducerFactory<String, OrderEvent> producerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -30,7 +61,12 @@ public class KafkaConfig {
         // Basic config
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        if (binarySerde()) {
+            config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, OrderEventBinarySerializer.class);
+            config.put(LocalSchemaRegistry.DIR_CONFIG, schemaRegistryDir);
+        } else {
+            config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        }
 
         // IDEMPOTENT PRODUCER - prevents duplicates and reordering on retry
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
@@ -38,9 +74,8 @@ public class KafkaConfig {
         config.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
         config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
 
-        // Batching for throughput
-        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);  // 16KB
-        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        // Batching and compression: latency, balanced or throughput
+        producerProfile.apply(config);
 
         return new DefaultKafkaProducerFactory<>(config);
     }
@@ -49,4 +84,91 @@ public class KafkaConfig {
     public KafkaTemplate<String, OrderEvent> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Publishes the transactional outbox through the idempotent producer.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "order-events.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(
+            OutboxEventRepository outbox,
+            KeyBasedOrderEventProducer producer,
+            MeterRegistry meterRegistry,
+            @Value("${order-events.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${order-events.outbox.relay.poll-interval:100ms}") Duration pollInterval,
+            @Value("${order-events.outbox.relay.retention:1h}") Duration retention) {
+        OutboxRelay relay = new OutboxRelay(outbox, producer, batchSize, pollInterval, retention);
+        relay.bindTo(meterRegistry);
+        relay.start();
+        return relay;
+    }
+
+    /**
+     * Drops redelivered events before OrderEventConsumer processes them.
+     */
+    @Bean
+    public EventDeduplicator eventDeduplicator(
+            ObjectProvider<HighWaterMarkStore> store,
+            @Value("${order-events.dedup.max-tracked-orders:100000}") int maxTrackedOrders,
+            @Value("${order-events.dedup.bloom-capacity:1000000}") int bloomCapacity,
+            @Value("${order-events.dedup.bloom-false-positive-rate:0.0001}") double falsePositiveRate) {
+        return new EventDeduplicator(maxTrackedOrders, bloomCapacity, falsePositiveRate, store.getIfAvailable());
+    }
+
+    /**
+     * order-events.dedup.store=jdbc: high-water marks also go to the
+     * processed_order table, so duplicates are caught across restarts.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "order-events.dedup.store", havingValue = "jdbc")
+    public HighWaterMarkStore highWaterMarkStore(DataSource dataSource) {
+        return new JdbcHighWaterMarkStore(dataSource);
+    }
+
+    /**
+     * order-events.serde=binary: the @KafkaListener consumers read
+     * {@link OrderEventBinaryDeserializer} instead of the configured JSON.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "order-events.serde", havingValue = "binary")
+    public DefaultKafkaConsumerFactoryCustomizer binaryOrderEventConsumer() {
+        return factory -> factory.updateConfigs(binaryConsumerConfig());
+    }
+
+    /**
+     * order-events.consumer.mode=key-ordered: order events are processed in
+     * parallel across orderIds, in order within each, instead of one at a
+     * time per partition by the @KafkaListener.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "order-events.consumer.mode", havingValue = "key-ordered")
+    public KeyOrderedParallelConsumer keyOrderedParallelConsumer(
+            KafkaProperties kafkaProperties,
+            OrderEventConsumer orderEventConsumer,
+            MeterRegistry meterRegistry,
+            @Value("${order-events.consumer.max-in-flight:1000}") int maxInFlight) {
+        Properties props = new Properties();
+        props.putAll(kafkaProperties.buildConsumerProperties(null));
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "order-processor");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        if (binarySerde()) {
+            props.putAll(binaryConsumerConfig());
+        }
+
+        KeyOrderedParallelConsumer consumer =
+            new KeyOrderedParallelConsumer(props, orderEventConsumer::handleOrderEvent, maxInFlight);
+        consumer.bindTo(meterRegistry);
+        consumer.start("order-events");
+        return consumer;
+    }
+
+    private boolean binarySerde() {
+        return "binary".equals(serde);
+    }
+
+    private Map<String, Object> binaryConsumerConfig() {
+        return Map.of(
+            ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, OrderEventBinaryDeserializer.class,
+            LocalSchemaRegistry.DIR_CONFIG, schemaRegistryDir);
+    }
 }
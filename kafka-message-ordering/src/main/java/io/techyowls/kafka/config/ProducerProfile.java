@@ -0,0 +1,46 @@
+package io.techyowls.kafka.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Named batching/compression settings for the order event producer
+ * (order-events.producer.profile).
+ *
+ * Batching adapts to load on its own: a batch is sent when it is full or
+ * linger.ms after its first record, whichever comes first. So under light
+ * load linger.ms bounds the added latency, and under heavy load batches
+ * fill up to batch.size before it. The profiles only pick how long to wait
+ * and how big a batch may grow.
+ *
+ * Idempotence, acks and in-flight requests are not part of a profile:
+ * they are what keeps the ordering guarantee.
+ */
+public enum ProducerProfile {
+
+    /** Send immediately: no linger, no compression CPU. */
+    LATENCY(0, 16 * 1024, "none"),
+
+    /** A few ms of linger, cheap lz4 compression. */
+    BALANCED(5, 64 * 1024, "lz4"),
+
+    /** Large batches, best compression ratio with zstd. */
+    THROUGHPUT(20, 256 * 1024, "zstd");
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compression;
+
+    ProducerProfile(int lingerMs, int batchSize, String compression) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compression = compression;
+    }
+
+    public void apply(Map<String, Object> config) {
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+    }
+}
@@ -1,5 +1,10 @@
 package io.techyowls.kafka.consumer;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.techyowls.kafka.model.OrderEvent;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -8,67 +13,63 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Buffered consumer for external sequencing strategy.
  *
- * Collects messages in a time window, sorts by sequence number, then processes.
+ * Reorders events by global sequence number across all partitions. Each
+ * event is processed as soon as every lower sequence has been: in-order
+ * events pass straight through, early ones wait in a
+ * {@link SequenceReorderBuffer} for the missing ones.
+ *
+ * A missing sequence is waited for up to maxWait, and at most maxGap events
+ * are buffered behind it. Past either, it is skipped and logged as a gap.
+ * If it arrives later it is still processed, out of order.
+ *
  * Use this when you need global order across all partitions.
+ *
+ * Metrics ({@link #bindTo}): order.reorder.depth and .peak.depth (gauges),
+ * .released, .late, .dropped, .gaps and .missing (counters), .wait (time
+ * spent buffered).
  */
-public class BufferedOrderedConsumer {
+public class BufferedOrderedConsumer implements MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(BufferedOrderedConsumer.class);
+    private static final int DEFAULT_MAX_GAP = 10_000;
 
     private final KafkaConsumer<Long, OrderEvent> consumer;
-    private final List<OrderEvent> buffer = new ArrayList<>();
-    private final Duration bufferWindow;
-    private Instant lastProcessTime = Instant.now();
+    private final SequenceReorderBuffer reorderBuffer;
+
+    public BufferedOrderedConsumer(Properties props, Duration maxWait) {
+        this(props, maxWait, DEFAULT_MAX_GAP);
+    }
 
-    public BufferedOrderedConsumer(Properties props, Duration bufferWindow) {
+    public BufferedOrderedConsumer(Properties props, Duration maxWait, int maxGap) {
         this.consumer = new KafkaConsumer<>(props);
-        this.bufferWindow = bufferWindow;
+        // SequencedProducer starts at 1
+        this.reorderBuffer = new SequenceReorderBuffer(1, maxGap, maxWait, this::processEvent, this::onGap);
     }
 
     /**
-     * Poll and buffer messages, process when window expires.
+     * Poll, release whatever is now in order, give up on overdue gaps.
      */
     public void poll() {
         ConsumerRecords<Long, OrderEvent> records = consumer.poll(Duration.ofMillis(100));
 
         for (ConsumerRecord<Long, OrderEvent> record : records) {
-            buffer.add(record.value());
-        }
-
-        // Process buffer when window expires
-        if (Duration.between(lastProcessTime, Instant.now()).compareTo(bufferWindow) > 0) {
-            processBuffer();
-            lastProcessTime = Instant.now();
+            reorderBuffer.offer(record.value(), System.nanoTime());
         }
+        reorderBuffer.expire(System.nanoTime());
     }
 
     /**
-     * Sort buffer by global sequence and process in order.
+     * Reorder depth, wait times, gaps.
      */
-    private void processBuffer() {
-        if (buffer.isEmpty()) {
-            return;
-        }
-
-        // Sort by global sequence number
-        buffer.sort(Comparator.comparingLong(OrderEvent::globalSequence));
-
-        log.info("Processing {} buffered events", buffer.size());
-
-        for (OrderEvent event : buffer) {
-            processEvent(event);
-        }
-
-        buffer.clear();
+    public SequenceReorderBuffer.ReorderStats stats() {
+        return reorderBuffer.stats();
     }
 
     private void processEvent(OrderEvent event) {
@@ -76,12 +77,43 @@ public class BufferedOrderedConsumer {
             event.globalSequence(), event.type(), event.orderId());
     }
 
+    private void onGap(SequenceReorderBuffer.SequenceGap gap) {
+        log.warn("Skipped {} missing sequence(s) {}..{} ({})", gap.size(), gap.from(), gap.to(), gap.reason());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.reorder.depth", reorderBuffer, buffer -> buffer.stats().depth())
+            .description("Events waiting for a lower sequence")
+            .register(registry);
+        Gauge.builder("order.reorder.peak.depth", reorderBuffer, buffer -> buffer.stats().peakDepth())
+            .register(registry);
+        FunctionCounter.builder("order.reorder.released", reorderBuffer, buffer -> buffer.stats().released())
+            .register(registry);
+        FunctionCounter.builder("order.reorder.late", reorderBuffer, buffer -> buffer.stats().late())
+            .description("Events processed after their gap was skipped")
+            .register(registry);
+        FunctionCounter.builder("order.reorder.dropped", reorderBuffer, buffer -> buffer.stats().dropped())
+            .description("Duplicate events, or skipped too long ago")
+            .register(registry);
+        FunctionCounter.builder("order.reorder.gaps", reorderBuffer, buffer -> buffer.stats().gaps())
+            .register(registry);
+        FunctionCounter.builder("order.reorder.missing", reorderBuffer, buffer -> buffer.stats().missing())
+            .description("Sequences skipped over all gaps")
+            .register(registry);
+        FunctionTimer.builder("order.reorder.wait", reorderBuffer,
+                buffer -> buffer.stats().released(),
+                buffer -> buffer.stats().totalWait().toNanos(), TimeUnit.NANOSECONDS)
+            .description("Time released events spent buffered")
+            .register(registry);
+    }
+
     public void subscribe(String topic) {
         consumer.subscribe(List.of(topic));
     }
 
     public void close() {
-        processBuffer();  // Process remaining
+        reorderBuffer.flush(System.nanoTime());  // Process remaining
         consumer.close();
     }
 }
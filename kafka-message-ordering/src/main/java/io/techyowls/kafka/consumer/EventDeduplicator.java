@@ -0,0 +1,199 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+
+/**
+ * Drops events that were already processed, e.g. redelivered after a
+ * rebalance or a failed offset commit (at-least-once delivery).
+ *
+ * An event is identified by (orderId, type, globalSequence). Its position
+ * within the order is its globalSequence if it has one, else its
+ * LIFECYCLE stage. Only events already processed are duplicates. An event
+ * below the order's high-water mark (last processed position) that was
+ * never processed is a regression: it is not dropped, so that
+ * {@link OrderingMetrics} counts it. Lookups go, in order, to:
+ *
+ * 1. High-water marks of the maxTrackedOrders most recently seen orders:
+ *    a 2-way set-associative table of (64-bit orderId hash, mark). The
+ *    event at the mark is a duplicate; below it, the Bloom filter decides.
+ * 2. The {@link HighWaterMarkStore}, if there is one, on a table miss.
+ *    Exact, and survives restarts; one read per miss, one write per event.
+ *    Its history is unknown, so a loaded mark counts everything at or
+ *    below it as a duplicate.
+ * 3. Otherwise a {@link RollingBloomFilter} of every recently processed
+ *    event, which also covers event types with no position. May report a
+ *    new event as a duplicate at the configured false positive rate, and
+ *    forgets events older than bloomCapacity to 2x bloomCapacity events
+ *    (a redelivery that old counts as a regression).
+ *
+ * Memory is fixed at construction: 24 bytes per table slot plus the
+ * filter. Slots are maxTrackedOrders rounded up to a power of two, so
+ * between ~24 and ~48 bytes per configured order. Lookups that hit the
+ * table or the filter are O(1) and allocate nothing.
+ *
+ * Thread-safe: call isDuplicate before processing an event and
+ * markProcessed after, from the thread that processes that order. Locking
+ * is striped by orderId hash (up to 64 stripes, each a share of the table
+ * sets and its own Bloom filter of bloomCapacity / stripes), so workers
+ * handling different orders rarely contend.
+ */
+public class EventDeduplicator {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final long[] orderHashes;  // 0 = empty slot
+    private final long[] marks;
+    private final long[] floors;  // Loaded from the store: at or below is processed, -1 if none
+    private final boolean[] secondRecent;  // Per set: slot 1 used more recently than slot 0
+    private final int setMask;
+    private final Object[] locks;  // Per stripe: guards its sets and its Bloom filter
+    private final RollingBloomFilter[] blooms;
+    private final int stripeMask;
+    private final HighWaterMarkStore store;
+
+    public EventDeduplicator(int maxTrackedOrders, int bloomCapacity, double falsePositiveRate) {
+        this(maxTrackedOrders, bloomCapacity, falsePositiveRate, null);
+    }
+
+    /**
+     * @param maxTrackedOrders  High-water marks kept in memory, rounded up to a power of two
+     * @param bloomCapacity     Events per Bloom filter generation, over all stripes
+     * @param falsePositiveRate Bloom filter false positive rate per generation
+     * @param store             Persistent high-water marks, or null
+     */
+    public EventDeduplicator(int maxTrackedOrders, int bloomCapacity, double falsePositiveRate,
+                             HighWaterMarkStore store) {
+        // 2 slots per set: a power of two >= maxTrackedOrders
+        int sets = Integer.highestOneBit(Math.max(1, maxTrackedOrders - 1));
+        this.orderHashes = new long[sets * 2];
+        this.marks = new long[sets * 2];
+        this.floors = new long[sets * 2];
+        this.secondRecent = new boolean[sets];
+        this.setMask = sets - 1;
+        // Stripes: a power of two, each with at least 1024 events of filter capacity
+        int stripes = Math.min(Math.min(MAX_STRIPES, sets), Integer.highestOneBit(Math.max(1, bloomCapacity / 1024)));
+        this.locks = new Object[stripes];
+        this.blooms = new RollingBloomFilter[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            locks[stripe] = new Object();
+            blooms[stripe] = new RollingBloomFilter(Math.max(1, bloomCapacity / stripes), falsePositiveRate);
+        }
+        this.stripeMask = stripes - 1;
+        this.store = store;
+    }
+
+    public boolean isDuplicate(OrderEvent event) {
+        long position = position(event);
+        long orderHash = hash(event.orderId());
+        long eventHash = eventHash(orderHash, event);
+        int stripe = (int) orderHash & stripeMask;
+        if (position >= 0) {
+            synchronized (locks[stripe]) {
+                int slot = slotOf(orderHash);
+                if (slot >= 0) {
+                    return position == marks[slot] || position <= floors[slot]
+                        || position < marks[slot] && blooms[stripe].mightContain(eventHash);
+                }
+            }
+            if (store != null) {
+                long mark = store.load(event.orderId());
+                if (mark < 0) {
+                    return false;  // The store has seen every processed order
+                }
+                synchronized (locks[stripe]) {
+                    track(orderHash, mark, mark);
+                }
+                return position <= mark;
+            }
+        }
+        synchronized (locks[stripe]) {
+            return blooms[stripe].mightContain(eventHash);
+        }
+    }
+
+    public void markProcessed(OrderEvent event) {
+        long position = position(event);
+        long orderHash = hash(event.orderId());
+        long eventHash = eventHash(orderHash, event);
+        int stripe = (int) orderHash & stripeMask;
+        synchronized (locks[stripe]) {
+            if (position >= 0) {
+                track(orderHash, position, -1);
+            }
+            blooms[stripe].add(eventHash);
+        }
+        if (store != null && position >= 0) {
+            store.advance(event.orderId(), position);
+        }
+    }
+
+    /**
+     * Bytes of the table and the Bloom filter.
+     */
+    public long sizeInBytes() {
+        long bloomBytes = 0;
+        for (RollingBloomFilter bloom : blooms) {
+            bloomBytes += bloom.sizeInBytes();
+        }
+        return (long) orderHashes.length * 3 * Long.BYTES + secondRecent.length + bloomBytes;
+    }
+
+    // -1: no position, only the Bloom filter can tell
+    static long position(OrderEvent event) {
+        return event.globalSequence() > 0 ? event.globalSequence() : OrderEventConsumer.LIFECYCLE.indexOf(event.type());
+    }
+
+    // The order's table slot, or -1
+    private int slotOf(long orderHash) {
+        int set = (int) orderHash & setMask;
+        for (int way = 0; way < 2; way++) {
+            int slot = set * 2 + way;
+            if (orderHashes[slot] == orderHash) {
+                secondRecent[set] = way == 1;
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void track(long orderHash, long position, long floor) {
+        int slot = slotOf(orderHash);
+        if (slot >= 0) {
+            marks[slot] = Math.max(marks[slot], position);
+            floors[slot] = Math.max(floors[slot], floor);
+            return;
+        }
+        // Evict the least recently used way; its events stay in the Bloom filter
+        int set = (int) orderHash & setMask;
+        int way = orderHashes[set * 2] == 0 ? 0 : orderHashes[set * 2 + 1] == 0 ? 1 : secondRecent[set] ? 0 : 1;
+        orderHashes[set * 2 + way] = orderHash;
+        marks[set * 2 + way] = position;
+        floors[set * 2 + way] = floor;
+        secondRecent[set] = way == 1;
+    }
+
+    // FNV-1a over the chars, then mixed; never 0 (the empty slot)
+    private static long hash(String orderId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < orderId.length(); i++) {
+            h ^= orderId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = mix(h);
+        return h == 0 ? 1 : h;
+    }
+
+    private static long eventHash(long orderHash, OrderEvent event) {
+        return mix(orderHash + 31L * event.type().hashCode() + 0x9e3779b97f4a7c15L * event.globalSequence());
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,19 @@
+package io.techyowls.kafka.consumer;
+
+/**
+ * Persistent per-order high-water marks behind {@link EventDeduplicator},
+ * so duplicates are still caught after a restart, a rebalance to another
+ * instance, or eviction from memory. See {@link JdbcHighWaterMarkStore}.
+ */
+public interface HighWaterMarkStore {
+
+    /**
+     * @return The order's high-water mark, or -1 if it has none
+     */
+    long load(String orderId);
+
+    /**
+     * Raise the order's high-water mark to position; never lowers it.
+     */
+    void advance(String orderId, long position);
+}
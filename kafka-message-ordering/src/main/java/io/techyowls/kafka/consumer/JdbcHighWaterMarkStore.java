@@ -0,0 +1,81 @@
+package io.techyowls.kafka.consumer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link HighWaterMarkStore} on a database table (see schema.sql):
+ *
+ * CREATE TABLE processed_order (
+ *     order_id        VARCHAR(255) PRIMARY KEY,
+ *     high_water_mark BIGINT NOT NULL
+ * );
+ *
+ * One row per order; advance is a conditional UPDATE, or an INSERT for a
+ * new order.
+ */
+public class JdbcHighWaterMarkStore implements HighWaterMarkStore {
+
+    private static final String SELECT = "SELECT high_water_mark FROM processed_order WHERE order_id = ?";
+    private static final String RAISE =
+        "UPDATE processed_order SET high_water_mark = ? WHERE order_id = ? AND high_water_mark < ?";
+    private static final String INSERT = "INSERT INTO processed_order (order_id, high_water_mark) VALUES (?, ?)";
+
+    private final DataSource dataSource;
+
+    public JdbcHighWaterMarkStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long load(String orderId) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT)) {
+            select.setString(1, orderId);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not load high-water mark of order " + orderId, e);
+        }
+    }
+
+    @Override
+    public void advance(String orderId, long position) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (raise(connection, orderId, position) == 0 && !insert(connection, orderId, position)) {
+                raise(connection, orderId, position);  // Inserted concurrently: raise that row instead
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not advance high-water mark of order " + orderId, e);
+        }
+    }
+
+    private int raise(Connection connection, String orderId, long position) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(RAISE)) {
+            update.setLong(1, position);
+            update.setString(2, orderId);
+            update.setLong(3, position);
+            return update.executeUpdate();
+        }
+    }
+
+    // false if the row exists (it may already be at or past position)
+    private boolean insert(Connection connection, String orderId, long position) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, orderId);
+            insert.setLong(2, position);
+            insert.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            // 23xxx: integrity constraint violation, i.e. duplicate key
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package io.techyowls.kafka.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Key-ordered parallel consumer.
+ *
+ * A listener handles one record at a time per partition, so throughput is
+ * capped by the partition count. Ordering is only needed per key (orderId),
+ * so here each record is queued behind the previous record with the same
+ * key and run on a virtual thread. Different keys run in parallel, even
+ * within one partition.
+ *
+ * Offsets: per partition, the commit position is the lowest offset still
+ * being processed (or the next offset, if none are). A record is never
+ * committed before every earlier record of its partition is done, so a
+ * crash replays at most the in-flight records (at-least-once).
+ *
+ * Backpressure: past maxInFlight records, all partitions are paused until
+ * half of them are done. poll() keeps running, so the consumer stays in
+ * the group.
+ *
+ * A handler that throws is logged and the record counts as processed, like
+ * a listener without retries. The KafkaConsumer is only touched by the
+ * poll thread (and for its metrics).
+ *
+ * Metrics ({@link #bindTo}): the KafkaConsumer's own, including
+ * per-partition records-lag, and order.consumer.in.flight.
+ */
+public class KeyOrderedParallelConsumer implements AutoCloseable, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedParallelConsumer.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final org.apache.kafka.clients.consumer.Consumer<String, OrderEvent> consumer;
+    private final Consumer<OrderEvent> handler;
+    private final int maxInFlight;
+
+    // Tail of each key's queue; removed once it is done
+    private final Map<String, CompletableFuture<Void>> queues = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile boolean running;
+    private Thread pollThread;
+    private KafkaClientMetrics clientMetrics;
+
+    public KeyOrderedParallelConsumer(Properties props, Consumer<OrderEvent> handler, int maxInFlight) {
+        this(new KafkaConsumer<>(props), handler, maxInFlight);
+    }
+
+    KeyOrderedParallelConsumer(org.apache.kafka.clients.consumer.Consumer<String, OrderEvent> consumer,
+                               Consumer<OrderEvent> handler,
+                               int maxInFlight) {
+        this.consumer = consumer;
+        this.handler = handler;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Subscribe and start polling on a background thread.
+     */
+    public void start(String topic) {
+        consumer.subscribe(List.of(topic), new CommitOnRevoke());
+        running = true;
+        pollThread = new Thread(this::pollLoop, "key-ordered-poll-" + topic);
+        pollThread.start();
+    }
+
+    /**
+     * Records dispatched but not processed yet.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        clientMetrics = new KafkaClientMetrics(consumer);
+        clientMetrics.bindTo(registry);
+        Gauge.builder("order.consumer.in.flight", inFlight, AtomicInteger::get)
+            .description("Records dispatched but not processed yet")
+            .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (clientMetrics != null) {
+            clientMetrics.close();
+        }
+        running = false;
+        if (pollThread == null) {
+            consumer.close();
+            return;
+        }
+        consumer.wakeup();
+        try {
+            pollThread.join(DRAIN_TIMEOUT.plusSeconds(5).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    private void pollLoop() {
+        try {
+            while (running) {
+                ConsumerRecords<String, OrderEvent> records;
+                try {
+                    records = consumer.poll(POLL_TIMEOUT);
+                } catch (WakeupException e) {
+                    break;
+                }
+                for (ConsumerRecord<String, OrderEvent> record : records) {
+                    dispatch(record);
+                }
+                commitProcessed(false);
+                applyBackpressure();
+            }
+            // Process what was dispatched, commit it, leave the group
+            awaitDrained(partitions.keySet());
+            commitProcessed(true);
+        } catch (RuntimeException e) {
+            log.error("Key-ordered consumer stopped: {}", e.getMessage(), e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void dispatch(ConsumerRecord<String, OrderEvent> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsets offsets = partitions.computeIfAbsent(partition, p -> new PartitionOffsets());
+        offsets.dispatched(record.offset());
+        inFlight.incrementAndGet();
+
+        Runnable task = () -> {
+            try {
+                handler.accept(record.value());
+            } catch (RuntimeException e) {
+                log.error("Failed to process offset {} of {}: {}", record.offset(), partition, e.getMessage());
+            } finally {
+                offsets.done(record.offset());
+                inFlight.decrementAndGet();
+            }
+        };
+
+        String key = record.key() != null ? record.key() : record.value().orderId();
+        CompletableFuture<Void> tail = queues.compute(key, (k, previous) -> previous == null
+            ? CompletableFuture.runAsync(task, workers)
+            : previous.thenRunAsync(task, workers));
+        tail.whenComplete((ignored, error) -> queues.remove(key, tail));
+    }
+
+    // Poll thread only
+    private void commitProcessed(boolean sync) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        partitions.forEach((partition, offsets) -> {
+            long position = offsets.committable();
+            if (position > offsets.committed) {
+                commits.put(partition, new OffsetAndMetadata(position));
+                offsets.committed = position;
+            }
+        });
+        if (commits.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(commits);
+        } else {
+            // The callback runs on the poll thread, inside a later poll()
+            consumer.commitAsync(commits, (ignored, error) -> {
+                if (error != null) {
+                    log.warn("Offset commit failed, retrying: {}", error.getMessage());
+                    commits.keySet().forEach(partition -> {
+                        PartitionOffsets offsets = partitions.get(partition);
+                        if (offsets != null) {
+                            offsets.committed = -1;
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void applyBackpressure() {
+        if (inFlight.get() >= maxInFlight) {
+            consumer.pause(consumer.assignment());
+        } else if (!consumer.paused().isEmpty() && inFlight.get() <= maxInFlight / 2) {
+            consumer.resume(consumer.paused());
+        }
+    }
+
+    private void awaitDrained(Collection<TopicPartition> revoked) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        for (TopicPartition partition : revoked) {
+            PartitionOffsets offsets = partitions.get(partition);
+            while (offsets != null && !offsets.isDrained()) {
+                if (System.nanoTime() - deadline > 0) {
+                    log.warn("{} still has records in flight: they may be processed again", partition);
+                    return;
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private class CommitOnRevoke implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+            // Finish and commit what was dispatched, so the next owner starts after it
+            awaitDrained(revoked);
+            commitProcessed(true);
+            revoked.forEach(partitions::remove);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+            // Offsets are tracked from the first record polled
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> lost) {
+            // Already owned by someone else: nothing to commit
+            lost.forEach(partitions::remove);
+        }
+    }
+
+    /**
+     * Offsets of one partition: dispatched by the poll thread, done on workers.
+     */
+    private static class PartitionOffsets {
+
+        private final ConcurrentSkipListSet<Long> processing = new ConcurrentSkipListSet<>();
+        private volatile long next = -1;
+        private long committed = -1;  // Poll thread only
+
+        void dispatched(long offset) {
+            processing.add(offset);
+            next = offset + 1;
+        }
+
+        void done(long offset) {
+            processing.remove(offset);
+        }
+
+        boolean isDrained() {
+            return processing.isEmpty();
+        }
+
+        // Read next first: an offset dispatched after it is above it anyway
+        long committable() {
+            long nextOffset = next;
+            Long lowest = processing.ceiling(Long.MIN_VALUE);  // null if none
+            return lowest != null ? Math.min(lowest, nextOffset) : nextOffset;
+        }
+    }
+}
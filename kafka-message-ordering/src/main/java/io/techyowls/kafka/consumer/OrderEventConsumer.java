@@ -1,39 +1,128 @@
 package io.techyowls.kafka.consumer;
 
 import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Consumer for key-based ordered events.
  *
  * Events for the same orderId arrive in order because they're in the same partition.
+ *
+ * order-events.consumer.mode picks how events get here:
+ * - listener: handleOrderEvent, one event per call
+ * - batch: handleOrderEvents, one poll per call
+ * - key-ordered: {@link KeyOrderedParallelConsumer} calls handleOrderEvent
+ *
+ * Redelivered events (at-least-once: after a rebalance or a failed commit)
+ * are dropped by the {@link EventDeduplicator}; an event counts as
+ * processed once processEvent returns. An earlier stage that was never
+ * processed is not a redelivery: it is processed, and
+ * {@link OrderingMetrics} counts it as a regression.
  */
 @Service
 public class OrderEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventConsumer.class);
 
-    // Track received events per order (for verification)
-    private final ConcurrentHashMap<String, CopyOnWriteArrayList<String>> receivedEvents =
-        new ConcurrentHashMap<>();
+    static final List<String> LIFECYCLE = List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED");
+
+    // Track received events per order (for verification); each list is guarded by itself
+    private final ConcurrentHashMap<String, List<String>> receivedEvents = new ConcurrentHashMap<>();
+    private final OrderingMetrics metrics;
+    private final EventDeduplicator deduplicator;
+
+    public OrderEventConsumer(OrderingMetrics metrics, EventDeduplicator deduplicator) {
+        this.metrics = metrics;
+        this.deduplicator = deduplicator;
+    }
 
-    @KafkaListener(topics = "order-events", groupId = "order-processor")
+    @KafkaListener(topics = "order-events", groupId = "order-processor",
+        autoStartup = "#{'${order-events.consumer.mode:listener}' == 'listener'}")
     public void handleOrderEvent(OrderEvent event) {
+        if (duplicate(event)) {
+            return;
+        }
         log.info("Received: {} for order {}", event.type(), event.orderId());
 
         // Track for verification
-        receivedEvents
-            .computeIfAbsent(event.orderId(), k -> new CopyOnWriteArrayList<>())
-            .add(event.type());
+        track(event.orderId(), List.of(event.type()));
 
         // Process the event
         processEvent(event);
+        deduplicator.markProcessed(event);
+        metrics.processed(event, Instant.now());
+    }
+
+    /**
+     * Batch mode: all records of one poll at once, grouped by orderId.
+     *
+     * A poll returns each partition's records in offset order, and an
+     * order's events share a partition, so each group is in order. Each
+     * group is tracked and applied in one step. Repeats of an event earlier
+     * in the poll are dropped too.
+     */
+    @KafkaListener(topics = "order-events", groupId = "order-processor", batch = "true",
+        autoStartup = "#{'${order-events.consumer.mode:listener}' == 'batch'}")
+    public void handleOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        Map<String, List<OrderEvent>> byOrder = new LinkedHashMap<>();
+        for (ConsumerRecord<String, OrderEvent> record : records) {
+            OrderEvent event = record.value();
+            List<OrderEvent> events = byOrder.computeIfAbsent(event.orderId(), k -> new ArrayList<>());
+            if (!repeatsEarlier(events, event) && !duplicate(event)) {
+                events.add(event);
+            }
+        }
+        log.info("Received {} events for {} orders", records.size(), byOrder.size());
+
+        byOrder.forEach((orderId, events) -> {
+            if (events.isEmpty()) {
+                return;
+            }
+            track(orderId, events.stream().map(OrderEvent::type).toList());
+            processEvents(orderId, events);
+            events.forEach(deduplicator::markProcessed);
+            Instant now = Instant.now();
+            events.forEach(event -> metrics.processed(event, now));
+        });
+    }
+
+    private boolean duplicate(OrderEvent event) {
+        if (!deduplicator.isDuplicate(event)) {
+            return false;
+        }
+        metrics.duplicate(event);
+        log.debug("Dropped duplicate {} seq={} for order {}", event.type(), event.globalSequence(), event.orderId());
+        return true;
+    }
+
+    // Not yet marked processed: the same position and type as an earlier event in this poll
+    private boolean repeatsEarlier(List<OrderEvent> events, OrderEvent event) {
+        long position = EventDeduplicator.position(event);
+        for (OrderEvent earlier : events) {
+            if (EventDeduplicator.position(earlier) == position && earlier.type().equals(event.type())) {
+                metrics.duplicate(event);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void track(String orderId, List<String> types) {
+        List<String> events = receivedEvents.computeIfAbsent(orderId, k -> new ArrayList<>());
+        synchronized (events) {
+            events.addAll(types);
+        }
     }
 
     private void processEvent(OrderEvent event) {
@@ -46,11 +135,30 @@ public class OrderEventConsumer {
         }
     }
 
+    // All of an order's transitions in one step
+    private void processEvents(String orderId, List<OrderEvent> events) {
+        List<String> transitions = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            if (LIFECYCLE.contains(event.type())) {
+                transitions.add(event.type());
+            } else {
+                log.warn("Unknown event type: {}", event.type());
+            }
+        }
+        log.info("Order {}: {}", orderId, String.join(" -> ", transitions));
+    }
+
     /**
      * Get received events for an order (for testing).
      */
-    public CopyOnWriteArrayList<String> getEventsForOrder(String orderId) {
-        return receivedEvents.getOrDefault(orderId, new CopyOnWriteArrayList<>());
+    public List<String> getEventsForOrder(String orderId) {
+        List<String> events = receivedEvents.get(orderId);
+        if (events == null) {
+            return List.of();
+        }
+        synchronized (events) {
+            return List.copyOf(events);
+        }
     }
 
     /**
@@ -58,7 +166,7 @@ public class OrderEventConsumer {
      */
     public boolean verifyOrderingForOrder(String orderId) {
         var events = getEventsForOrder(orderId);
-        var expected = java.util.List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED");
+        var expected = LIFECYCLE;
 
         if (events.size() < expected.size()) {
             return false;
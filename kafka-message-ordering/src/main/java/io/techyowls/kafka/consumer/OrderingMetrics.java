@@ -0,0 +1,104 @@
+package io.techyowls.kafka.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.techyowls.kafka.model.OrderEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Continuous ordering numbers for processed order events, in Micrometer:
+ *
+ * - order.events.latency (timer, tag mode): OrderEvent.timestamp to
+ *   processing, with percentiles from an HDR histogram
+ * - order.events.out.of.order (counter, tags type, kind): an event at or
+ *   before its order's last processed lifecycle stage. kind=regression is
+ *   an earlier stage, kind=duplicate the same one (e.g. an outbox resend)
+ * - order.events.duplicates (counter, tag type): events dropped by the
+ *   {@link EventDeduplicator} before processing
+ *
+ * Tags are bounded: orderIds only go to the log. The last stage is kept
+ * for the maxTrackedOrders most recently seen orders.
+ *
+ * Per-partition lag is Kafka's own records-lag, bound by Spring Boot for
+ * the listener containers and by {@link KeyOrderedParallelConsumer}.
+ */
+@Component
+public class OrderingMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderingMetrics.class);
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final Timer latency;
+    private final Map<String, Counter> outOfOrder = new ConcurrentHashMap<>();
+    private final Map<String, Counter> duplicates = new ConcurrentHashMap<>();
+    private final Map<String, Integer> lastStage;
+
+    public OrderingMetrics(MeterRegistry registry,
+                           @Value("${order-events.consumer.mode:listener}") String mode,
+                           @Value("${order-events.metrics.max-tracked-orders:100000}") int maxTrackedOrders) {
+        this.registry = registry;
+        this.latency = Timer.builder("order.events.latency")
+            .description("Time from OrderEvent.timestamp to processing")
+            .tag("mode", mode)
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(5))
+            .register(registry);
+        this.lastStage = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxTrackedOrders;
+            }
+        };
+    }
+
+    public void processed(OrderEvent event, Instant now) {
+        // Producer and consumer clocks may disagree by a little
+        Duration age = Duration.between(event.timestamp(), now);
+        latency.record(age.isNegative() ? Duration.ZERO : age);
+
+        int stage = OrderEventConsumer.LIFECYCLE.indexOf(event.type());
+        if (stage < 0) {
+            return;
+        }
+        Integer previous;
+        synchronized (lastStage) {
+            previous = lastStage.put(event.orderId(), stage);
+        }
+        if (previous != null && stage <= previous) {
+            String kind = stage == previous ? "duplicate" : "regression";
+            outOfOrder(event.type(), kind).increment();
+            log.warn("Order {} out of order: {} after {} ({})",
+                event.orderId(), event.type(), OrderEventConsumer.LIFECYCLE.get(previous), kind);
+        }
+    }
+
+    public void duplicate(OrderEvent event) {
+        String tag = OrderEventConsumer.LIFECYCLE.contains(event.type()) ? event.type() : UNKNOWN;
+        duplicates.computeIfAbsent(tag, key -> Counter.builder("order.events.duplicates")
+            .description("Already processed events, dropped")
+            .tag("type", tag)
+            .register(registry)).increment();
+    }
+
+    private Counter outOfOrder(String type, String kind) {
+        String tag = OrderEventConsumer.LIFECYCLE.contains(type) ? type : UNKNOWN;
+        return outOfOrder.computeIfAbsent(tag + "/" + kind, key -> Counter.builder("order.events.out.of.order")
+            .description("Events at or before their order's last processed stage")
+            .tag("type", tag)
+            .tag("kind", kind)
+            .register(registry));
+    }
+}
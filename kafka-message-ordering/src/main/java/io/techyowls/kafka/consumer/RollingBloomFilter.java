@@ -0,0 +1,94 @@
+package io.techyowls.kafka.consumer;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter over 64-bit hashes that forgets old entries: two
+ * generations of capacity entries each, and when the current one is full
+ * the older one is cleared and becomes current. So it always remembers at
+ * least the last capacity entries (at most 2x), in fixed memory, with a
+ * false positive rate of up to about 2x the configured one.
+ *
+ * Blocked: all of an entry's bits are in one 512-bit block (a cache line),
+ * so a lookup costs one cache miss per generation rather than one per hash
+ * function, for a slightly higher false positive rate than a plain filter
+ * of the same size.
+ *
+ * Not thread-safe; no allocation after construction.
+ */
+final class RollingBloomFilter {
+
+    private static final int BLOCK_LONGS = 8;
+
+    private final long[][] generations;
+    private final int blockMask;
+    private final int hashes;
+    private final int capacity;
+
+    private int current;
+    private int count;
+
+    RollingBloomFilter(int capacity, double falsePositiveRate) {
+        long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int size = (int) Math.min(1L << 30, Math.max(512, Long.highestOneBit(bits - 1) << 1));  // Power of two
+        this.generations = new long[][] {new long[size / 64], new long[size / 64]};
+        this.blockMask = size / 512 - 1;
+        this.hashes = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    boolean mightContain(long hash) {
+        return contains(generations[current], hash) || contains(generations[1 - current], hash);
+    }
+
+    void add(long hash) {
+        if (count == capacity) {
+            current = 1 - current;
+            Arrays.fill(generations[current], 0);
+            count = 0;
+        }
+        long[] bits = generations[current];
+        int block = block(hash);
+        long h = hash;
+        for (int i = 0; i < hashes; i++) {
+            if (i % 7 == 0) {
+                h = remix(h);
+            }
+            int bit = (int) (h >>> (9 * (i % 7))) & 511;
+            bits[block + (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    long sizeInBytes() {
+        return 2L * generations[0].length * Long.BYTES;
+    }
+
+    private boolean contains(long[] bits, long hash) {
+        int block = block(hash);
+        long h = hash;
+        for (int i = 0; i < hashes; i++) {
+            if (i % 7 == 0) {
+                h = remix(h);
+            }
+            int bit = (int) (h >>> (9 * (i % 7))) & 511;
+            if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Index of the block's first long
+    private int block(long hash) {
+        return ((int) (hash >>> 32) & blockMask) * BLOCK_LONGS;
+    }
+
+    // Bits within the block: 9-bit slices of successive remixes, 7 per long
+    private static long remix(long h) {
+        h += 0x9e3779b97f4a7c15L;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,272 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reorder stage for globally sequenced events.
+ *
+ * Events are released the moment the next expected sequence is available;
+ * anything that arrives early waits in a ring buffer slot (sequence mod
+ * capacity). So an in-order stream passes straight through, and memory is
+ * capped at maxGap events.
+ *
+ * A missing sequence is given up on, and a {@link SequenceGap} emitted, when:
+ * - MAX_GAP: an event arrives maxGap or more sequences ahead of the next
+ *   expected one (it wouldn't fit in the ring)
+ * - TIMEOUT: the buffer has been blocked on it for maxWait (see {@link #expire})
+ * - FLUSH: {@link #flush} releases everything left, e.g. on shutdown
+ *
+ * An event whose sequence was skipped in a gap is forwarded late when it
+ * does arrive, e.g. from a quiet producer still working through an old
+ * sequence block. The buffer remembers up to maxGap skipped ranges for
+ * this. Other events below the next expected sequence (duplicates, or
+ * skipped too long ago) are dropped.
+ *
+ * Not meant for concurrent producers of events: methods are synchronized
+ * only so that {@link #stats} can be read from another thread.
+ */
+public class SequenceReorderBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceReorderBuffer.class);
+
+    public enum GapReason { MAX_GAP, TIMEOUT, FLUSH }
+
+    /**
+     * Sequences from..to (inclusive) were skipped.
+     */
+    public record SequenceGap(long from, long to, GapReason reason) {
+
+        public long size() {
+            return to - from + 1;
+        }
+    }
+
+    /**
+     * @param depth       Events buffered now
+     * @param peakDepth   Most events ever buffered at once
+     * @param released    Events passed downstream
+     * @param late        Events forwarded after their gap was emitted
+     * @param dropped     Duplicates, or events skipped too long ago
+     * @param gaps        Gaps emitted
+     * @param missing     Sequences skipped over all gaps
+     * @param totalWait   Sum over released events of the time spent buffered
+     * @param maxWait     Longest time an event spent buffered
+     */
+    public record ReorderStats(int depth, int peakDepth, long released, long late, long dropped,
+                               long gaps, long missing, Duration totalWait, Duration maxWait) {
+
+        public Duration meanWait() {
+            return released == 0 ? Duration.ZERO : totalWait.dividedBy(released);
+        }
+    }
+
+    private final OrderEvent[] slots;
+    private final long[] arrivedNanos;
+    private final Duration maxWait;
+    private final Consumer<OrderEvent> downstream;
+    private final Consumer<SequenceGap> gapListener;
+    // Skipped sequences not yet arrived: range start -> end (inclusive)
+    private final TreeMap<Long, Long> skipped = new TreeMap<>();
+
+    private long next;
+    private int depth;
+    private long blockedSinceNanos;
+
+    private int peakDepth;
+    private long released;
+    private long late;
+    private long dropped;
+    private long gaps;
+    private long missing;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    /**
+     * @param firstSequence First sequence expected
+     * @param maxGap        Ring size: how far ahead of a missing sequence events are buffered
+     * @param maxWait       How long a missing sequence is waited for
+     */
+    public SequenceReorderBuffer(long firstSequence,
+                                 int maxGap,
+                                 Duration maxWait,
+                                 Consumer<OrderEvent> downstream,
+                                 Consumer<SequenceGap> gapListener) {
+        this.slots = new OrderEvent[maxGap];
+        this.arrivedNanos = new long[maxGap];
+        this.maxWait = maxWait;
+        this.downstream = downstream;
+        this.gapListener = gapListener;
+        this.next = firstSequence;
+    }
+
+    public synchronized void offer(OrderEvent event, long nowNanos) {
+        long sequence = event.globalSequence();
+        int slot = slot(sequence);
+        if (sequence < next && claimSkipped(sequence)) {
+            late++;
+            released++;
+            log.debug("Forwarded late seq={} (next expected {})", sequence, next);
+            downstream.accept(event);
+            return;
+        }
+        if (sequence < next || (slots[slot] != null && slots[slot].globalSequence() == sequence)) {
+            dropped++;
+            log.debug("Dropped duplicate or expired seq={} (next expected {})", sequence, next);
+            return;
+        }
+
+        if (sequence == next) {
+            // In order: straight through, then whatever it unblocked
+            released++;
+            downstream.accept(event);
+            next++;
+            releaseReady(nowNanos);
+            return;
+        }
+
+        if (sequence >= next + slots.length) {
+            // Make room: give up on whatever is missing below the new event's window
+            skipTo(sequence - slots.length + 1, GapReason.MAX_GAP, nowNanos);
+            slot = slot(sequence);
+        }
+        if (depth == 0) {
+            blockedSinceNanos = nowNanos;
+        }
+        slots[slot] = event;
+        arrivedNanos[slot] = nowNanos;
+        depth++;
+        peakDepth = Math.max(peakDepth, depth);
+        releaseReady(nowNanos);
+    }
+
+    /**
+     * Give up on the missing sequence if it has been waited for maxWait.
+     * Call regularly, e.g. after every poll.
+     */
+    public synchronized void expire(long nowNanos) {
+        while (depth > 0 && nowNanos - blockedSinceNanos >= maxWait.toNanos()) {
+            skipTo(firstBuffered(), GapReason.TIMEOUT, nowNanos);
+            releaseReady(nowNanos);
+            blockedSinceNanos = nowNanos;  // Next gap, if any, gets its own wait
+        }
+    }
+
+    /**
+     * Release everything buffered, skipping any gaps.
+     */
+    public synchronized void flush(long nowNanos) {
+        while (depth > 0) {
+            skipTo(firstBuffered(), GapReason.FLUSH, nowNanos);
+            releaseReady(nowNanos);
+        }
+    }
+
+    public synchronized long nextExpected() {
+        return next;
+    }
+
+    public synchronized ReorderStats stats() {
+        return new ReorderStats(depth, peakDepth, released, late, dropped, gaps, missing,
+            Duration.ofNanos(totalWaitNanos), Duration.ofNanos(maxWaitNanos));
+    }
+
+    private void releaseReady(long nowNanos) {
+        boolean advanced = false;
+        while (depth > 0) {
+            int slot = slot(next);
+            OrderEvent event = slots[slot];
+            if (event == null || event.globalSequence() != next) {
+                break;
+            }
+            release(slot, nowNanos);
+            next++;
+            advanced = true;
+        }
+        if (advanced) {
+            blockedSinceNanos = nowNanos;
+        }
+    }
+
+    // Advance next to target: release what is buffered on the way, report the rest as gaps
+    private void skipTo(long target, GapReason reason, long nowNanos) {
+        long gapStart = -1;
+        for (; next < target; next++) {
+            int slot = slot(next);
+            OrderEvent event = slots[slot];
+            if (event != null && event.globalSequence() == next) {
+                if (gapStart >= 0) {
+                    gap(gapStart, next - 1, reason);
+                    gapStart = -1;
+                }
+                release(slot, nowNanos);
+            } else if (gapStart < 0) {
+                gapStart = next;
+            }
+        }
+        if (gapStart >= 0) {
+            gap(gapStart, target - 1, reason);
+        }
+    }
+
+    private long firstBuffered() {
+        for (long sequence = next; sequence < next + slots.length; sequence++) {
+            OrderEvent event = slots[slot(sequence)];
+            if (event != null && event.globalSequence() == sequence) {
+                return sequence;
+            }
+        }
+        throw new IllegalStateException("No event buffered");
+    }
+
+    private void release(int slot, long nowNanos) {
+        OrderEvent event = slots[slot];
+        long waited = nowNanos - arrivedNanos[slot];
+        slots[slot] = null;
+        depth--;
+        released++;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+        downstream.accept(event);
+    }
+
+    private void gap(long from, long to, GapReason reason) {
+        SequenceGap gap = new SequenceGap(from, to, reason);
+        gaps++;
+        missing += gap.size();
+        skipped.put(from, to);
+        if (skipped.size() > slots.length) {
+            skipped.pollFirstEntry();  // Oldest: its events are dropped from now on
+        }
+        gapListener.accept(gap);
+    }
+
+    // Remove sequence from the skipped ranges, if it is in one
+    private boolean claimSkipped(long sequence) {
+        Map.Entry<Long, Long> range = skipped.floorEntry(sequence);
+        if (range == null || range.getValue() < sequence) {
+            return false;
+        }
+        skipped.remove(range.getKey());
+        if (range.getKey() < sequence) {
+            skipped.put(range.getKey(), sequence - 1);
+        }
+        if (sequence < range.getValue()) {
+            skipped.put(sequence + 1, range.getValue());
+        }
+        if (skipped.size() > slots.length) {
+            skipped.pollFirstEntry();
+        }
+        return true;
+    }
+
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) slots.length);
+    }
+}
@@ -0,0 +1,47 @@
+package io.techyowls.kafka.order;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Current state of an order. Every change also writes an
+ * {@link io.techyowls.kafka.outbox.OutboxEvent} (see {@link OrderService}).
+ */
+@Entity
+@Table(name = "orders")
+public class CustomerOrder {
+
+    @Id
+    private String id;
+
+    private String status;
+
+    private Instant updatedAt;
+
+    protected CustomerOrder() {
+    }
+
+    public CustomerOrder(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    void transition(String status, Instant at) {
+        this.status = status;
+        this.updatedAt = at;
+    }
+}
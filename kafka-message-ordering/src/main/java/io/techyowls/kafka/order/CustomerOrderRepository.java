@@ -0,0 +1,6 @@
+package io.techyowls.kafka.order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, String> {
+}
@@ -0,0 +1,42 @@
+package io.techyowls.kafka.order;
+
+import io.techyowls.kafka.outbox.OutboxEvent;
+import io.techyowls.kafka.outbox.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Order state changes, published through the transactional outbox.
+ *
+ * The order row and its outbox row commit together, so an event is
+ * published if and only if the change happened. {@link
+ * io.techyowls.kafka.outbox.OutboxRelay} sends it to Kafka afterwards.
+ */
+@Service
+public class OrderService {
+
+    private final CustomerOrderRepository orders;
+    private final OutboxEventRepository outbox;
+
+    public OrderService(CustomerOrderRepository orders, OutboxEventRepository outbox) {
+        this.orders = orders;
+        this.outbox = outbox;
+    }
+
+    /**
+     * Move the order (created if new) to status, e.g. CREATED, SHIPPED.
+     */
+    @Transactional
+    public CustomerOrder transition(String orderId, String status) {
+        Instant now = Instant.now();
+        CustomerOrder order = orders.findById(orderId).orElseGet(() -> new CustomerOrder(orderId));
+        order.transition(status, now);
+        // Updating the order row first serializes changes to the same order, so
+        // their outbox ids (and publish order) follow commit order
+        orders.saveAndFlush(order);
+        outbox.save(new OutboxEvent(orderId, status, now));
+        return order;
+    }
+}
@@ -0,0 +1,65 @@
+package io.techyowls.kafka.outbox;
+
+import io.techyowls.kafka.model.OrderEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * An order event waiting to be published (sentAt null), written in the
+ * same transaction as the change it describes.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_pending", columnList = "sentAt, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String orderId;
+
+    private String type;
+
+    private Instant occurredAt;
+
+    private Instant sentAt;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(String orderId, String type, Instant occurredAt) {
+        this.orderId = orderId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public OrderEvent toOrderEvent() {
+        return new OrderEvent(orderId, type, occurredAt);
+    }
+}
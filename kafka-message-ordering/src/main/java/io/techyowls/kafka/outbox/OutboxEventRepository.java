@@ -0,0 +1,35 @@
+package io.techyowls.kafka.outbox;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest unsent events first: commit order, so per-order order too.
+     */
+    List<OutboxEvent> findBySentAtIsNullOrderByIdAsc(Limit limit);
+
+    Optional<OutboxEvent> findFirstBySentAtIsNullOrderByIdAsc();
+
+    long countBySentAtIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
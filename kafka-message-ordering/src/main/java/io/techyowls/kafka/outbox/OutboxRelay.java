@@ -0,0 +1,273 @@
+package io.techyowls.kafka.outbox;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.techyowls.kafka.producer.KeyBasedOrderEventProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka through {@link KeyBasedOrderEventProducer}.
+ *
+ * Each cycle reads up to batchSize unsent events in id (commit) order,
+ * sends them, then marks the sent ones in one UPDATE. Sends go out in
+ * rounds: an order's next event once its previous one is acked. So
+ * different orders are in flight together, an order one event at a time.
+ *
+ * If an order's send fails, its later events in the batch are not sent:
+ * next cycle resends from the failed one. A later event never reaches
+ * Kafka ahead of an earlier one that failed, so an order's events are
+ * never published out of order. Delivery is at-least-once and consumers
+ * may see duplicates, e.g. when a relay dies between acks and the UPDATE.
+ *
+ * An order with k events in a batch takes k ack round trips (linger plus
+ * broker RTT each), so batches pay off across orders, not within one.
+ *
+ * Run one relay per outbox; two would race on the same rows.
+ *
+ * Metrics ({@link #bindTo}): order.outbox.pending and .lag (gauges, read
+ * from the outbox table when scraped), .relayed and .failed (counters),
+ * .batch.size (events read per non-empty cycle).
+ */
+public class OutboxRelay implements AutoCloseable, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * @param pending         Unsent events
+     * @param lag             Age of the oldest unsent event
+     * @param batches         Cycles that sent something
+     * @param relayed         Events marked sent
+     * @param failed          Events not marked sent because of a failed send
+     * @param lastBatchSize   Events read by the latest non-empty cycle
+     * @param maxBatchSize    Largest batch read
+     */
+    public record OutboxStats(long pending, Duration lag, long batches, long relayed, long failed,
+                              int lastBatchSize, int maxBatchSize) {
+
+        public double meanBatchSize() {
+            return batches == 0 ? 0 : (double) (relayed + failed) / batches;
+        }
+    }
+
+    private final OutboxEventRepository outbox;
+    private final KeyBasedOrderEventProducer producer;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retention;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile int maxBatchSize;
+    private volatile DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread relayThread;
+    private Instant lastPurge = Instant.EPOCH;
+
+    /**
+     * @param batchSize     Most events read and sent per cycle
+     * @param pollInterval  Wait between cycles when the outbox is drained
+     * @param retention     How long sent events are kept before being deleted
+     */
+    public OutboxRelay(OutboxEventRepository outbox, KeyBasedOrderEventProducer producer,
+                       int batchSize, Duration pollInterval, Duration retention) {
+        this.outbox = outbox;
+        this.producer = producer;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Already started");
+        }
+        running = true;
+        relayThread = new Thread(this::relayLoop, "outbox-relay");
+        relayThread.start();
+    }
+
+    /**
+     * One cycle: send up to batchSize events and mark the sent ones.
+     *
+     * @return Events read (0 when the outbox is drained)
+     */
+    public int relayOnce() {
+        List<OutboxEvent> batch = outbox.findBySentAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Deque<OutboxEvent>> unsent = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            unsent.computeIfAbsent(event.getOrderId(), order -> new ArrayDeque<>()).add(event);
+        }
+
+        // One round per event of the longest order: the next event of each
+        // order whose previous one was acked. A failed order stops there.
+        List<Long> sent = new ArrayList<>(batch.size());
+        Set<String> failedOrders = new HashSet<>();
+        while (!unsent.isEmpty()) {
+            Map<OutboxEvent, CompletableFuture<?>> round = new LinkedHashMap<>();
+            for (Deque<OutboxEvent> events : unsent.values()) {
+                OutboxEvent event = events.poll();
+                round.put(event, send(event));
+            }
+            round.forEach((event, ack) -> {
+                if (succeeded(ack)) {
+                    sent.add(event.getId());
+                } else {
+                    failedOrders.add(event.getOrderId());
+                    unsent.remove(event.getOrderId());
+                }
+            });
+            unsent.values().removeIf(Deque::isEmpty);
+        }
+        if (!sent.isEmpty()) {
+            outbox.markSent(sent, Instant.now());
+        }
+
+        int notSent = batch.size() - sent.size();
+        if (notSent > 0) {
+            log.warn("Outbox relay: {} event(s) of {} order(s) not sent, retrying next cycle", notSent, failedOrders.size());
+        }
+        batches.incrementAndGet();
+        relayed.addAndGet(sent.size());
+        failed.addAndGet(notSent);
+        lastBatchSize = batch.size();
+        maxBatchSize = Math.max(maxBatchSize, batch.size());
+        DistributionSummary summary = batchSizes;
+        if (summary != null) {
+            summary.record(batch.size());
+        }
+        return batch.size();
+    }
+
+    public OutboxStats stats() {
+        return new OutboxStats(outbox.countBySentAtIsNull(), lag(), batches.get(), relayed.get(), failed.get(),
+            lastBatchSize, maxBatchSize);
+    }
+
+    private Duration lag() {
+        return outbox.findFirstBySentAtIsNullOrderByIdAsc()
+            .map(oldest -> Duration.between(oldest.getOccurredAt(), Instant.now()))
+            .orElse(Duration.ZERO);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.outbox.pending", outbox, OutboxEventRepository::countBySentAtIsNull)
+            .description("Unsent outbox events")
+            .register(registry);
+        TimeGauge.builder("order.outbox.lag", this, TimeUnit.MILLISECONDS, relay -> relay.lag().toMillis())
+            .description("Age of the oldest unsent outbox event")
+            .register(registry);
+        FunctionCounter.builder("order.outbox.relayed", relayed, AtomicLong::get)
+            .description("Events marked sent")
+            .register(registry);
+        FunctionCounter.builder("order.outbox.failed", failed, AtomicLong::get)
+            .description("Events not marked sent because of a failed send")
+            .register(registry);
+        batchSizes = DistributionSummary.builder("order.outbox.batch.size")
+            .description("Events read per non-empty relay cycle")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = relayThread;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                int read = relayOnce();
+                purgeSent();
+                if (read < batchSize) {
+                    Thread.sleep(pollInterval);  // Drained: wait for more. Full batch: go again
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Outbox relay cycle failed: {}", e.getMessage(), e);
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    private void purgeSent() {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).compareTo(PURGE_INTERVAL) >= 0) {
+            lastPurge = now;
+            int deleted = outbox.deleteSentBefore(now.minus(retention));
+            if (deleted > 0) {
+                log.debug("Purged {} sent outbox event(s)", deleted);
+            }
+        }
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            return producer.send(event.toOrderEvent());
+        } catch (RuntimeException e) {
+            // E.g. serialization, or buffer full past max.block.ms
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static boolean succeeded(CompletableFuture<?> ack) {
+        try {
+            ack.join();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.techyowls.kafka.producer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * {@link SequenceStore} on a database table (created by schema.sql):
+ *
+ * CREATE TABLE IF NOT EXISTS sequence_block (
+ *     name       VARCHAR(64) PRIMARY KEY,
+ *     last_value BIGINT NOT NULL
+ * );
+ *
+ * reserve is an UPDATE ... SET last_value = last_value + ? followed by a
+ * SELECT in one transaction; the row lock serializes concurrent producers.
+ */
+public class JdbcSequenceStore implements SequenceStore {
+
+    private static final String INCREMENT = "UPDATE sequence_block SET last_value = last_value + ? WHERE name = ?";
+    private static final String SELECT = "SELECT last_value FROM sequence_block WHERE name = ?";
+    private static final String INSERT = "INSERT INTO sequence_block (name, last_value) VALUES (?, ?)";
+    private static final String GIVE_BACK = "UPDATE sequence_block SET last_value = ? WHERE name = ? AND last_value = ?";
+
+    private final DataSource dataSource;
+
+    public JdbcSequenceStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public long reserve(String name, int count) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long value = increment(connection, name, count);
+                connection.commit();
+                return value;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve " + count + " sequences for " + name, e);
+        }
+    }
+
+    @Override
+    public boolean giveBack(String name, long from, long to) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(GIVE_BACK)) {
+            update.setLong(1, from - 1);
+            update.setString(2, name);
+            update.setLong(3, to);
+            return update.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not give back sequences " + from + ".." + to + " for " + name, e);
+        }
+    }
+
+    private long increment(Connection connection, String name, int count) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(INCREMENT)) {
+            update.setInt(1, count);
+            update.setString(2, name);
+            if (update.executeUpdate() == 0) {
+                // First lease for this name
+                if (insert(connection, name, count)) {
+                    return count;
+                }
+                update.executeUpdate();  // Lost the insert race: the row exists now
+            }
+        }
+        try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private boolean insert(Connection connection, String name, int count) throws SQLException {
+        // Some databases (PostgreSQL) abort the whole transaction on a failed statement
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, name);
+            insert.setLong(2, count);
+            insert.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            // 23xxx: integrity constraint violation, i.e. duplicate key
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                connection.rollback(savepoint);
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package io.techyowls.kafka.producer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.techyowls.kafka.model.OrderEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Key-based routing - the most common ordering strategy.
  *
  * All events for the same orderId go to the same partition,
  * guaranteeing order per entity.
+ *
+ * Send outcomes go to Micrometer through {@link SendMetrics}
+ * (producer=key-based) rather than a log line per record.
  */
 @Service
 public class KeyBasedOrderEventProducer {
@@ -21,9 +27,11 @@ public class KeyBasedOrderEventProducer {
     private static final String TOPIC = "order-events";
 
     private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final SendMetrics metrics;
 
-    public KeyBasedOrderEventProducer(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+    public KeyBasedOrderEventProducer(KafkaTemplate<String, OrderEvent> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.metrics = new SendMetrics(meterRegistry, "key-based");
     }
 
     /**
@@ -31,16 +39,25 @@ public class KeyBasedOrderEventProducer {
      * This ensures all events for the same order go to the same partition.
      */
     public void sendOrderEvent(String orderId, String eventType) {
-        OrderEvent event = new OrderEvent(orderId, eventType, Instant.now());
+        send(new OrderEvent(orderId, eventType, Instant.now()));
+    }
 
+    /**
+     * Send event with orderId as key; completes when the broker acks it.
+     * Fire-and-forget callers can ignore the result, the outcome is in
+     * the order.events.sends metric.
+     */
+    public CompletableFuture<SendResult<String, OrderEvent>> send(OrderEvent event) {
         // Key = orderId -> same partition -> guaranteed order
-        kafkaTemplate.send(TOPIC, event.orderId(), event)
+        long start = System.nanoTime();
+        return kafkaTemplate.send(TOPIC, event.orderId(), event)
             .whenComplete((result, ex) -> {
                 if (ex != null) {
-                    log.error("Failed to send {}: {}", eventType, ex.getMessage());
+                    metrics.recordFailure(event.type(), ex);
                 } else {
-                    log.info("Sent {} for order {} to partition {}",
-                        eventType, orderId, result.getRecordMetadata().partition());
+                    metrics.recordSuccess(start);
+                    log.debug("Sent {} for order {} to partition {}",
+                        event.type(), event.orderId(), result.getRecordMetadata().partition());
                 }
             });
     }
@@ -0,0 +1,67 @@
+package io.techyowls.kafka.producer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Leases blocks of sequence numbers from a {@link SequenceStore}.
+ *
+ * Within a block allocation is a local increment; the store is only hit
+ * once per blockSize sequences. Blocks never overlap, so any number of
+ * instances can share a sequence, and a restarted one carries on from the
+ * store's counter.
+ *
+ * Trade-off: with N producers the numbers are unique but each instance
+ * runs through its own block, so the merged stream is only dense per
+ * block. Other instances' sequences reach the consumer's reorder buffer
+ * "early", and a crashed instance's unused block shows up as a gap.
+ * Keep blockSize small relative to the consumer's maxGap (blockSize = 1
+ * makes the stream dense, at one store round trip per event).
+ */
+public class LeasedSequenceAllocator implements SequenceAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedSequenceAllocator.class);
+
+    private final SequenceStore store;
+    private final String name;
+    private final int blockSize;
+
+    // Current block: next..limit still free
+    private long next = 1;
+    private long limit = 0;
+
+    public LeasedSequenceAllocator(SequenceStore store, String name, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1, got " + blockSize);
+        }
+        this.store = store;
+        this.name = name;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public synchronized long next() {
+        if (next > limit) {
+            limit = store.reserve(name, blockSize);
+            next = limit - blockSize + 1;
+            log.debug("Leased {} sequences {}..{}", name, next, limit);
+        }
+        return next++;
+    }
+
+    /**
+     * Try to hand the rest of the current block back, so a restart continues
+     * without a gap.
+     */
+    @Override
+    public synchronized void close() {
+        if (next <= limit) {
+            if (store.giveBack(name, next, limit)) {
+                log.debug("Returned {} sequences {}..{}", name, next, limit);
+            } else {
+                log.info("Abandoned {} sequences {}..{}", name, next, limit);
+            }
+            next = limit + 1;
+        }
+    }
+}
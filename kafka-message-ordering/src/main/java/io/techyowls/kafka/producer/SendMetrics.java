@@ -0,0 +1,84 @@
+package io.techyowls.kafka.producer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Send outcomes recorded from producer callbacks into Micrometer, instead
+ * of a log line per record. All tagged producer:
+ *
+ * - order.events.sends (counter, tag outcome): sent (acked) or failed
+ *   (after retries)
+ * - order.events.send.latency (timer): send to ack, with percentiles
+ *
+ * Callbacks run on the producer's I/O thread, so recording is a counter
+ * increment and a timer sample.
+ *
+ * Failures are still logged, but at most once per failureLogInterval (with
+ * the count since the last one).
+ */
+public class SendMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SendMetrics.class);
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer latency;
+
+    private final long failureLogIntervalNanos;
+    private final AtomicLong lastFailureLogNanos = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder failedSinceLog = new LongAdder();
+
+    public SendMetrics(MeterRegistry registry, String producer) {
+        this(registry, producer, Duration.ofSeconds(10));
+    }
+
+    public SendMetrics(MeterRegistry registry, String producer, Duration failureLogInterval) {
+        this.sent = sends(registry, producer, "sent");
+        this.failed = sends(registry, producer, "failed");
+        this.latency = Timer.builder("order.events.send.latency")
+            .description("Time from send to broker ack")
+            .tag("producer", producer)
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(2))
+            .register(registry);
+        this.failureLogIntervalNanos = failureLogInterval.toNanos();
+    }
+
+    /**
+     * @param startNanos System.nanoTime() when the record was sent
+     */
+    public void recordSuccess(long startNanos) {
+        sent.increment();
+        latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFailure(String eventType, Throwable exception) {
+        failed.increment();
+        failedSinceLog.increment();
+        long now = System.nanoTime();
+        long last = lastFailureLogNanos.get();
+        if ((last == Long.MIN_VALUE || now - last >= failureLogIntervalNanos)
+                && lastFailureLogNanos.compareAndSet(last, now)) {
+            log.error("{} send(s) failed, latest {}: {}", failedSinceLog.sumThenReset(), eventType, exception.getMessage());
+        }
+    }
+
+    private static Counter sends(MeterRegistry registry, String producer, String outcome) {
+        return Counter.builder("order.events.sends")
+            .description("Records sent, by outcome")
+            .tag("producer", producer)
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
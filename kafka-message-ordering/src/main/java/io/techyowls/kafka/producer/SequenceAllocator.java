@@ -0,0 +1,30 @@
+package io.techyowls.kafka.producer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of global sequence numbers for {@link SequencedProducer}.
+ *
+ * Every number handed out must be unique across all producer instances
+ * sharing the sequence, and across restarts.
+ */
+public interface SequenceAllocator extends AutoCloseable {
+
+    long next();
+
+    /**
+     * Release anything still held, e.g. an unused leased block.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Plain counter starting at 1. Only safe for a single producer instance,
+     * and restarts from 1.
+     */
+    static SequenceAllocator inMemory() {
+        AtomicLong counter = new AtomicLong();
+        return counter::incrementAndGet;
+    }
+}
@@ -0,0 +1,30 @@
+package io.techyowls.kafka.producer;
+
+/**
+ * Durable counter that sequence blocks are leased from.
+ *
+ * reserve has Redis INCRBY semantics, so a Redis store is just:
+ * (name, count) -> redis.opsForValue().increment(name, count)
+ * See {@link JdbcSequenceStore} for a database table.
+ */
+@FunctionalInterface
+public interface SequenceStore {
+
+    /**
+     * Atomically add count to the named counter (created at 0 if missing).
+     *
+     * @return The new value: the block reserved is value - count + 1 .. value
+     */
+    long reserve(String name, int count);
+
+    /**
+     * Hand back from..to, but only if nothing was reserved after it (the
+     * counter still equals to). Optional; without it an unused tail is
+     * skipped like any other gap.
+     *
+     * @return Whether the counter was rolled back to from - 1
+     */
+    default boolean giveBack(String name, long from, long to) {
+        return false;
+    }
+}
@@ -1,51 +1,80 @@
 package io.techyowls.kafka.producer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.techyowls.kafka.model.OrderEvent;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.LongSerializer;
-import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.time.Instant;
 import java.util.Properties;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * External sequencing strategy for global ordering across all partitions.
  *
  * Adds a global sequence number to each message.
  * Consumer must buffer and reorder by sequence.
+ *
+ * Sequences come from a {@link SequenceAllocator}: use a
+ * {@link LeasedSequenceAllocator} when more than one instance produces,
+ * or the sequence has to survive restarts.
+ *
+ * Send outcomes go to Micrometer through {@link SendMetrics}
+ * (producer=sequenced): the given registry, else the global one, which
+ * Spring Boot's registry is added to.
  */
 public class SequencedProducer {
 
     private static final Logger log = LoggerFactory.getLogger(SequencedProducer.class);
     private static final String TOPIC = "sequenced-events";
 
-    private final AtomicLong sequenceGenerator = new AtomicLong(0);
+    private final SequenceAllocator sequences;
     private final KafkaProducer<Long, OrderEvent> producer;
+    private final SendMetrics metrics;
 
+    /**
+     * In-memory sequence: single instance only, restarts from 1.
+     */
     public SequencedProducer(String bootstrapServers) {
+        this(bootstrapServers, SequenceAllocator.inMemory());
+    }
+
+    public SequencedProducer(String bootstrapServers, SequenceAllocator sequences) {
+        this(bootstrapServers, sequences, new JsonSerializer<>());
+    }
+
+    /**
+     * @param valueSerializer E.g. an OrderEventBinarySerializer instead of JSON
+     */
+    public SequencedProducer(String bootstrapServers, SequenceAllocator sequences, Serializer<OrderEvent> valueSerializer) {
+        this(bootstrapServers, sequences, valueSerializer, Metrics.globalRegistry);
+    }
+
+    public SequencedProducer(String bootstrapServers, SequenceAllocator sequences, Serializer<OrderEvent> valueSerializer,
+                             MeterRegistry meterRegistry) {
+        this.sequences = sequences;
+        this.metrics = new SendMetrics(meterRegistry, "sequenced");
         Properties props = new Properties();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
 
         // Idempotent producer
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         props.put(ProducerConfig.ACKS_CONFIG, "all");
 
-        this.producer = new KafkaProducer<>(props);
+        this.producer = new KafkaProducer<>(props, new LongSerializer(), valueSerializer);
     }
 
     /**
      * Send event with global sequence number.
      */
     public void send(String orderId, String eventType) {
-        long seq = sequenceGenerator.incrementAndGet();
+        long seq = sequences.next();
 
         OrderEvent event = new OrderEvent(
             orderId,
@@ -57,11 +86,14 @@ public class SequencedProducer {
         // Use sequence as key for consistent routing
         ProducerRecord<Long, OrderEvent> record = new ProducerRecord<>(TOPIC, seq, event);
 
+        long start = System.nanoTime();
         producer.send(record, (metadata, exception) -> {
             if (exception != null) {
-                log.error("Failed to send seq={}: {}", seq, exception.getMessage());
+                // Consumers will see this sequence as a gap
+                metrics.recordFailure("seq=" + seq, exception);
             } else {
-                log.info("Sent seq={} type={} to partition={}",
+                metrics.recordSuccess(start);
+                log.debug("Sent seq={} type={} to partition={}",
                     seq, eventType, metadata.partition());
             }
         });
@@ -69,5 +101,6 @@ public class SequencedProducer {
 
     public void close() {
         producer.close();
+        sequences.close();
     }
 }
@@ -0,0 +1,91 @@
+package io.techyowls.kafka.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-backed stand-in for a schema registry, shared by everything
+ * pointed at the same directory: version N of a subject is stored as
+ * dir/subject/vN.json.
+ *
+ * Registering checks the new schema against the latest version. Versions
+ * are never changed once written, so reads are cached.
+ */
+public class LocalSchemaRegistry {
+
+    /**
+     * Serde config key (e.g. spring.kafka.producer.properties) for the directory.
+     */
+    public static final String DIR_CONFIG = "order-event.schema-registry.dir";
+
+    private final Path dir;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, OrderEventSchema> cache = new ConcurrentHashMap<>();
+
+    public LocalSchemaRegistry(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Register schema under subject, unless an identical version exists.
+     *
+     * @return Its version
+     * @throws IllegalArgumentException If it can't follow the latest version
+     */
+    public synchronized int register(String subject, OrderEventSchema schema) {
+        try {
+            Files.createDirectories(dir.resolve(subject));
+            while (true) {
+                int latest = 0;
+                while (Files.exists(file(subject, latest + 1))) {
+                    latest++;
+                    if (get(subject, latest).equals(schema)) {
+                        return latest;
+                    }
+                }
+                if (latest > 0) {
+                    schema.checkCanFollow(get(subject, latest));
+                }
+                try {
+                    Files.write(file(subject, latest + 1), mapper.writeValueAsBytes(schema), StandardOpenOption.CREATE_NEW);
+                    return latest + 1;
+                } catch (FileAlreadyExistsException e) {
+                    // Another process registered this version first: check against it
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not register " + subject + " schema in " + dir, e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If there is no such version
+     */
+    public OrderEventSchema get(String subject, int version) {
+        return cache.computeIfAbsent(subject + "/" + version, key -> read(subject, version));
+    }
+
+    private OrderEventSchema read(String subject, int version) {
+        Path file = file(subject, version);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("No " + subject + " schema version " + version + " in " + dir);
+        }
+        try {
+            return mapper.readValue(file.toFile(), OrderEventSchema.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private Path file(String subject, int version) {
+        return dir.resolve(subject).resolve("v" + version + ".json");
+    }
+}
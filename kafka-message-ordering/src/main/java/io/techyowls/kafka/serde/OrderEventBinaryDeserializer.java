@@ -0,0 +1,88 @@
+package io.techyowls.kafka.serde;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Reads what {@link OrderEventBinarySerializer} writes. Type ordinals are
+ * resolved through the writer's schema version, looked up in the
+ * {@link LocalSchemaRegistry}, so types added after this reader was built
+ * still decode.
+ */
+public class OrderEventBinaryDeserializer implements Deserializer<OrderEvent> {
+
+    private LocalSchemaRegistry registry;
+
+    /**
+     * For Kafka: configured through {@link LocalSchemaRegistry#DIR_CONFIG}.
+     */
+    public OrderEventBinaryDeserializer() {
+    }
+
+    public OrderEventBinaryDeserializer(LocalSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (registry == null) {
+            registry = new LocalSchemaRegistry(Path.of(String.valueOf(configs.get(LocalSchemaRegistry.DIR_CONFIG))));
+        }
+    }
+
+    @Override
+    public OrderEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != OrderEventBinarySerializer.MAGIC) {
+            throw new SerializationException("Not a binary OrderEvent (magic byte " + (data.length == 0 ? "missing" : data[0]) + ")");
+        }
+        try {
+            Reader in = new Reader(data);
+            OrderEventSchema schema = registry.get(OrderEventSchema.SUBJECT, (int) in.varLong());
+            int length = (int) in.varLong();
+            String orderId = new String(data, in.pos, length, StandardCharsets.UTF_8);
+            in.pos += length;
+            String type = schema.type((int) in.varLong());
+            long micros = in.zigzagLong();
+            long globalSequence = in.zigzagLong();
+            return new OrderEvent(orderId, type,
+                Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000), globalSequence);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Could not read binary OrderEvent from " + topic, e);
+        }
+    }
+
+    private static class Reader {
+
+        private final byte[] data;
+        private int pos = 1;  // After the magic byte
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long varLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long zigzagLong() {
+            long value = varLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.techyowls.kafka.serde;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compact binary {@link OrderEvent} serializer, instead of JSON plus a
+ * type header:
+ *
+ * magic byte 1 | schema version | orderId | type ordinal | timestamp | globalSequence
+ *
+ * Numbers are varints (signed ones zigzag encoded, as in Avro), orderId is
+ * a varint length plus UTF-8, and the timestamp is epoch micros.
+ *
+ * The schema is registered with the {@link LocalSchemaRegistry} on
+ * configure; a type not in it fails the send, as does a null orderId or
+ * timestamp (the format has no null). No record headers are added.
+ */
+public class OrderEventBinarySerializer implements Serializer<OrderEvent> {
+
+    static final byte MAGIC = 1;
+
+    private OrderEventSchema schema;
+    private int version;
+
+    /**
+     * For Kafka: configured through {@link LocalSchemaRegistry#DIR_CONFIG}.
+     */
+    public OrderEventBinarySerializer() {
+    }
+
+    public OrderEventBinarySerializer(LocalSchemaRegistry registry, OrderEventSchema schema) {
+        this.schema = schema;
+        this.version = registry.register(OrderEventSchema.SUBJECT, schema);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (schema == null) {
+            LocalSchemaRegistry registry = new LocalSchemaRegistry(Path.of(String.valueOf(configs.get(LocalSchemaRegistry.DIR_CONFIG))));
+            this.schema = OrderEventSchema.V1;
+            this.version = registry.register(OrderEventSchema.SUBJECT, schema);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderEvent event) {
+        if (event == null) {
+            return null;
+        }
+        int ordinal = schema.ordinal(event.type());
+        if (ordinal < 0) {
+            throw new SerializationException("Event type " + event.type() + " is not in schema version "
+                + version + " " + schema.types() + "; register a version that appends it");
+        }
+        byte[] orderId = required(event.orderId(), "orderId", event).getBytes(StandardCharsets.UTF_8);
+        long timestamp = epochMicros(required(event.timestamp(), "timestamp", event));
+
+        // Worst case: magic, 5-byte varints for ints, 10-byte varints for longs
+        byte[] out = new byte[1 + 5 + 5 + orderId.length + 5 + 10 + 10];
+        out[0] = MAGIC;
+        int pos = writeVarLong(out, 1, version);
+        pos = writeVarLong(out, pos, orderId.length);
+        System.arraycopy(orderId, 0, out, pos, orderId.length);
+        pos += orderId.length;
+        pos = writeVarLong(out, pos, ordinal);
+        pos = writeVarLong(out, pos, zigzag(timestamp));
+        pos = writeVarLong(out, pos, zigzag(event.globalSequence()));
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static <T> T required(T value, String field, OrderEvent event) {
+        if (value == null) {
+            throw new SerializationException("Event " + event + " has no " + field);
+        }
+        return value;
+    }
+
+    private static long epochMicros(Instant timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000L), timestamp.getNano() / 1_000);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int writeVarLong(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+}
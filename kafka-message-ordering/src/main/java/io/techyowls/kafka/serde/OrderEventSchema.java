@@ -0,0 +1,52 @@
+package io.techyowls.kafka.serde;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Binary layout of an {@link io.techyowls.kafka.model.OrderEvent}: the
+ * fields are fixed, the event types are an enum written as their ordinal
+ * in this list.
+ *
+ * Evolution rule: a new version may only append types. Ordinals already
+ * written then keep their meaning, and a reader on an older version
+ * decodes new ordinals through the writer's version from the registry.
+ */
+public record OrderEventSchema(List<String> types) {
+
+    public static final String SUBJECT = "order-event";
+
+    public static final OrderEventSchema V1 =
+        new OrderEventSchema(List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED"));
+
+    public OrderEventSchema {
+        types = List.copyOf(types);
+        if (new HashSet<>(types).size() != types.size()) {
+            throw new IllegalArgumentException("Duplicate event types in " + types);
+        }
+    }
+
+    /**
+     * @return The type's ordinal, or -1 if this version doesn't have it
+     */
+    public int ordinal(String type) {
+        return types.indexOf(type);
+    }
+
+    public String type(int ordinal) {
+        if (ordinal < 0 || ordinal >= types.size()) {
+            throw new IllegalArgumentException("No event type " + ordinal + " in " + types);
+        }
+        return types.get(ordinal);
+    }
+
+    /**
+     * @throws IllegalArgumentException If this isn't previous with types appended
+     */
+    public void checkCanFollow(OrderEventSchema previous) {
+        if (types.size() < previous.types.size() || !types.subList(0, previous.types.size()).equals(previous.types)) {
+            throw new IllegalArgumentException(
+                "Incompatible schema: types " + types + " must start with " + previous.types + " (append only)");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- High-water marks for order-events.dedup.store=jdbc (JdbcHighWaterMarkStore)
+CREATE TABLE IF NOT EXISTS processed_order (
+    order_id        VARCHAR(255) PRIMARY KEY,
+    high_water_mark BIGINT NOT NULL
+);
+
+-- Leased sequence blocks for LeasedSequenceAllocator (JdbcSequenceStore)
+CREATE TABLE IF NOT EXISTS sequence_block (
+    name       VARCHAR(64) PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
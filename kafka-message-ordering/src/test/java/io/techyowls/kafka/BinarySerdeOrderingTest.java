@@ -0,0 +1,57 @@
+package io.techyowls.kafka;
+
+import io.techyowls.kafka.consumer.OrderEventConsumer;
+import io.techyowls.kafka.producer.KeyBasedOrderEventProducer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "order-events.serde=binary",
+    "order-events.schema-registry-dir=${java.io.tmpdir}/binary-serde-test-schemas"
+})
+@EmbeddedKafka(
+    partitions = 3,
+    topics = {"order-events"},
+    brokerProperties = {"listeners=PLAINTEXT://localhost:9092", "port=9092"}
+)
+@DirtiesContext
+class BinarySerdeOrderingTest {
+
+    @Autowired
+    private KeyBasedOrderEventProducer producer;
+
+    @Autowired
+    private OrderEventConsumer consumer;
+
+    @Test
+    void shouldMaintainOrderingWithBinarySerde() {
+        // Given - 10 concurrent orders
+        var orderIds = IntStream.range(0, 10)
+            .mapToObj(i -> UUID.randomUUID().toString())
+            .toList();
+
+        // When - send events for all orders
+        orderIds.forEach(producer::processOrder);
+
+        // Then - each order's events should be in order
+        await().atMost(15, TimeUnit.SECONDS).untilAsserted(() -> {
+            for (String orderId : orderIds) {
+                assertEquals(4, consumer.getEventsForOrder(orderId).size(),
+                    "Order " + orderId + " should have 4 events");
+                assertTrue(consumer.verifyOrderingForOrder(orderId),
+                    "Order " + orderId + " events should be in order");
+            }
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package io.techyowls.kafka.consumer;
+
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Events/sec of OrderEventConsumer's record listener vs its batch listener,
+ * each on one container thread over 3 partitions. Consumer logging is
+ * turned down so the listener path itself is measured (each order cycles
+ * through its lifecycle several times, which the metrics log as out of
+ * order; events carry a per-order sequence so the deduplicator keeps them).
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=BatchListenerLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class BatchListenerLoadTest {
+
+    private static final String TOPIC = "batch-load";
+    private static final List<String> LIFECYCLE = List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED");
+    private static final int ORDERS = 2_000;
+    private static final int EVENTS_PER_ORDER = 20;
+    private static final int EVENTS = ORDERS * EVENTS_PER_ORDER;
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startKafka() {
+        broker = new EmbeddedKafkaZKBroker(1, true, 3, TOPIC);
+        broker.afterPropertiesSet();
+        produce();
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareThroughput() {
+        ch.qos.logback.classic.Logger consumerLog =
+            (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(OrderEventConsumer.class);
+        ch.qos.logback.classic.Logger metricsLog =
+            (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(OrderingMetrics.class);
+        Level level = consumerLog.getLevel();
+        Level metricsLevel = metricsLog.getLevel();
+        consumerLog.setLevel(Level.WARN);
+        metricsLog.setLevel(Level.ERROR);
+        try {
+            OrderEventConsumer recordConsumer = new OrderEventConsumer(metrics("listener"), deduplicator());
+            Run record = new Run();
+            run("record", record, (MessageListener<String, OrderEvent>) r -> {
+                record.started();
+                recordConsumer.handleOrderEvent(r.value());
+                record.processed(1);
+            });
+
+            OrderEventConsumer batchConsumer = new OrderEventConsumer(metrics("batch"), deduplicator());
+            Run batch = new Run();
+            run("batch", batch, (BatchMessageListener<String, OrderEvent>) records -> {
+                batch.started();
+                batchConsumer.handleOrderEvents(records);
+                batch.processed(records.size());
+            });
+
+            assertEquals(EVENTS_PER_ORDER, recordConsumer.getEventsForOrder("order-0").size());
+            assertEquals(recordConsumer.getEventsForOrder("order-0"), batchConsumer.getEventsForOrder("order-0"));
+            System.out.printf("%n%d events, %d orders, 3 partitions, 1 listener thread%n"
+                    + "record listener: %8.0f events/s%nbatch listener:  %8.0f events/s%n",
+                EVENTS, ORDERS, record.eventsPerSecond(), batch.eventsPerSecond());
+        } finally {
+            consumerLog.setLevel(level);
+            metricsLog.setLevel(metricsLevel);
+        }
+    }
+
+    private static OrderingMetrics metrics(String mode) {
+        return new OrderingMetrics(new SimpleMeterRegistry(), mode, 100_000);
+    }
+
+    private static EventDeduplicator deduplicator() {
+        return new EventDeduplicator(100_000, 1_000_000, 0.0001);
+    }
+
+    private void run(String mode, Run run, Object listener) {
+        ContainerProperties properties = new ContainerProperties(TOPIC);
+        properties.setGroupId(TOPIC + "-" + mode);
+        properties.setMessageListener(listener);
+        ConcurrentMessageListenerContainer<String, OrderEvent> container =
+            new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(consumerProps(TOPIC + "-" + mode)), properties);
+        container.start();
+        try {
+            await().atMost(2, TimeUnit.MINUTES).until(() -> run.count.get() >= EVENTS);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static void produce() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < EVENTS_PER_ORDER; i++) {
+                String type = LIFECYCLE.get(i % LIFECYCLE.size());
+                for (int order = 0; order < ORDERS; order++) {
+                    String orderId = "order-" + order;
+                    producer.send(new ProducerRecord<>(TOPIC, orderId, new OrderEvent(orderId, type, Instant.now(), i + 1)));
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> consumerProps(String groupId) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "io.techyowls.kafka.model");
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderEvent.class.getName());
+        return props;
+    }
+
+    /**
+     * Timed from the first event to the last, so the group join doesn't count.
+     */
+    private static class Run {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong firstNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        void started() {
+            firstNanos.compareAndSet(0, System.nanoTime());
+        }
+
+        void processed(int events) {
+            if (count.addAndGet(events) >= EVENTS) {
+                lastNanos = System.nanoTime();
+            }
+        }
+
+        double eventsPerSecond() {
+            return EVENTS / ((lastNanos - firstNanos.get()) / 1e9);
+        }
+    }
+}
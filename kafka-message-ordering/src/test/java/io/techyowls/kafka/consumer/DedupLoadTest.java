@@ -0,0 +1,127 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overhead per record of {@link EventDeduplicator} (isDuplicate, then
+ * markProcessed if new), on one thread, and bytes allocated per record.
+ * Every 10th record is a redelivery of the one before it: all of them must
+ * be dropped; new events dropped too are Bloom filter false positives.
+ *
+ * - baseline: just reading each event's fields
+ * - table: 10,000 orders, all of them tracked
+ * - bloom: 1,000,000 orders, 100,000 tracked: most lookups miss the table
+ * - jdbc: table plus JdbcHighWaterMarkStore on in-memory H2
+ *
+ * Each case runs a few warm-up rounds first.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=DedupLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class DedupLoadTest {
+
+    private static final int EVENTS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void measureOverhead() {
+        System.out.printf("%n%-8s %10s %10s %12s %10s %13s %16s%n",
+            "case", "events", "orders", "memory (MB)", "ns/record", "bytes/record", "false positives");
+        baseline(events(EVENTS, 10_000));
+        run("table", events(EVENTS, 10_000), () -> new EventDeduplicator(100_000, 1_000_000, 0.0001));
+        run("bloom", events(EVENTS, 1_000_000), () -> new EventDeduplicator(100_000, 1_000_000, 0.0001));
+
+        run("jdbc", events(EVENTS / 20, 10_000), () -> new EventDeduplicator(100_000, 1_000_000, 0.0001, jdbcStore()));
+    }
+
+    // A new deduplicator (and store) per round
+    private static void run(String name, OrderEvent[] events, Supplier<EventDeduplicator> factory) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        double nanosPerRecord = 0;
+        double bytesPerRecord = 0;
+        int falsePositives = 0;
+        EventDeduplicator deduplicator = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            deduplicator = factory.get();
+            int duplicates = 0;
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (OrderEvent event : events) {
+                if (deduplicator.isDuplicate(event)) {
+                    duplicates++;
+                } else {
+                    deduplicator.markProcessed(event);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            assertTrue(duplicates >= events.length / 10, name + ": duplicates let through");
+            falsePositives = duplicates - events.length / 10;
+            nanosPerRecord = (double) elapsed / events.length;
+            bytesPerRecord = (double) allocated / events.length;
+        }
+        System.out.printf("%-8s %10d %10d %12.1f %10.1f %13.2f %16d%n", name, events.length, orders(events),
+            deduplicator.sizeInBytes() / 1e6, nanosPerRecord, bytesPerRecord, falsePositives);
+    }
+
+    private static void baseline(OrderEvent[] events) {
+        long nanos = 0;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (OrderEvent event : events) {
+                checksum += event.orderId().length() + event.type().length() + event.globalSequence();
+            }
+            nanos = System.nanoTime() - start;
+        }
+        assertTrue(checksum > 0);
+        System.out.printf("%-8s %10d %10d %12s %10.1f %13s %16s%n", "baseline", events.length, orders(events),
+            "-", (double) nanos / events.length, "-", "-");
+    }
+
+    // Each order's sequence counts up; every 10th event repeats the previous one
+    private static OrderEvent[] events(int count, int orders) {
+        OrderEvent[] events = new OrderEvent[count];
+        long[] sequences = new long[orders];
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 9) {
+                events[i] = events[i - 1];
+                continue;
+            }
+            int order = (int) ((i * 0x9e3779b1L) & 0x7fffffff) % orders;
+            events[i] = new OrderEvent("order-" + order, "CREATED", Instant.EPOCH, ++sequences[order]);
+        }
+        return events;
+    }
+
+    private static long orders(OrderEvent[] events) {
+        return Arrays.stream(events).map(OrderEvent::orderId).distinct().count();
+    }
+
+    private static HighWaterMarkStore jdbcStore() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute(
+                "CREATE TABLE processed_order (order_id VARCHAR(255) PRIMARY KEY, high_water_mark BIGINT NOT NULL)");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return new JdbcHighWaterMarkStore(dataSource);
+    }
+}
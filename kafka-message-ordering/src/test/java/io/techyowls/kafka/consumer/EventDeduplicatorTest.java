@@ -0,0 +1,100 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventDeduplicatorTest {
+
+    @Test
+    void shouldDropOnlyEventsAlreadyProcessed() {
+        EventDeduplicator deduplicator = new EventDeduplicator(16, 1000, 0.0001);
+
+        assertTrue(process(deduplicator, event("order-1", "CREATED", 0)));
+        assertTrue(process(deduplicator, event("order-1", "PAYMENT_RECEIVED", 0)));
+        assertFalse(process(deduplicator, event("order-1", "CREATED", 0)));           // Redelivered
+        assertFalse(process(deduplicator, event("order-1", "PAYMENT_RECEIVED", 0)));
+        assertTrue(process(deduplicator, event("order-1", "SHIPPED", 0)));
+
+        // Sequenced events: by globalSequence
+        assertTrue(process(deduplicator, event("order-2", "CREATED", 7)));
+        assertTrue(process(deduplicator, event("order-2", "CREATED", 9)));
+        assertFalse(process(deduplicator, event("order-2", "CREATED", 9)));
+
+        // No position: Bloom filter
+        assertTrue(process(deduplicator, event("order-1", "REFUNDED", 0)));
+        assertFalse(process(deduplicator, event("order-1", "REFUNDED", 0)));
+    }
+
+    @Test
+    void shouldLetRegressionsThrough() {
+        EventDeduplicator deduplicator = new EventDeduplicator(16, 1000, 0.0001);
+
+        assertTrue(process(deduplicator, event("order-1", "CREATED", 0)));
+        assertTrue(process(deduplicator, event("order-1", "SHIPPED", 0)));
+        assertTrue(process(deduplicator, event("order-1", "PAYMENT_RECEIVED", 0)));  // Below the mark, never seen
+        assertFalse(process(deduplicator, event("order-1", "PAYMENT_RECEIVED", 0)));
+        assertFalse(process(deduplicator, event("order-1", "SHIPPED", 0)));
+
+        assertTrue(process(deduplicator, event("order-2", "CREATED", 9)));
+        assertTrue(process(deduplicator, event("order-2", "CREATED", 7)));
+        assertFalse(process(deduplicator, event("order-2", "CREATED", 7)));
+    }
+
+    @Test
+    void shouldFallBackToTheBloomFilterForEvictedOrders() {
+        EventDeduplicator deduplicator = new EventDeduplicator(2, 1000, 0.0001);
+        for (int order = 0; order < 100; order++) {
+            process(deduplicator, event("order-" + order, "CREATED", 0));
+        }
+
+        for (int order = 0; order < 100; order++) {
+            assertFalse(process(deduplicator, event("order-" + order, "CREATED", 0)), "order-" + order);
+            assertTrue(process(deduplicator, event("order-" + order, "SHIPPED", 0)), "order-" + order);
+        }
+    }
+
+    @Test
+    void shouldRememberAcrossRestartsWithAStore() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute(
+                "CREATE TABLE processed_order (order_id VARCHAR(255) PRIMARY KEY, high_water_mark BIGINT NOT NULL)");
+        }
+        JdbcHighWaterMarkStore store = new JdbcHighWaterMarkStore(dataSource);
+
+        EventDeduplicator before = new EventDeduplicator(16, 1000, 0.0001, store);
+        process(before, event("order-1", "CREATED", 0));
+        process(before, event("order-1", "SHIPPED", 0));
+        assertTrue(process(before, event("order-1", "PAYMENT_RECEIVED", 0)));  // Regression
+
+        EventDeduplicator restarted = new EventDeduplicator(16, 1000, 0.0001, store);
+        assertFalse(process(restarted, event("order-1", "SHIPPED", 0)));
+        assertFalse(process(restarted, event("order-1", "CREATED", 0)));  // Below a loaded mark: processed
+        assertTrue(process(restarted, event("order-1", "DELIVERED", 0)));
+        assertTrue(process(restarted, event("order-2", "CREATED", 0)));
+        assertFalse(new EventDeduplicator(16, 1000, 0.0001, store).isDuplicate(event("order-9", "CREATED", 0)));
+    }
+
+    // true if processed, false if dropped
+    private static boolean process(EventDeduplicator deduplicator, OrderEvent event) {
+        if (deduplicator.isDuplicate(event)) {
+            return false;
+        }
+        deduplicator.markProcessed(event);
+        return true;
+    }
+
+    private static OrderEvent event(String orderId, String type, long sequence) {
+        return new OrderEvent(orderId, type, Instant.EPOCH, sequence);
+    }
+}
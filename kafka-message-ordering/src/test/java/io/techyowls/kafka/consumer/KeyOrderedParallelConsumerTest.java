@@ -0,0 +1,122 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeyOrderedParallelConsumerTest {
+
+    private static final String TOPIC = "order-events";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final MockConsumer<String, OrderEvent> kafka = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    private KeyOrderedParallelConsumer consumer;
+    private long nextOffset;
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void shouldKeepOrderPerKeyWhileRunningKeysInParallel() {
+        Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+        AtomicInteger count = new AtomicInteger();
+        start(event -> {
+            sleepUpTo(2);
+            processed.computeIfAbsent(event.orderId(), k -> Collections.synchronizedList(new ArrayList<>()))
+                .add(event.globalSequence());
+            count.incrementAndGet();
+        }, 100);
+
+        for (long seq = 0; seq < 50; seq++) {
+            for (int order = 0; order < 20; order++) {
+                send("order-" + order, seq);
+            }
+        }
+
+        await().atMost(20, TimeUnit.SECONDS).until(() -> count.get() == 1000);
+        List<Long> expected = LongStream.range(0, 50).boxed().toList();
+        processed.forEach((orderId, sequence) -> assertEquals(expected, sequence, orderId + " out of order"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> committed() == 1000);
+    }
+
+    @Test
+    void shouldCommitOnlyUpToLowestUnfinishedOffset() {
+        CountDownLatch slowOrderReleased = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        start(event -> {
+            if (event.orderId().equals("slow")) {
+                awaitQuietly(slowOrderReleased);
+            }
+            count.incrementAndGet();
+        }, 100);
+
+        send("a", 0);
+        send("slow", 0);  // Offset 1
+        send("b", 0);
+        send("a", 1);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> count.get() == 3);
+        await().during(300, TimeUnit.MILLISECONDS).atMost(2, TimeUnit.SECONDS).until(() -> committed() == 1);
+
+        slowOrderReleased.countDown();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> committed() == 4);
+    }
+
+    private void start(Consumer<OrderEvent> handler, int maxInFlight) {
+        kafka.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer = new KeyOrderedParallelConsumer(kafka, handler, maxInFlight);
+        consumer.start(TOPIC);
+        kafka.rebalance(List.of(PARTITION));
+    }
+
+    private void send(String orderId, long sequence) {
+        OrderEvent event = new OrderEvent(orderId, "CREATED", Instant.now(), sequence);
+        kafka.addRecord(new ConsumerRecord<>(TOPIC, 0, nextOffset++, orderId, event));
+    }
+
+    private long committed() {
+        OffsetAndMetadata committed = kafka.committed(Set.of(PARTITION)).get(PARTITION);
+        return committed != null ? committed.offset() : -1;
+    }
+
+    private static void sleepUpTo(int millis) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.techyowls.kafka.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.kafka.model.OrderEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderingMetricsTest {
+
+    private static final Instant T0 = Instant.parse("2024-06-01T10:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OrderingMetrics metrics = new OrderingMetrics(registry, "listener", 2);
+
+    @Test
+    void shouldRecordLatencyFromEventTimestamp() {
+        metrics.processed(new OrderEvent("order-1", "CREATED", T0), T0.plusMillis(40));
+        metrics.processed(new OrderEvent("order-1", "SHIPPED", T0), T0.minusMillis(5));  // Clock skew
+
+        var latency = registry.get("order.events.latency").tag("mode", "listener").timer();
+        assertEquals(2, latency.count());
+        assertEquals(40, latency.max(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldCountOutOfOrderEventsPerTypeNotPerKey() {
+        process("order-1", "CREATED");
+        process("order-1", "SHIPPED");
+        process("order-1", "PAYMENT_RECEIVED");  // Regression
+        process("order-2", "CREATED");
+        process("order-2", "CREATED");           // Duplicate
+
+        assertEquals(1, count("PAYMENT_RECEIVED", "regression"));
+        assertEquals(1, count("CREATED", "duplicate"));
+
+        // Only the 2 most recent orders are tracked: order-1 was evicted
+        process("order-3", "CREATED");
+        process("order-1", "CREATED");
+        assertEquals(0, registry.find("order.events.out.of.order").tag("type", "CREATED").tag("kind", "regression").counters().size());
+    }
+
+    @Test
+    void shouldCountRegressionsLetThroughByTheDeduplicator() {
+        OrderEventConsumer consumer = new OrderEventConsumer(metrics, new EventDeduplicator(16, 1000, 0.0001));
+
+        consumer.handleOrderEvent(new OrderEvent("order-1", "SHIPPED", T0));
+        consumer.handleOrderEvent(new OrderEvent("order-1", "CREATED", T0));  // E.g. resent after a failed send
+        consumer.handleOrderEvent(new OrderEvent("order-1", "CREATED", T0));  // Redelivered
+
+        assertEquals(1, count("CREATED", "regression"));
+        assertEquals(1, registry.get("order.events.duplicates").tag("type", "CREATED").counter().count());
+        assertEquals(List.of("SHIPPED", "CREATED"), consumer.getEventsForOrder("order-1"));
+    }
+
+    private void process(String orderId, String type) {
+        metrics.processed(new OrderEvent(orderId, type, T0), T0);
+    }
+
+    private double count(String type, String kind) {
+        return registry.get("order.events.out.of.order").tag("type", type).tag("kind", kind).counter().count();
+    }
+}
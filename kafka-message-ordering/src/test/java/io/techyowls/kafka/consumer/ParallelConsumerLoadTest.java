@@ -0,0 +1,177 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Events/sec of the @KafkaListener-style container (one thread per
+ * partition) vs {@link KeyOrderedParallelConsumer}, at 1, 4 and 16
+ * partitions. Each event takes ~1 ms of simulated I/O.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=ParallelConsumerLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class ParallelConsumerLoadTest {
+
+    private static final int ORDERS = 500;
+    private static final int EVENTS_PER_ORDER = 10;
+    private static final int EVENTS = ORDERS * EVENTS_PER_ORDER;
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startKafka() {
+        broker = new EmbeddedKafkaZKBroker(1, true);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareThroughput() {
+        StringBuilder report = new StringBuilder(String.format(
+            "%n%d events, %d orders, ~1 ms each%n%-11s %15s %15s%n", EVENTS, ORDERS, "partitions", "listener/s", "key-ordered/s"));
+        for (int partitions : new int[] {1, 4, 16}) {
+            String topic = "load-" + partitions;
+            broker.addTopics(new NewTopic(topic, partitions, (short) 1));
+            produce(topic);
+
+            Run listener = new Run();
+            runListener(topic, partitions, listener);
+            Run keyOrdered = new Run();
+            runKeyOrdered(topic, keyOrdered);
+
+            assertEquals(0, listener.outOfOrder.get(), "listener reordered events");
+            assertEquals(0, keyOrdered.outOfOrder.get(), "key-ordered consumer reordered events");
+            report.append(String.format("%-11d %15.0f %15.0f%n",
+                partitions, listener.eventsPerSecond(), keyOrdered.eventsPerSecond()));
+        }
+        System.out.println(report);
+    }
+
+    private void runListener(String topic, int partitions, Run run) {
+        ContainerProperties properties = new ContainerProperties(topic);
+        properties.setGroupId(topic + "-listener");
+        properties.setMessageListener((MessageListener<String, OrderEvent>) record -> run.accept(record.value()));
+        ConcurrentMessageListenerContainer<String, OrderEvent> container = new ConcurrentMessageListenerContainer<>(
+            new DefaultKafkaConsumerFactory<>(consumerProps(topic + "-listener")), properties);
+        container.setConcurrency(partitions);
+        container.start();
+        try {
+            run.awaitAll();
+        } finally {
+            container.stop();
+        }
+    }
+
+    private void runKeyOrdered(String topic, Run run) {
+        Properties props = new Properties();
+        props.putAll(consumerProps(topic + "-key-ordered"));
+        try (KeyOrderedParallelConsumer consumer = new KeyOrderedParallelConsumer(props, run, 1000)) {
+            consumer.start(topic);
+            run.awaitAll();
+        }
+    }
+
+    private void produce(String topic) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(props)) {
+            for (int seq = 0; seq < EVENTS_PER_ORDER; seq++) {
+                for (int order = 0; order < ORDERS; order++) {
+                    String orderId = "order-" + order;
+                    producer.send(new ProducerRecord<>(topic, orderId,
+                        new OrderEvent(orderId, "CREATED", Instant.now(), seq)));
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> consumerProps(String groupId) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "io.techyowls.kafka.model");
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderEvent.class.getName());
+        return props;
+    }
+
+    /**
+     * Handler: ~1 ms of I/O per event, checks per-order sequence.
+     * Timed from the first event to the last, so group joins don't count.
+     */
+    private static class Run implements Consumer<OrderEvent> {
+
+        private final Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger outOfOrder = new AtomicInteger();
+        private final AtomicLong firstNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        @Override
+        public void accept(OrderEvent event) {
+            firstNanos.compareAndSet(0, System.nanoTime());
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Long previous = lastSequence.put(event.orderId(), event.globalSequence());
+            if (previous != null && previous != event.globalSequence() - 1) {
+                outOfOrder.incrementAndGet();
+            }
+            if (processed.incrementAndGet() == EVENTS) {
+                lastNanos = System.nanoTime();
+            }
+        }
+
+        void awaitAll() {
+            await().atMost(2, TimeUnit.MINUTES).until(() -> processed.get() >= EVENTS);
+        }
+
+        double eventsPerSecond() {
+            return EVENTS / ((lastNanos - firstNanos.get()) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.techyowls.kafka.consumer;
+
+import io.techyowls.kafka.consumer.SequenceReorderBuffer.GapReason;
+import io.techyowls.kafka.consumer.SequenceReorderBuffer.SequenceGap;
+import io.techyowls.kafka.model.OrderEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SequenceReorderBufferTest {
+
+    private static final long MS = 1_000_000;
+
+    private final List<Long> released = new ArrayList<>();
+    private final List<SequenceGap> gaps = new ArrayList<>();
+    private final SequenceReorderBuffer buffer = new SequenceReorderBuffer(1, 4, Duration.ofMillis(100),
+        event -> released.add(event.globalSequence()), gaps::add);
+
+    @Test
+    void shouldReleaseAsSoonAsTheNextSequenceArrives() {
+        offer(1, 0);
+        assertEquals(List.of(1L), released);  // In order: no wait
+
+        offer(3, 0);
+        offer(4, 0);
+        assertEquals(List.of(1L), released);
+
+        offer(2, 5 * MS);
+        assertEquals(List.of(1L, 2L, 3L, 4L), released);
+        assertEquals(0, buffer.stats().depth());
+        assertEquals(2, buffer.stats().peakDepth());
+        assertEquals(Duration.ofMillis(5), buffer.stats().maxWait());
+    }
+
+    @Test
+    void shouldSkipAGapAfterMaxWait() {
+        offer(1, 0);
+        offer(3, 10 * MS);
+
+        buffer.expire(109 * MS);
+        assertEquals(List.of(1L), released);
+
+        buffer.expire(110 * MS);
+        assertEquals(List.of(1L, 3L), released);
+        assertEquals(List.of(new SequenceGap(2, 2, GapReason.TIMEOUT)), gaps);
+
+        offer(2, 120 * MS);  // After its gap: forwarded late
+        assertEquals(List.of(1L, 3L, 2L), released);
+        assertEquals(1, buffer.stats().late());
+
+        offer(2, 130 * MS);
+        offer(3, 130 * MS);
+        assertEquals(List.of(1L, 3L, 2L), released);
+        assertEquals(2, buffer.stats().dropped());
+    }
+
+    @Test
+    void shouldForwardAQuietProducersBlockAfterItsGap() {
+        // Instance A leased 1..2, instance B 3..4; A is quiet
+        offer(3, 0);
+        buffer.expire(100 * MS);
+        assertEquals(List.of(3L), released);
+        assertEquals(List.of(new SequenceGap(1, 2, GapReason.TIMEOUT)), gaps);
+
+        offer(2, 200 * MS);
+        offer(4, 200 * MS);
+        offer(1, 300 * MS);
+
+        assertEquals(List.of(3L, 2L, 4L, 1L), released);
+        assertEquals(2, buffer.stats().late());
+        assertEquals(0, buffer.stats().dropped());
+    }
+
+    @Test
+    void shouldForgetTheOldestGapsPastMaxGap() {
+        for (long sequence = 2; sequence <= 12; sequence += 2) {
+            offer(sequence, 0);
+            buffer.flush(0);  // Skips sequence - 1
+        }
+
+        offer(1, 0);  // Oldest of 6 gaps, only 4 remembered
+        offer(11, 0);
+
+        assertEquals(1, buffer.stats().dropped());
+        assertEquals(1, buffer.stats().late());
+    }
+
+    @Test
+    void shouldBoundMemoryByMaxGap() {
+        offer(3, 0);
+        offer(4, 0);
+
+        offer(6, 0);  // 1..2 missing: 6 doesn't fit while waiting for 1
+
+        assertEquals(List.of(3L, 4L), released);
+        assertEquals(List.of(new SequenceGap(1, 2, GapReason.MAX_GAP)), gaps);
+        assertEquals(5, buffer.nextExpected());
+
+        buffer.flush(0);
+        assertEquals(List.of(3L, 4L, 6L), released);
+        assertEquals(new SequenceGap(5, 5, GapReason.FLUSH), gaps.get(1));
+        assertEquals(3, buffer.stats().missing());
+    }
+
+    private void offer(long sequence, long nowNanos) {
+        buffer.offer(new OrderEvent("order-" + sequence, "CREATED", Instant.EPOCH, sequence), nowNanos);
+    }
+}
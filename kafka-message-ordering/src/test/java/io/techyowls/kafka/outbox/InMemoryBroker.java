@@ -0,0 +1,86 @@
+package io.techyowls.kafka.outbox;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Stand-in for a Kafka broker in tests: every send is acked at once and
+ * kept in {@link #history()}, except sends for orders made unavailable,
+ * which fail like an expired delivery, and single sends set to fail with
+ * {@link #failNextSend}.
+ *
+ * Survives the template closing its producer after each send.
+ */
+class InMemoryBroker extends MockProducer<String, OrderEvent> {
+
+    private final Set<String> unavailable = new HashSet<>();
+    private final Map<String, Boolean> failNext = new HashMap<>();
+
+    InMemoryBroker() {
+        super(true, new StringSerializer(), new JsonSerializer<>());
+    }
+
+    KafkaTemplate<String, OrderEvent> template() {
+        return new KafkaTemplate<>(new MockProducerFactory<>(() -> this));
+    }
+
+    synchronized void setUnavailable(String orderId, boolean down) {
+        if (down) {
+            unavailable.add(orderId);
+        } else {
+            unavailable.remove(orderId);
+        }
+    }
+
+    /**
+     * Fail the order's next send only: thrown from send(), or like an
+     * expired delivery.
+     */
+    synchronized void failNextSend(String orderId, boolean thrown) {
+        failNext.put(orderId, thrown);
+    }
+
+    List<OrderEvent> events() {
+        return history().stream().map(ProducerRecord::value).toList();
+    }
+
+    @Override
+    public synchronized Future<RecordMetadata> send(ProducerRecord<String, OrderEvent> record, Callback callback) {
+        Boolean thrown = failNext.remove(record.key());
+        if (Boolean.TRUE.equals(thrown)) {
+            throw new KafkaException("Failed to serialize " + record.key());
+        }
+        if (thrown != null || unavailable.contains(record.key())) {
+            TimeoutException timeout = new TimeoutException("Expiring record for " + record.key());
+            callback.onCompletion(null, timeout);
+            return CompletableFuture.failedFuture(timeout);
+        }
+        return super.send(record, callback);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void close(Duration timeout) {
+    }
+}
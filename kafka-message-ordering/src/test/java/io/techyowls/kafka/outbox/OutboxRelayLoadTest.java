@@ -0,0 +1,117 @@
+package io.techyowls.kafka.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.kafka.config.ProducerProfile;
+import io.techyowls.kafka.model.OrderEvent;
+import io.techyowls.kafka.producer.KeyBasedOrderEventProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Relay throughput against a 3-partition embedded broker, balanced
+ * profile, batch-size 500, by how many events each order has in a batch.
+ * An order's events are sent one ack after another, so a batch takes as
+ * many ack round trips as its busiest order has events.
+ *
+ * Each case runs a warm-up first.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=OutboxRelayLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayLoadTest {
+
+    private static final String TOPIC = "order-events";
+    private static final int BATCH_SIZE = 500;
+    private static final int EVENTS = 20_000;
+
+    private static EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @BeforeAll
+    static void startKafka() {
+        broker = new EmbeddedKafkaZKBroker(1, true, 3, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        broker.destroy();
+    }
+
+    @Test
+    void measureEventsPerOrderInABatch() {
+        KafkaTemplate<String, OrderEvent> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps()));
+        KeyBasedOrderEventProducer producer = new KeyBasedOrderEventProducer(template, new SimpleMeterRegistry());
+        OutboxRelay relay = new OutboxRelay(outbox, producer, BATCH_SIZE, Duration.ofMillis(10), Duration.ofHours(1));
+
+        System.out.printf("%n%-16s %12s %12s%n", "events/order", "events/s", "ms/batch");
+        for (int perOrder : new int[] {1, 4, 20}) {
+            run(relay, perOrder, EVENTS / 10);
+            double seconds = run(relay, perOrder, EVENTS);
+            System.out.printf("%-16d %12.0f %12.1f%n", perOrder, EVENTS / seconds, seconds * 1000 / (EVENTS / BATCH_SIZE));
+        }
+        template.destroy();
+    }
+
+    // Seconds to relay events, each order having perOrder of them in a row of BATCH_SIZE
+    private double run(OutboxRelay relay, int perOrder, int events) {
+        outbox.deleteAll();
+        List<OutboxEvent> rows = new ArrayList<>(events);
+        int ordersPerBatch = BATCH_SIZE / perOrder;
+        for (int i = 0; i < events; i++) {
+            int batch = i / BATCH_SIZE;
+            int order = batch * ordersPerBatch + i % ordersPerBatch;
+            rows.add(new OutboxEvent("order-" + perOrder + "-" + order, "CREATED", Instant.now()));
+        }
+        outbox.saveAll(rows);
+
+        long start = System.nanoTime();
+        int relayed = 0;
+        while (relay.relayOnce() > 0) {
+            relayed += BATCH_SIZE;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(0, outbox.countBySentAtIsNull());
+        assertEquals(events, relayed);
+        return seconds;
+    }
+
+    private static Map<String, Object> producerProps() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        ProducerProfile.BALANCED.apply(config);
+        return config;
+    }
+}
@@ -0,0 +1,147 @@
+package io.techyowls.kafka.outbox;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.kafka.model.OrderEvent;
+import io.techyowls.kafka.order.OrderService;
+import io.techyowls.kafka.producer.KeyBasedOrderEventProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(OrderService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)  // Relay and service commit for real
+class OutboxRelayTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryBroker broker = new InMemoryBroker();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outbox.deleteAll();
+        relay = new OutboxRelay(outbox, new KeyBasedOrderEventProducer(broker.template(), new SimpleMeterRegistry()), 3, Duration.ofMillis(10), Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldPublishInCommitOrderAndMarkSentInBulk() {
+        lifecycle("order-1");
+        lifecycle("order-2");
+
+        assertEquals(3, relay.relayOnce());  // batchSize 3
+        assertEquals(3, relay.relayOnce());
+        assertEquals(2, relay.relayOnce());
+        assertEquals(0, relay.relayOnce());
+
+        assertEquals(List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED"), types("order-1"));
+        assertEquals(List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED"), types("order-2"));
+        OutboxRelay.OutboxStats stats = relay.stats();
+        assertEquals(0, stats.pending());
+        assertEquals(8, stats.relayed());
+        assertEquals(3, stats.maxBatchSize());
+        assertEquals(Duration.ZERO, stats.lag());
+    }
+
+    @Test
+    void shouldExportLagAndBatchSizes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        relay.bindTo(registry);
+        lifecycle("order-1");
+
+        assertEquals(4, registry.get("order.outbox.pending").gauge().value());
+        assertTrue(registry.get("order.outbox.lag").timeGauge().value() >= 0);
+
+        relay.relayOnce();
+        relay.relayOnce();
+        assertEquals(0, registry.get("order.outbox.pending").gauge().value());
+        assertEquals(0, registry.get("order.outbox.lag").timeGauge().value());
+        assertEquals(4, registry.get("order.outbox.relayed").functionCounter().count());
+        DistributionSummary batchSizes = registry.get("order.outbox.batch.size").summary();
+        assertEquals(2, batchSizes.count());
+        assertEquals(3, batchSizes.max());
+    }
+
+    @Test
+    void shouldHoldBackAFailedOrderWithoutReorderingIt() {
+        orderService.transition("order-1", "CREATED");
+        orderService.transition("order-2", "CREATED");
+        orderService.transition("order-1", "SHIPPED");
+        broker.setUnavailable("order-1", true);
+
+        relay.relayOnce();
+        assertEquals(List.of("CREATED"), types("order-2"));  // Other orders carry on
+        assertEquals(2, relay.stats().pending());
+
+        broker.setUnavailable("order-1", false);
+        relay.relayOnce();
+        assertEquals(List.of("CREATED", "SHIPPED"), types("order-1"));
+        assertEquals(0, relay.stats().pending());
+    }
+
+    @Test
+    void shouldNotSendAnOrdersLaterEventsAfterItsFirstFails() {
+        for (boolean thrown : List.of(true, false)) {
+            outbox.deleteAll();
+            broker.clear();
+            orderService.transition("order-1", "CREATED");
+            orderService.transition("order-1", "SHIPPED");
+            orderService.transition("order-2", "CREATED");
+            broker.failNextSend("order-1", thrown);
+
+            relay.relayOnce();
+            assertEquals(List.of(), types("order-1"));  // SHIPPED held back behind CREATED
+            assertEquals(List.of("CREATED"), types("order-2"));
+
+            relay.relayOnce();
+            assertEquals(List.of("CREATED", "SHIPPED"), types("order-1"));
+            assertEquals(0, relay.stats().pending());
+        }
+    }
+
+    @Test
+    void shouldNotPublishRolledBackChanges() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            orderService.transition("order-1", "CREATED");
+            throw new IllegalStateException("payment declined");
+        }));
+
+        assertEquals(0, relay.relayOnce());
+        assertEquals(List.of(), broker.events());
+    }
+
+    private void lifecycle(String orderId) {
+        for (String type : List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED")) {
+            orderService.transition(orderId, type);
+        }
+    }
+
+    private List<String> types(String orderId) {
+        return broker.events().stream()
+            .filter(event -> event.orderId().equals(orderId))
+            .map(OrderEvent::type)
+            .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package io.techyowls.kafka.producer;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeasedSequenceAllocatorTest {
+
+    private JdbcSequenceStore store;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute(
+                "CREATE TABLE sequence_block (name VARCHAR(64) PRIMARY KEY, last_value BIGINT NOT NULL)");
+        }
+        store = new JdbcSequenceStore(dataSource);
+    }
+
+    @Test
+    void shouldNeverHandOutTheSameSequenceTwice() {
+        LeasedSequenceAllocator first = new LeasedSequenceAllocator(store, "orders", 3);
+        LeasedSequenceAllocator second = new LeasedSequenceAllocator(store, "orders", 3);
+
+        assertEquals(1, first.next());
+        assertEquals(4, second.next());  // Its own block
+        assertEquals(2, first.next());
+        assertEquals(3, first.next());
+        assertEquals(7, first.next());   // Next block, past second's
+
+        // Restart: carries on after everything leased, not from 1
+        LeasedSequenceAllocator restarted = new LeasedSequenceAllocator(store, "orders", 3);
+        assertEquals(10, restarted.next());
+    }
+
+    @Test
+    void shouldGiveBackTheUnusedTailOnClose() {
+        LeasedSequenceAllocator allocator = new LeasedSequenceAllocator(store, "orders", 100);
+        allocator.next();
+        allocator.next();
+        allocator.close();
+
+        // Nothing leased since: restart continues without a gap
+        LeasedSequenceAllocator restarted = new LeasedSequenceAllocator(store, "orders", 100);
+        assertEquals(3, restarted.next());
+
+        // Someone leased after restarted's block: its tail can't be given back
+        new LeasedSequenceAllocator(store, "orders", 100).next();
+        restarted.close();
+        assertEquals(203, new LeasedSequenceAllocator(store, "orders", 100).next());
+    }
+}
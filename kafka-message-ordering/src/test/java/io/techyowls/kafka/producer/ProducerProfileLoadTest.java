@@ -0,0 +1,143 @@
+package io.techyowls.kafka.producer;
+
+import io.techyowls.kafka.config.ProducerProfile;
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records/sec and ack latency (send() to callback) per
+ * {@link ProducerProfile}, with the rest of the producer config as in
+ * KafkaConfig (idempotent, acks=all), against a 3-partition embedded
+ * broker. Each profile gets a warm-up run first.
+ *
+ * Two loads: a burst (as fast as send() accepts) for throughput, and a
+ * paced 2,000 records/s stream, where ack latency is mostly linger.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=ProducerProfileLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class ProducerProfileLoadTest {
+
+    private static final String TOPIC = "profile-load";
+    private static final List<String> LIFECYCLE = List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED");
+    private static final int BURST = 200_000;
+    private static final int PACED = 10_000;
+    private static final int PACED_PER_SECOND = 2_000;
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startKafka() {
+        broker = new EmbeddedKafkaZKBroker(1, true, 3, TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        broker.destroy();
+    }
+
+    @Test
+    void compareProfiles() throws InterruptedException {
+        StringBuilder report = new StringBuilder(String.format(
+            "%n%-11s %14s %14s %14s %16s%n", "profile", "burst rec/s", "burst p99 ms", "paced p50 ms", "paced p99 ms"));
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            run(profile, BURST, 0);
+            Run burst = run(profile, BURST, 0);
+            Run paced = run(profile, PACED, PACED_PER_SECOND);
+            report.append(String.format("%-11s %14.0f %14.1f %14.1f %16.1f%n", profile.name().toLowerCase(),
+                burst.recordsPerSecond(), burst.percentileMs(0.99), paced.percentileMs(0.50), paced.percentileMs(0.99)));
+        }
+        System.out.println(report);
+    }
+
+    private Run run(ProducerProfile profile, int records, int perSecond) throws InterruptedException {
+        Run run = new Run(records);
+        long intervalNanos = perSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / perSecond;
+        try (KafkaProducer<String, OrderEvent> producer = new KafkaProducer<>(producerProps(profile))) {
+            run.startNanos = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                if (intervalNanos > 0) {
+                    long due = run.startNanos + i * intervalNanos;
+                    while (System.nanoTime() < due) {
+                        Thread.onSpinWait();
+                    }
+                }
+                String orderId = "order-" + (i / LIFECYCLE.size());
+                OrderEvent event = new OrderEvent(orderId, LIFECYCLE.get(i % LIFECYCLE.size()), Instant.now());
+                int index = i;
+                long start = System.nanoTime();
+                producer.send(new ProducerRecord<>(TOPIC, orderId, event), (metadata, exception) -> {
+                    if (exception != null) {
+                        run.failed.incrementAndGet();
+                    }
+                    run.latencyNanos[index] = System.nanoTime() - start;
+                    run.acked.countDown();
+                });
+            }
+            assertTrue(run.acked.await(2, TimeUnit.MINUTES), profile + " did not finish");
+            run.endNanos = System.nanoTime();
+        }
+        assertEquals(0, run.failed.get(), profile + " had failed sends");
+        return run;
+    }
+
+    private static Map<String, Object> producerProps(ProducerProfile profile) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        profile.apply(config);
+        return config;
+    }
+
+    private static class Run {
+
+        private final long[] latencyNanos;
+        private final CountDownLatch acked;
+        private final AtomicInteger failed = new AtomicInteger();
+        private long startNanos;
+        private long endNanos;
+
+        Run(int records) {
+            this.latencyNanos = new long[records];
+            this.acked = new CountDownLatch(records);
+        }
+
+        double recordsPerSecond() {
+            return latencyNanos.length / ((endNanos - startNanos) / 1e9);
+        }
+
+        double percentileMs(double percentile) {
+            long[] sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.techyowls.kafka.producer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SendMetricsTest {
+
+    @Test
+    void shouldRecordSendOutcomesInMicrometer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SendMetrics metrics = new SendMetrics(registry, "key-based", Duration.ofHours(1));
+        long start = System.nanoTime();
+
+        metrics.recordSuccess(start);
+        metrics.recordSuccess(start);
+        metrics.recordFailure("CREATED", new RuntimeException("broker down"));
+        metrics.recordFailure("SHIPPED", new RuntimeException("broker down"));  // Counted, not logged
+
+        assertEquals(2, sends(registry, "sent"));
+        assertEquals(2, sends(registry, "failed"));
+        Timer latency = registry.get("order.events.send.latency").tag("producer", "key-based").timer();
+        assertEquals(2, latency.count());
+        assertTrue(latency.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private static double sends(SimpleMeterRegistry registry, String outcome) {
+        return registry.get("order.events.sends").tag("producer", "key-based").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,95 @@
+package io.techyowls.kafka.producer;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sequences/sec of {@link LeasedSequenceAllocator} with 1, 4 and 16
+ * producer instances (one thread and allocator each) sharing a
+ * {@link JdbcSequenceStore} on in-memory H2, at block sizes 1, 100 and
+ * 1000. Checks that no sequence was handed out twice.
+ *
+ * In-memory H2 makes a store round trip far cheaper than a real database,
+ * so block size 1 looks better here than it would in production.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=SequenceAllocatorLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class SequenceAllocatorLoadTest {
+
+    private static final int SEQUENCES = 160_000;
+
+    @Test
+    void compareThroughput() throws Exception {
+        int[] producerCounts = {1, 4, 16};
+        StringBuilder report = new StringBuilder(String.format(
+            "%n%d sequences per run, in-memory H2%n%-11s", SEQUENCES, "block size"));
+        for (int producers : producerCounts) {
+            report.append(String.format(" %14s", producers + " producer(s)"));
+        }
+        report.append(String.format("%n"));
+
+        for (int blockSize : new int[] {1, 100, 1000}) {
+            report.append(String.format("%-11d", blockSize));
+            for (int producers : producerCounts) {
+                report.append(String.format(" %12.0f/s", run(blockSize, producers)));
+            }
+            report.append(String.format("%n"));
+        }
+        System.out.println(report);
+    }
+
+    private double run(int blockSize, int producers) throws Exception {
+        JdbcSequenceStore store = new JdbcSequenceStore(dataSource());
+        int perProducer = SEQUENCES / producers;
+        long[][] allocated = new long[producers][perProducer];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            long[] mine = allocated[p];
+            threads[p] = new Thread(() -> {
+                try (LeasedSequenceAllocator allocator = new LeasedSequenceAllocator(store, "load", blockSize)) {
+                    start.await();
+                    for (int i = 0; i < mine.length; i++) {
+                        mine[i] = allocator.next();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[p].start();
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        long distinct = Arrays.stream(allocated).flatMapToLong(LongStream::of).distinct().count();
+        assertEquals((long) producers * perProducer, distinct, "duplicate sequences");
+        return producers * perProducer / (elapsedNanos / 1e9);
+    }
+
+    private static JdbcDataSource dataSource() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute(
+                "CREATE TABLE sequence_block (name VARCHAR(64) PRIMARY KEY, last_value BIGINT NOT NULL)");
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,73 @@
+package io.techyowls.kafka.serde;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventBinarySerdeTest {
+
+    @TempDir
+    Path registryDir;
+
+    @Test
+    void shouldRoundTripCompactly() {
+        LocalSchemaRegistry registry = new LocalSchemaRegistry(registryDir);
+        OrderEventBinarySerializer serializer = new OrderEventBinarySerializer(registry, OrderEventSchema.V1);
+        OrderEventBinaryDeserializer deserializer = new OrderEventBinaryDeserializer(registry);
+        OrderEvent event = new OrderEvent("order-42", "SHIPPED", Instant.parse("2024-06-01T10:15:30.123456Z"), 1234567);
+
+        byte[] bytes = serializer.serialize("order-events", event);
+
+        assertEquals(event, deserializer.deserialize("order-events", bytes));
+        assertTrue(bytes.length <= 24, "was " + bytes.length + " bytes");
+    }
+
+    @Test
+    void shouldDecodeTypesAddedByANewerWriter() {
+        OrderEventSchema v2 = new OrderEventSchema(List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED", "DELIVERED", "CANCELLED"));
+        OrderEventBinaryDeserializer oldReader = new OrderEventBinaryDeserializer(new LocalSchemaRegistry(registryDir));
+        assertEquals(1, new LocalSchemaRegistry(registryDir).register(OrderEventSchema.SUBJECT, OrderEventSchema.V1));
+        OrderEventBinarySerializer newWriter = new OrderEventBinarySerializer(new LocalSchemaRegistry(registryDir), v2);
+
+        OrderEvent cancelled = new OrderEvent("order-1", "CANCELLED", Instant.EPOCH);
+        assertEquals(cancelled, oldReader.deserialize("order-events", newWriter.serialize("order-events", cancelled)));
+
+        // The v1 writer can't send it
+        OrderEventBinarySerializer oldWriter = new OrderEventBinarySerializer(new LocalSchemaRegistry(registryDir), OrderEventSchema.V1);
+        assertThrows(SerializationException.class, () -> oldWriter.serialize("order-events", cancelled));
+    }
+
+    @Test
+    void shouldRejectEventsWithoutOrderIdOrTimestamp() {
+        OrderEventBinarySerializer serializer = new OrderEventBinarySerializer(new LocalSchemaRegistry(registryDir), OrderEventSchema.V1);
+
+        SerializationException noOrderId = assertThrows(SerializationException.class,
+            () -> serializer.serialize("order-events", new OrderEvent(null, "CREATED", Instant.EPOCH)));
+        SerializationException noTimestamp = assertThrows(SerializationException.class,
+            () -> serializer.serialize("order-events", new OrderEvent("order-1", "CREATED", null)));
+
+        assertTrue(noOrderId.getMessage().endsWith("has no orderId"), noOrderId.getMessage());
+        assertTrue(noTimestamp.getMessage().endsWith("has no timestamp"), noTimestamp.getMessage());
+    }
+
+    @Test
+    void shouldRejectSchemasThatChangeExistingOrdinals() {
+        LocalSchemaRegistry registry = new LocalSchemaRegistry(registryDir);
+        registry.register(OrderEventSchema.SUBJECT, OrderEventSchema.V1);
+
+        OrderEventSchema reordered = new OrderEventSchema(List.of("PAYMENT_RECEIVED", "CREATED", "SHIPPED", "DELIVERED"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(OrderEventSchema.SUBJECT, reordered));
+
+        OrderEventSchema removed = new OrderEventSchema(List.of("CREATED", "PAYMENT_RECEIVED", "SHIPPED"));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(OrderEventSchema.SUBJECT, removed));
+    }
+}
@@ -0,0 +1,116 @@
+package io.techyowls.kafka.serde;
+
+import io.techyowls.kafka.model.OrderEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bytes per record (value plus headers) and serialize/deserialize
+ * throughput of Spring's JSON serde vs the binary one, on one thread.
+ * Each serde runs a few warm-up rounds first.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=SerdeLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+class SerdeLoadTest {
+
+    private static final String TOPIC = "order-events";
+    private static final int EVENTS = 200_000;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path registryDir;
+
+    @Test
+    void compareJsonAndBinary() {
+        OrderEvent[] events = events();
+
+        JsonDeserializer<OrderEvent> jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "io.techyowls.kafka.model"), false);
+        Result json = run(events, new JsonSerializer<OrderEvent>()::serialize, jsonDeserializer::deserialize);
+
+        LocalSchemaRegistry registry = new LocalSchemaRegistry(registryDir);
+        OrderEventBinarySerializer binarySerializer = new OrderEventBinarySerializer(registry, OrderEventSchema.V1);
+        OrderEventBinaryDeserializer binaryDeserializer = new OrderEventBinaryDeserializer(registry);
+        Result binary = run(events,
+            (topic, headers, event) -> binarySerializer.serialize(topic, event),
+            (topic, headers, bytes) -> binaryDeserializer.deserialize(topic, bytes));
+
+        System.out.printf("%n%d events, single thread%n%-7s %14s %16s %16s%n", EVENTS,
+            "serde", "bytes/record", "serialize/s", "deserialize/s");
+        System.out.printf("%-7s %14.1f %16.0f %16.0f%n", "json", json.bytesPerRecord, json.serializePerSecond, json.deserializePerSecond);
+        System.out.printf("%-7s %14.1f %16.0f %16.0f%n", "binary", binary.bytesPerRecord, binary.serializePerSecond, binary.deserializePerSecond);
+    }
+
+    private Result run(OrderEvent[] events, Serialize serializer, Deserialize deserializer) {
+        Result result = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            RecordHeaders[] headers = new RecordHeaders[events.length];
+            byte[][] values = new byte[events.length][];
+            long bytes = 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < events.length; i++) {
+                headers[i] = new RecordHeaders();
+                values[i] = serializer.serialize(TOPIC, headers[i], events[i]);
+            }
+            long serialized = System.nanoTime();
+            for (int i = 0; i < events.length; i++) {
+                OrderEvent event = deserializer.deserialize(TOPIC, headers[i], values[i]);
+                if (event.globalSequence() != events[i].globalSequence()) {
+                    throw new AssertionError("Mismatch at " + i);
+                }
+            }
+            long deserialized = System.nanoTime();
+
+            for (int i = 0; i < events.length; i++) {
+                bytes += values[i].length;
+                for (Header header : headers[i]) {
+                    bytes += header.key().getBytes(StandardCharsets.UTF_8).length + header.value().length;
+                }
+            }
+            result = new Result((double) bytes / events.length,
+                events.length / ((serialized - start) / 1e9),
+                events.length / ((deserialized - serialized) / 1e9));
+        }
+        RecordHeaders headers = new RecordHeaders();
+        assertEquals(events[1], deserializer.deserialize(TOPIC, headers, serializer.serialize(TOPIC, headers, events[1])));
+        return result;
+    }
+
+    private static OrderEvent[] events() {
+        List<String> types = OrderEventSchema.V1.types();
+        Instant now = Instant.parse("2024-06-01T10:15:30.123456Z");
+        OrderEvent[] events = new OrderEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new OrderEvent("order-" + (i / types.size()), types.get(i % types.size()),
+                now.plusMillis(i), i + 1);
+        }
+        return events;
+    }
+
+    private interface Serialize {
+        byte[] serialize(String topic, RecordHeaders headers, OrderEvent event);
+    }
+
+    private interface Deserialize {
+        OrderEvent deserialize(String topic, RecordHeaders headers, byte[] bytes);
+    }
+
+    private record Result(double bytesPerRecord, double serializePerSecond, double deserializePerSecond) {
+    }
+}
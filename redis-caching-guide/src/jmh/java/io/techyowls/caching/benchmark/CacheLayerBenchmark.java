@@ -0,0 +1,269 @@
+package io.techyowls.caching.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.cache.CircuitBreakerProperties;
+import io.techyowls.caching.cache.RedisCircuitBreaker;
+import io.techyowls.caching.cache.TwoLevelCacheManager;
+import io.techyowls.caching.config.RedisConfig;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Spring cache layer as the application configures it (TwoLevelCacheManager,
+ * compact serializer on "products", RedisConfig's error handler), against
+ * embedded Redis.
+ *
+ * - directHit vs proxiedHit: cost of the @Cacheable proxy (interceptor, key
+ *   evaluation, cache resolution) over calling the cache yourself
+ * - spelKeyHit: a composed key ('category:' + #category) instead of a parameter
+ * - miss / put / evict: the other operations, through the proxy
+ * - redisDown: Redis unreachable, circuit breaker open: L1 only, Redis skipped
+ * - redisDownWithoutBreaker: every call tries Redis, takes the CacheErrorHandler
+ *   path and runs the method
+ *
+ * near=on serves hits from L1; near=off expires L1 entries at once, so hits
+ * include the Redis round trip and deserialization (see SerializerBenchmark
+ * for serialization alone).
+ *
+ * Add "-prof gc" for allocation per operation (gc.alloc.rate.norm).
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="CacheLayerBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheLayerBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int CATEGORIES = 10;
+
+    @Param({"on", "off"})
+    public String near;
+
+    private EmbeddedRedis redis;
+    private Catalog catalog;
+    private Cache cache;
+    private AutoCloseable closeContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = EmbeddedRedis.start();
+        LettuceConnectionFactory connectionFactory = redis.connectionFactory();
+        Duration nearTtl = near.equals("on") ? Duration.ofMinutes(1) : Duration.ofNanos(1);
+        AnnotationConfigApplicationContext context = context(connectionFactory, nearTtl, null);
+
+        catalog = context.getBean(Catalog.class);
+        cache = context.getBean(CacheManager.class).getCache("products");
+        for (long id = 1; id <= PRODUCTS; id++) {
+            catalog.findById(id);
+        }
+        for (int c = 0; c < CATEGORIES; c++) {
+            catalog.findByCategory("category-" + c);
+        }
+        closeContext = () -> {
+            context.close();
+            connectionFactory.destroy();
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        closeContext.close();
+        redis.close();
+    }
+
+    @Benchmark
+    public Object directHit() {
+        Cache.ValueWrapper wrapper = cache.get(randomId());
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    @Benchmark
+    public Product proxiedHit() {
+        return catalog.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Product> spelKeyHit() {
+        return catalog.findByCategory("category-" + ThreadLocalRandom.current().nextInt(CATEGORIES));
+    }
+
+    @Benchmark
+    public Product miss() {
+        // Never cached: lookup, method call, null result not stored
+        return catalog.findMissing(PRODUCTS + ThreadLocalRandom.current().nextLong(1_000_000));
+    }
+
+    @Benchmark
+    public Product put() {
+        return catalog.save(product(randomId()));
+    }
+
+    @Benchmark
+    public void evict() {
+        // Evicts outside the hit range so hits keep hitting
+        catalog.evict(PRODUCTS + ThreadLocalRandom.current().nextLong(1_000_000));
+    }
+
+    @Benchmark
+    public Product redisDown(DownRedis down) {
+        return down.withBreaker.findById(randomId());
+    }
+
+    @Benchmark
+    public Product redisDownWithoutBreaker(DownRedis down) {
+        return down.withoutBreaker.findById(randomId());
+    }
+
+    /**
+     * Same setup pointed at a port nothing listens on.
+     */
+    @State(Scope.Benchmark)
+    public static class DownRedis {
+
+        private Catalog withBreaker;
+        private Catalog withoutBreaker;
+        private LettuceConnectionFactory connectionFactory;
+        private RedisCircuitBreaker breaker;
+        private AnnotationConfigApplicationContext breakerContext;
+        private AnnotationConfigApplicationContext plainContext;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // The error handler logs every failure
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LoggingCacheErrorHandler.class))
+                .setLevel(ch.qos.logback.classic.Level.OFF);
+
+            connectionFactory = new LettuceConnectionFactory("localhost", 1);
+            connectionFactory.afterPropertiesSet();
+            breaker = new RedisCircuitBreaker(connectionFactory, new CircuitBreakerProperties(
+                true, 100, 20, 0.5, Duration.ofMillis(250), 0.5, Duration.ofSeconds(5), Duration.ofSeconds(1), 3),
+                new SimpleMeterRegistry());
+            breakerContext = context(connectionFactory, Duration.ofMinutes(1), breaker);
+            plainContext = context(connectionFactory, Duration.ofMinutes(1), null);
+            withBreaker = breakerContext.getBean(Catalog.class);
+            withoutBreaker = plainContext.getBean(Catalog.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            breakerContext.close();
+            plainContext.close();
+            breaker.destroy();
+            connectionFactory.destroy();
+        }
+    }
+
+    /**
+     * Cached methods with no work behind them, so only the cache layer is measured.
+     */
+    public static class Catalog {
+
+        @Cacheable(value = "products", key = "#id")
+        public Product findById(Long id) {
+            return product(id);
+        }
+
+        @Cacheable(value = "products", key = "'category:' + #category")
+        public List<Product> findByCategory(String category) {
+            return List.of(product(1L), product(2L), product(3L));
+        }
+
+        @Cacheable(value = "products", key = "#id", unless = "#result == null")
+        public Product findMissing(Long id) {
+            return null;
+        }
+
+        @CachePut(value = "products", key = "#result.id")
+        public Product save(Product product) {
+            return product;
+        }
+
+        @CacheEvict(value = "products", key = "#id")
+        public void evict(Long id) {
+        }
+    }
+
+    @EnableCaching
+    static class CachingEnabled {
+    }
+
+    private static AnnotationConfigApplicationContext context(LettuceConnectionFactory connectionFactory,
+                                                              Duration nearTtl,
+                                                              RedisCircuitBreaker breaker) {
+        // The application's cache manager and error handler, without pub/sub or hot-key tracking
+        RedisConfig config = new RedisConfig();
+        ReflectionTestUtils.setField(config, "nearCacheMaximumSize", 10_000L);
+        ReflectionTestUtils.setField(config, "nearCacheTtl", nearTtl);
+        ReflectionTestUtils.setField(config, "compactCaches", Set.of("products"));
+        ReflectionTestUtils.setField(config, "compressionThreshold", 1024);
+
+        TwoLevelCacheManager cacheManager = (TwoLevelCacheManager)
+            config.cacheManager(connectionFactory, null, null, breaker, new SimpleMeterRegistry());
+        cacheManager.afterPropertiesSet();
+        CacheErrorHandler errorHandler = config.errorHandler();
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(CachingEnabled.class, Catalog.class);
+        context.registerBean(CacheManager.class, () -> cacheManager);
+        context.registerBean(CachingConfigurer.class, () -> new CachingConfigurer() {
+            @Override
+            public CacheErrorHandler errorHandler() {
+                return errorHandler;
+            }
+        });
+        context.refresh();
+        return context;
+    }
+
+    private static long randomId() {
+        return 1 + ThreadLocalRandom.current().nextLong(PRODUCTS);
+    }
+
+    private static Product product(Long id) {
+        return Product.builder()
+            .id(id)
+            .name("Product " + id)
+            .description("Benchmark product")
+            .price(new BigDecimal("19.99"))
+            .category("category-" + id % CATEGORIES)
+            .stockQuantity(100)
+            .build();
+    }
+}
@@ -0,0 +1,174 @@
+package io.techyowls.caching.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.cache.TwoLevelCache;
+import io.techyowls.caching.cache.TwoLevelCacheManager;
+import io.techyowls.caching.config.RedisConfig;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.service.ProductRepository;
+import io.techyowls.caching.service.ProductService;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * List queries (findByCategory / findAll) served from Redis:
+ * whole List<Product> blobs vs normalized ID lists + MGET.
+ *
+ * 1000 products in 10 categories, every list cached. L1 entries expire at
+ * once, so each request goes to Redis. Printed at the end of each trial:
+ * - Redis memory taken by the list entries (per-ID entries exist in both modes)
+ * - Redis commands per list request (no pipelining on reads: = round trips)
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="ListCacheBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListCacheBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int CATEGORIES = 10;
+
+    @Param({"blob", "normalized"})
+    public String mode;
+
+    @Param({"category", "all"})
+    public String query;
+
+    private EmbeddedRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+    private ProductService productService;
+
+    private long listBytes;
+    private long commandsBefore;
+    private final AtomicLong requests = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = EmbeddedRedis.start();
+        connectionFactory = redis.connectionFactory();
+
+        List<Product> products = products();
+        TwoLevelCacheManager cacheManager = cacheManager();
+        productService = new ProductService(repository(products), cacheManager, mode.equals("normalized"), null);
+
+        // Per-ID entries, as left behind by findById traffic
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("products");
+        cache.putAll(products.stream().collect(Collectors.toMap(Product::getId, Function.identity())));
+
+        long before = info("memory", "used_memory");
+        for (int c = 0; c < CATEGORIES; c++) {
+            productService.findByCategory(category(c));
+        }
+        productService.findAll();
+        listBytes = info("memory", "used_memory") - before;
+
+        commandsBefore = info("stats", "total_commands_processed");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long commands = info("stats", "total_commands_processed") - commandsBefore - 1;
+        System.out.printf("%n[%s] list entries: %d KiB in Redis, commands per %s request: %.2f%n",
+            mode, listBytes / 1024, query, (double) commands / Math.max(1, requests.get()));
+
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Benchmark
+    public List<Product> list() {
+        requests.incrementAndGet();
+        return query.equals("all")
+            ? productService.findAll()
+            : productService.findByCategory(category(ThreadLocalRandom.current().nextInt(CATEGORIES)));
+    }
+
+    private TwoLevelCacheManager cacheManager() {
+        // The application's cache setup (compact serializer on "products"), with L1 effectively off
+        RedisConfig config = new RedisConfig();
+        ReflectionTestUtils.setField(config, "nearCacheMaximumSize", 10_000L);
+        ReflectionTestUtils.setField(config, "nearCacheTtl", Duration.ofNanos(1));
+        ReflectionTestUtils.setField(config, "compactCaches", Set.of("products"));
+        ReflectionTestUtils.setField(config, "compressionThreshold", 1024);
+
+        TwoLevelCacheManager cacheManager = (TwoLevelCacheManager)
+            config.cacheManager(connectionFactory, null, null, null, new SimpleMeterRegistry());
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ProductRepository repository(List<Product> products) {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findAll()).thenReturn(products);
+        when(repository.findByCategory(anyString())).thenAnswer(invocation -> products.stream()
+            .filter(p -> p.getCategory().equals(invocation.getArgument(0)))
+            .toList());
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return products.stream().filter(p -> ids.contains(p.getId())).toList();
+        });
+        return repository;
+    }
+
+    private long info(String section, String field) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return Long.parseLong(connection.serverCommands().info(section).getProperty(field));
+        }
+    }
+
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            products.add(Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description for product " + id + ", long enough to look like real copy text.")
+                .price(new BigDecimal("19.99"))
+                .category(category((int) (id % CATEGORIES)))
+                .stockQuantity((int) id)
+                .build());
+        }
+        return products;
+    }
+
+    private static String category(int index) {
+        return "category-" + index;
+    }
+}
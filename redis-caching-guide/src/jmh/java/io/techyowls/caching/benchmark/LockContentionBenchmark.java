@@ -0,0 +1,127 @@
+package io.techyowls.caching.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.service.DistributedLockService;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 8 threads fighting over one lock with a 0.5 ms critical section.
+ *
+ * "polling" is the previous implementation (SETNX + fixed sleep + blind DEL),
+ * "lease" is DistributedLockService (owner token, release notification).
+ * Contended SETNX attempts per acquisition are printed at the end of each trial.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="LockContentionBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LockContentionBenchmark {
+
+    private static final String LOCK_KEY = "bench";
+    private static final Duration TTL = Duration.ofSeconds(5);
+    private static final long RETRY_DELAY_MS = 10;
+
+    @Param({"polling", "lease"})
+    public String impl;
+
+    private EmbeddedRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer container;
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry registry;
+    private DistributedLockService lockService;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong pollingContended = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = EmbeddedRedis.start();
+        connectionFactory = redis.connectionFactory();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        registry = new SimpleMeterRegistry();
+        lockService = new DistributedLockService(redisTemplate, container, registry);
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        double contended = impl.equals("polling")
+            ? pollingContended.get()
+            : registry.get("lock.attempts").tag("result", "contended").counter().count();
+        System.out.printf("%n[%s] acquisitions: %d, contended attempts per acquisition: %.2f%n",
+            impl, acquisitions.get(), contended / Math.max(1, acquisitions.get()));
+
+        container.destroy();
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Benchmark
+    public Object acquireAndRelease() {
+        Object result = impl.equals("polling")
+            ? pollingExecuteWithLockAndRetry(this::criticalSection)
+            : lockService.executeWithLockAndRetry(LOCK_KEY, TTL, Integer.MAX_VALUE, RETRY_DELAY_MS,
+                this::criticalSection);
+        acquisitions.incrementAndGet();
+        return result;
+    }
+
+    private Object criticalSection() {
+        LockSupport.parkNanos(500_000);
+        return LOCK_KEY;
+    }
+
+    /**
+     * The implementation DistributedLockService replaced.
+     */
+    private Object pollingExecuteWithLockAndRetry(java.util.function.Supplier<Object> task) {
+        String key = "lock:polling:" + LOCK_KEY;
+        while (true) {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, "locked", TTL))) {
+                try {
+                    return task.get();
+                } finally {
+                    redisTemplate.delete(key);
+                }
+            }
+            pollingContended.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.techyowls.caching.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.ratelimit.RateLimitDecision;
+import io.techyowls.caching.ratelimit.RateLimitPolicy;
+import io.techyowls.caching.ratelimit.RedisRateLimiter;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limiter overhead per request.
+ *
+ * "under-limit": 100 clients well within their limit, every check is a Redis script.
+ * "over-limit":  the limit is long exhausted, checks are answered by the local pre-check.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="RateLimiterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 100;
+
+    @Param({"SLIDING_WINDOW", "TOKEN_BUCKET"})
+    public RateLimitPolicy.Algorithm algorithm;
+
+    @Param({"under-limit", "over-limit"})
+    public String traffic;
+
+    private EmbeddedRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisRateLimiter rateLimiter;
+    private RateLimitPolicy policy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redis = EmbeddedRedis.start();
+        connectionFactory = redis.connectionFactory();
+        rateLimiter = new RedisRateLimiter(new StringRedisTemplate(connectionFactory), new SimpleMeterRegistry());
+        // Sliding window keeps one entry per request in the window, so keep that bounded
+        policy = traffic.equals("under-limit")
+            ? new RateLimitPolicy(algorithm, 1_000_000, Duration.ofSeconds(1))
+            : new RateLimitPolicy(algorithm, 1, Duration.ofMinutes(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Benchmark
+    public RateLimitDecision tryAcquire() {
+        return rateLimiter.tryAcquire("GET /api/products/{id}:client-" + ThreadLocalRandom.current().nextInt(CLIENTS),
+            policy);
+    }
+}
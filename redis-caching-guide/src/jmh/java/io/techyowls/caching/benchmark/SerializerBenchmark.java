@@ -0,0 +1,112 @@
+package io.techyowls.caching.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.techyowls.caching.cache.CompactRedisSerializer;
+import io.techyowls.caching.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value serialization: JSON with default typing (current) vs compact Smile.
+ *
+ * Bytes per entry are printed once per trial, ns/op comes from JMH.
+ *
+ * Run: mvn -Pjmh test-compile exec:exec -Djmh.args="SerializerBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    @Param({"json", "compact", "compact-lz4"})
+    public String serializer;
+
+    @Param({"product", "list-50"})
+    public String payload;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(jsonMapper());
+        redisSerializer = switch (serializer) {
+            case "json" -> json;
+            case "compact" -> new CompactRedisSerializer(json, 0).register(1, Product.class);
+            case "compact-lz4" -> new CompactRedisSerializer(json, 256).register(1, Product.class);
+            default -> throw new IllegalArgumentException(serializer);
+        };
+        value = payload.equals("product") ? product(1) : products(50);
+        bytes = redisSerializer.serialize(value);
+        System.out.printf("%n[%s/%s] bytes per entry: %d%n", serializer, payload, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(bytes);
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    private static Product product(long id) {
+        return Product.builder()
+            .id(id)
+            .name("Wireless Headphones " + id)
+            .description("Over-ear, noise cancelling, 30h battery")
+            .price(new BigDecimal("79.99"))
+            .category("Electronics")
+            .stockQuantity(100)
+            .build();
+    }
+
+    /**
+     * Same mapper RedisConfig uses for the JSON serializer.
+     */
+    private static ObjectMapper jsonMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(
+            LaissezFaireSubTypeValidator.instance,
+            ObjectMapper.DefaultTyping.NON_FINAL,
+            JsonTypeInfo.As.PROPERTY
+        );
+        return mapper;
+    }
+}
@@ -0,0 +1,14 @@
+package io.techyowls.caching.cache;
+
+import java.util.List;
+
+/**
+ * Message broadcast to other nodes so they drop their L1 copies.
+ *
+ * @param origin Node that made the change (receivers skip their own messages)
+ * @param cache  Cache name
+ * @param keys   Keys to drop, ignored when {@code clear} is true
+ * @param clear  Drop every local entry of the cache
+ */
+public record CacheInvalidation(String origin, String cache, List<String> keys, boolean clear) {
+}
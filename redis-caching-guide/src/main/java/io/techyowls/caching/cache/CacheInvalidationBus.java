@@ -0,0 +1,214 @@
+package io.techyowls.caching.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts L1 invalidations to every node over Redis pub/sub.
+ *
+ * Redis itself is already up to date when an invalidation is published;
+ * the bus only tells other nodes to drop their local copies so their next
+ * read goes to Redis.
+ *
+ * Under write bursts (bulk imports), invalidations are coalesced:
+ * - Keys are buffered for up to {@code flushInterval}, duplicates collapse
+ * - A clear() for a cache supersedes any buffered keys of that cache
+ * - One message carries up to {@code maxBatchSize} keys
+ *
+ * Delivery is fire-and-forget. A node that misses a message serves its
+ * stale copy until the L1 TTL expires, which is what bounds staleness.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, DisposableBean {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final StringRedisTemplate redisTemplate;
+    private final Duration flushInterval;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private Map<String, Set<String>> pendingKeys = new HashMap<>();
+    private Set<String> pendingClears = new HashSet<>();
+    private int pendingCount;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private volatile Consumer<CacheInvalidation> handler = invalidation -> { };
+
+    private final Counter keysQueued;
+    private final Counter keysCoalesced;
+    private final Counter messagesPublished;
+    private final Counter messagesReceived;
+    private final Counter publishErrors;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                Duration flushInterval,
+                                int maxBatchSize,
+                                MeterRegistry registry) {
+        this.redisTemplate = redisTemplate;
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.keysQueued = Counter.builder("cache.invalidation.keys")
+            .description("Invalidations requested locally")
+            .tag("result", "queued")
+            .register(registry);
+        this.keysCoalesced = Counter.builder("cache.invalidation.keys")
+            .description("Invalidations requested locally")
+            .tag("result", "coalesced")
+            .register(registry);
+        this.messagesPublished = Counter.builder("cache.invalidation.messages")
+            .tag("direction", "out")
+            .register(registry);
+        this.messagesReceived = Counter.builder("cache.invalidation.messages")
+            .tag("direction", "in")
+            .register(registry);
+        this.publishErrors = Counter.builder("cache.invalidation.errors")
+            .register(registry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Register the callback that applies invalidations coming from other nodes.
+     */
+    public void onInvalidation(Consumer<CacheInvalidation> handler) {
+        this.handler = handler;
+    }
+
+    public void publishEvict(String cache, String key) {
+        boolean full;
+        synchronized (lock) {
+            if (pendingClears.contains(cache)
+                || !pendingKeys.computeIfAbsent(cache, c -> new LinkedHashSet<>()).add(key)) {
+                keysCoalesced.increment();
+                return;
+            }
+            keysQueued.increment();
+            full = ++pendingCount >= maxBatchSize;
+        }
+        scheduleFlush(full);
+    }
+
+    public void publishClear(String cache) {
+        synchronized (lock) {
+            Set<String> dropped = pendingKeys.remove(cache);
+            if (dropped != null) {
+                pendingCount -= dropped.size();
+                keysCoalesced.increment(dropped.size());
+            }
+            pendingClears.add(cache);
+        }
+        scheduleFlush(false);
+    }
+
+    /**
+     * Publish everything buffered so far.
+     */
+    public void flush() {
+        flushScheduled.set(false);
+
+        Map<String, Set<String>> keys;
+        Set<String> clears;
+        synchronized (lock) {
+            if (pendingCount == 0 && pendingClears.isEmpty()) {
+                return;
+            }
+            keys = pendingKeys;
+            clears = pendingClears;
+            pendingKeys = new HashMap<>();
+            pendingClears = new HashSet<>();
+            pendingCount = 0;
+        }
+
+        for (String cache : clears) {
+            send(new CacheInvalidation(nodeId, cache, List.of(), true));
+        }
+        keys.forEach((cache, cacheKeys) -> {
+            List<String> batch = new ArrayList<>(Math.min(cacheKeys.size(), maxBatchSize));
+            for (String key : cacheKeys) {
+                batch.add(key);
+                if (batch.size() == maxBatchSize) {
+                    send(new CacheInvalidation(nodeId, cache, batch, false));
+                    batch = new ArrayList<>(maxBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(new CacheInvalidation(nodeId, cache, batch, false));
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = mapper.readValue(message.getBody(), CacheInvalidation.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;  // Already applied locally
+        }
+        messagesReceived.increment();
+        handler.accept(invalidation);
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    private void scheduleFlush(boolean immediately) {
+        if (immediately) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void send(CacheInvalidation invalidation) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, mapper.writeValueAsString(invalidation));
+            messagesPublished.increment();
+        } catch (Exception e) {
+            // Other nodes fall back to L1 TTL expiry
+            publishErrors.increment();
+            log.warn("Failed to publish cache invalidation for {}: {}", invalidation.cache(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.techyowls.caching.cache;
+
+import java.util.Set;
+
+/**
+ * Tags a cache entry when it is written, so everything under a tag can
+ * be evicted at once (see {@link TwoLevelCache#evictTag}).
+ */
+@FunctionalInterface
+public interface CacheTagger {
+
+    /**
+     * @return Tags for the entry, empty for none
+     */
+    Set<String> tags(Object key, Object value);
+}
@@ -0,0 +1,32 @@
+package io.techyowls.caching.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * cache.circuit-breaker.* settings.
+ *
+ * @param enabled               Off: every cache operation goes to Redis
+ * @param windowSize            Number of recent Redis calls the rates are taken over
+ * @param minimumCalls          Calls needed in the window before it can trip
+ * @param failureRateThreshold  Trips when this fraction of calls failed
+ * @param slowCallDuration      A call slower than this counts as slow
+ * @param slowCallRateThreshold Trips when this fraction of calls was slow, e.g. 0.5:
+ *                              the window's median latency is above slowCallDuration
+ * @param openDuration          How long Redis is left alone before probing
+ * @param probeInterval         Time between background PINGs while half-open
+ * @param probesToClose         Consecutive good PINGs needed to close again
+ */
+@ConfigurationProperties(prefix = "cache.circuit-breaker")
+public record CircuitBreakerProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("100") int windowSize,
+                                       @DefaultValue("20") int minimumCalls,
+                                       @DefaultValue("0.5") double failureRateThreshold,
+                                       @DefaultValue("250ms") Duration slowCallDuration,
+                                       @DefaultValue("0.5") double slowCallRateThreshold,
+                                       @DefaultValue("5s") Duration openDuration,
+                                       @DefaultValue("1s") Duration probeInterval,
+                                       @DefaultValue("3") int probesToClose) {
+}
@@ -0,0 +1,189 @@
+package io.techyowls.caching.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary cache value serializer: Smile payload plus a one-byte type id.
+ *
+ * Instead of writing {@code "@class":"io.techyowls...Product"} into every
+ * object (GenericJackson2JsonRedisSerializer with default typing), each
+ * cached type is registered up front with a small id. The reader knows
+ * the exact type from that id, so the payload carries data only.
+ *
+ * Layout:
+ * <pre>
+ * [format byte][type id][payload]                      uncompressed
+ * [format byte][type id][original length][lz4 block]   compressed
+ * </pre>
+ *
+ * Values whose type is not registered, and entries written by the JSON
+ * serializer before the switch, go through the fallback serializer.
+ * JSON never starts with the format bytes used here, so both formats
+ * can live in the same cache during a rolling migration.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FORMAT_RAW = 0x01;
+    private static final byte FORMAT_LZ4 = 0x02;
+    private static final byte EMPTY_LIST = 0;
+
+    private final ObjectMapper mapper;
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final Map<Class<?>, Byte> singleIds = new HashMap<>();
+    private final Map<Class<?>, Byte> listIds = new HashMap<>();
+    private final ObjectReader[] readers = new ObjectReader[256];
+    private final ObjectWriter[] writers = new ObjectWriter[256];
+
+    /**
+     * @param fallback             Serializer for unregistered types and pre-existing JSON entries
+     * @param compressionThreshold Payloads of at least this many bytes are LZ4-compressed; 0 disables compression
+     */
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, int compressionThreshold) {
+        this.mapper = new ObjectMapper(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
+        this.mapper.registerModule(new JavaTimeModule());
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Register a cached type and its {@code List<type>} form.
+     *
+     * Ids are part of the stored format: never reuse or renumber them.
+     */
+    public CompactRedisSerializer register(int id, Class<?> type) {
+        if (id <= 0 || id > 127) {
+            throw new IllegalArgumentException("Type id must be in 1..127: " + id);
+        }
+        byte singleId = (byte) id;
+        byte listId = (byte) (id + 128);
+        if (readers[singleId & 0xFF] != null) {
+            throw new IllegalArgumentException("Type id already registered: " + id);
+        }
+
+        JavaType single = mapper.constructType(type);
+        JavaType list = mapper.getTypeFactory().constructCollectionType(List.class, type);
+
+        singleIds.put(type, singleId);
+        listIds.put(type, listId);
+        readers[singleId & 0xFF] = mapper.readerFor(single);
+        writers[singleId & 0xFF] = mapper.writerFor(single);
+        readers[listId & 0xFF] = mapper.readerFor(list);
+        writers[listId & 0xFF] = mapper.writerFor(list);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof List<?> list && list.isEmpty()) {
+            return new byte[] {FORMAT_RAW, EMPTY_LIST};
+        }
+
+        Byte id = typeId(value);
+        if (id == null) {
+            return fallback.serialize(value);
+        }
+
+        byte[] payload;
+        try {
+            payload = writers[id & 0xFF].writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName(), e);
+        }
+
+        if (compressionThreshold > 0 && payload.length >= compressionThreshold) {
+            byte[] compressed = compress(id, payload);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+
+        byte[] out = new byte[payload.length + 2];
+        out[0] = FORMAT_RAW;
+        out[1] = id;
+        System.arraycopy(payload, 0, out, 2, payload.length);
+        return out;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte format = bytes[0];
+        if (format != FORMAT_RAW && format != FORMAT_LZ4) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("Truncated cache entry");
+        }
+
+        byte id = bytes[1];
+        if (id == EMPTY_LIST) {
+            return List.of();
+        }
+        ObjectReader reader = readers[id & 0xFF];
+        if (reader == null) {
+            throw new SerializationException("Unknown type id " + (id & 0xFF));
+        }
+
+        try {
+            if (format == FORMAT_RAW) {
+                return reader.readValue(bytes, 2, bytes.length - 2);
+            }
+            int originalLength = ByteBuffer.wrap(bytes, 2, 4).getInt();
+            byte[] payload = new byte[originalLength];
+            decompressor.decompress(bytes, 6, payload, 0, originalLength);
+            return reader.readValue(payload);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not read cache entry with type id " + (id & 0xFF), e);
+        }
+    }
+
+    private Byte typeId(Object value) {
+        if (value instanceof List<?> list) {
+            Class<?> elementType = list.get(0) != null ? list.get(0).getClass() : null;
+            return listIds.get(elementType);
+        }
+        return singleIds.get(value.getClass());
+    }
+
+    private byte[] compress(byte id, byte[] payload) {
+        int maxLength = compressor.maxCompressedLength(payload.length);
+        byte[] out = new byte[6 + maxLength];
+        int length = compressor.compress(payload, 0, payload.length, out, 6, maxLength);
+        if (length + 4 >= payload.length) {
+            return null;  // Not worth it
+        }
+        out[0] = FORMAT_LZ4;
+        out[1] = id;
+        ByteBuffer.wrap(out, 2, 4).putInt(payload.length);
+        byte[] trimmed = new byte[6 + length];
+        System.arraycopy(out, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+}
@@ -0,0 +1,193 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds the keys this node reads most, in fixed memory.
+ *
+ * Every read is counted in a count-min sketch (4 rows of counters, the
+ * estimate is the smallest of a key's 4 counters, so it can only
+ * over-count). Every decay interval all counters are halved, which turns
+ * counts into a request rate that follows the traffic:
+ * a steady r req/s settles between r*T and 2*r*T.
+ *
+ * With sampling N, only 1 in N reads (chosen at random) updates the
+ * sketch, adding N. The others only read it. Estimates stay unbiased,
+ * and a hot key's 4 counters - shared by every thread reading it - take
+ * N times fewer atomic writes.
+ *
+ * A key whose rate crosses the threshold is promoted; it is demoted again
+ * once it drops below half the threshold. Callers use the result of
+ * {@link #record} to serve promoted keys from a local copy.
+ */
+@Slf4j
+public class HotKeyDetector implements DisposableBean {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 4096;  // Power of two
+
+    private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+    private final double hotRate;
+    private final long decayIntervalNanos;
+    private final int maxHotKeys;
+    private final int sampling;
+
+    // Promoted key -> its sketch hash
+    private final Map<String, Integer> hotKeys = new ConcurrentHashMap<>();
+    private volatile long lastDecayNanos = System.nanoTime();
+
+    private final ScheduledExecutorService decayer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hot-key-decay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter promotions;
+
+    public HotKeyDetector(double hotRate, Duration decayInterval, int maxHotKeys, MeterRegistry registry) {
+        this(hotRate, decayInterval, maxHotKeys, 1, registry);
+    }
+
+    /**
+     * @param hotRate       Requests per second at which a key is promoted
+     * @param decayInterval How often counters are halved
+     * @param maxHotKeys    Upper bound on promoted keys
+     * @param sampling      Count 1 in this many reads (1 = every read)
+     */
+    public HotKeyDetector(double hotRate, Duration decayInterval, int maxHotKeys, int sampling,
+                          MeterRegistry registry) {
+        if (sampling < 1) {
+            throw new IllegalArgumentException("sampling must be at least 1: " + sampling);
+        }
+        this.hotRate = hotRate;
+        this.decayIntervalNanos = decayInterval.toNanos();
+        this.maxHotKeys = maxHotKeys;
+        this.sampling = sampling;
+
+        this.promotions = Counter.builder("cache.hot.promotions")
+            .description("Keys promoted to hot")
+            .register(registry);
+        Gauge.builder("cache.hot.keys", hotKeys, Map::size)
+            .description("Keys currently promoted to hot")
+            .register(registry);
+
+        decayer.scheduleAtFixedRate(this::decay,
+            decayIntervalNanos, decayIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A key and its estimated request rate on this node.
+     */
+    public record HotKey(String key, long requestsPerSecond) {
+    }
+
+    /**
+     * Count one read (or, unsampled, just look the key up).
+     *
+     * @param prefix Namespace, e.g. "products::" (kept separate to avoid a concat per read)
+     * @param key    The key within it
+     * @return whether the key is currently hot
+     */
+    public boolean record(String prefix, String key) {
+        int hash = hash(prefix, key);
+        long estimate = sampling == 1 || ThreadLocalRandom.current().nextInt(sampling) == 0
+            ? add(hash, sampling)
+            : estimate(hash);
+
+        double rate = rate(estimate);
+        if (rate < hotRate / 2) {
+            return false;  // Neither hot nor about to be demoted
+        }
+        String fullKey = prefix + key;
+        if (hotKeys.containsKey(fullKey)) {
+            return true;
+        }
+        if (rate >= hotRate && hotKeys.size() < maxHotKeys && hotKeys.putIfAbsent(fullKey, hash) == null) {
+            promotions.increment();
+            log.info("Hot key promoted: {} (~{} req/s)", fullKey, Math.round(rate));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Promoted keys, hottest first.
+     */
+    public List<HotKey> hotKeys() {
+        return hotKeys.entrySet().stream()
+            .map(e -> new HotKey(e.getKey(), Math.round(rate(estimate(e.getValue())))))
+            .sorted(Comparator.comparingLong(HotKey::requestsPerSecond).reversed())
+            .toList();
+    }
+
+    /**
+     * Halve every counter and demote keys that cooled down.
+     */
+    void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >> 1);
+        }
+        lastDecayNanos = System.nanoTime();
+
+        hotKeys.entrySet().removeIf(e -> {
+            boolean cooled = rate(estimate(e.getValue())) < hotRate / 2;
+            if (cooled) {
+                log.info("Hot key demoted: {}", e.getKey());
+            }
+            return cooled;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        decayer.shutdownNow();
+    }
+
+    private long add(int hash, int count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(hash, row), count));
+        }
+        return estimate;
+    }
+
+    private long estimate(int hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    // Steady state r req/s: count = r * (T + time since last decay)
+    private double rate(long count) {
+        long window = decayIntervalNanos + (System.nanoTime() - lastDecayNanos);
+        return count * 1e9 / window;
+    }
+
+    private static int hash(String prefix, String key) {
+        int h = prefix.hashCode() * 0x9E3779B9 + key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // Double hashing: row i uses h1 + i * h2
+    private static int index(int hash, int row) {
+        int h2 = (hash * 0x85EBCA6B) | 1;
+        return row * WIDTH + ((hash + row * h2) & (WIDTH - 1));
+    }
+}
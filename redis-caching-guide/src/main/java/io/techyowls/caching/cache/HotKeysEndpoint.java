@@ -0,0 +1,24 @@
+package io.techyowls.caching.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * /actuator/hotkeys: keys this node currently treats as hot, hottest first.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyDetector detector;
+
+    public HotKeysEndpoint(HotKeyDetector detector) {
+        this.detector = detector;
+    }
+
+    @ReadOperation
+    public List<HotKeyDetector.HotKey> hotKeys() {
+        return detector.hotKeys();
+    }
+}
@@ -0,0 +1,272 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Stops cache operations from waiting on a Redis that is down or slow.
+ *
+ * CLOSED: calls go to Redis; the outcome of the last N is kept. Too many
+ *   failures or slow calls in that window -> OPEN.
+ * OPEN: callers skip Redis entirely (see {@link TwoLevelCache}), so a
+ *   brownout costs nothing per request. After the open duration -> HALF_OPEN.
+ * HALF_OPEN: callers still skip Redis; a background thread PINGs it. Enough
+ *   good PINGs in a row -> CLOSED, any bad one -> OPEN again.
+ *
+ * Close listeners run before the state flips back to CLOSED, so writes
+ * missed during the outage are reconciled before Redis serves reads again.
+ * If one fails, the breaker stays open. After-close listeners run right
+ * after the flip, for writes that raced it; if one fails, the breaker
+ * opens again.
+ */
+@Slf4j
+public class RedisCircuitBreaker implements DisposableBean {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final byte OK = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILED = 2;
+
+    private final RedisConnectionFactory connectionFactory;
+    private final CircuitBreakerProperties properties;
+    private final long slowCallNanos;
+
+    // Outcomes of the last windowSize calls, guarded by this
+    private final byte[] window;
+    private int next;
+    private int calls;
+    private int slowCalls;
+    private int failedCalls;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openUntilNanos;
+    private int goodProbes;  // Prober thread only
+
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> afterCloseListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "redis-circuit-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter shortCircuited;
+    private final Map<State, Counter> transitions;
+
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory,
+                               CircuitBreakerProperties properties,
+                               MeterRegistry registry) {
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+        this.slowCallNanos = properties.slowCallDuration().toNanos();
+        this.window = new byte[properties.windowSize()];
+
+        this.shortCircuited = Counter.builder("cache.circuit.short_circuited")
+            .description("Cache operations that skipped Redis because the circuit was not closed")
+            .register(registry);
+        this.transitions = Map.of(
+            State.CLOSED, transitionCounter(registry, State.CLOSED),
+            State.HALF_OPEN, transitionCounter(registry, State.HALF_OPEN),
+            State.OPEN, transitionCounter(registry, State.OPEN));
+        Gauge.builder("cache.circuit.state", state, s -> s.get().ordinal())
+            .description("0 closed, 1 half-open, 2 open")
+            .register(registry);
+
+        if (properties.enabled()) {
+            long interval = properties.probeInterval().toMillis();
+            prober.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /**
+     * @return false while the circuit is not closed: don't touch Redis
+     */
+    public boolean allowRequest() {
+        if (state.get() == State.CLOSED) {
+            return true;
+        }
+        shortCircuited.increment();
+        return false;
+    }
+
+    /**
+     * Run a Redis call and record how it went. Only Redis failures
+     * (DataAccessException) count against the circuit.
+     */
+    public <T> T execute(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(System.nanoTime() - start, false);
+            return result;
+        } catch (DataAccessException e) {
+            record(System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run before the circuit closes again.
+     */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * Run right after the circuit has closed again.
+     */
+    public void afterClose(Runnable listener) {
+        afterCloseListeners.add(listener);
+    }
+
+    void record(long nanos, boolean failed) {
+        if (!properties.enabled() || state.get() != State.CLOSED) {
+            return;
+        }
+        byte outcome = failed ? FAILED : nanos >= slowCallNanos ? SLOW : OK;
+        String reason = null;
+        synchronized (this) {
+            if (calls == window.length) {
+                count(window[next], -1);
+            } else {
+                calls++;
+            }
+            window[next] = outcome;
+            count(outcome, 1);
+            next = (next + 1) % window.length;
+
+            if (calls >= properties.minimumCalls()) {
+                if (failedCalls >= properties.failureRateThreshold() * calls) {
+                    reason = failedCalls + " of the last " + calls + " calls failed";
+                } else if (slowCalls >= properties.slowCallRateThreshold() * calls) {
+                    reason = slowCalls + " of the last " + calls + " calls took over "
+                        + properties.slowCallDuration().toMillis() + " ms";
+                }
+            }
+        }
+        if (reason != null) {
+            open(State.CLOSED, reason);
+        }
+    }
+
+    /**
+     * One prober step: OPEN -> HALF_OPEN once the open duration is over,
+     * then one PING per step while HALF_OPEN.
+     */
+    void tick() {
+        if (state.get() == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+            if (transition(State.OPEN, State.HALF_OPEN)) {
+                goodProbes = 0;
+                log.info("Redis circuit breaker HALF_OPEN: probing Redis");
+            }
+        }
+        if (state.get() != State.HALF_OPEN) {
+            return;
+        }
+        if (!ping()) {
+            open(State.HALF_OPEN, "probe failed");
+            return;
+        }
+        if (++goodProbes >= properties.probesToClose()) {
+            close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        prober.shutdownNow();
+    }
+
+    private void open(State from, String reason) {
+        openUntilNanos = System.nanoTime() + properties.openDuration().toNanos();
+        if (transition(from, State.OPEN)) {
+            log.warn("Redis circuit breaker OPEN: {}. Cache operations skip Redis for {} ms",
+                reason, properties.openDuration().toMillis());
+        }
+    }
+
+    private void close() {
+        try {
+            closeListeners.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            open(State.HALF_OPEN, "reconciling after the outage failed: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            next = 0;
+            calls = 0;
+            slowCalls = 0;
+            failedCalls = 0;
+        }
+        if (!transition(State.HALF_OPEN, State.CLOSED)) {
+            return;
+        }
+        log.info("Redis circuit breaker CLOSED: Redis is back");
+        try {
+            afterCloseListeners.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            open(State.CLOSED, "reconciling after the outage failed: " + e.getMessage());
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        transitions.get(to).increment();
+        return true;
+    }
+
+    private boolean ping() {
+        long start = System.nanoTime();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+            return System.nanoTime() - start < slowCallNanos;
+        } catch (RuntimeException e) {
+            log.debug("Redis probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void count(byte outcome, int delta) {
+        if (outcome == SLOW) {
+            slowCalls += delta;
+        } else if (outcome == FAILED) {
+            failedCalls += delta;
+        }
+    }
+
+    private static Counter transitionCounter(MeterRegistry registry, State to) {
+        return Counter.builder("cache.circuit.transitions")
+            .description("Circuit breaker state changes, by new state")
+            .tag("to", to.name().toLowerCase())
+            .register(registry);
+    }
+}
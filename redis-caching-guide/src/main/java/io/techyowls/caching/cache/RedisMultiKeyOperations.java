@@ -0,0 +1,165 @@
+package io.techyowls.caching.cache;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-key reads and writes against one RedisCache's keyspace.
+ *
+ * RedisCacheWriter only does one key per round trip. Here:
+ * - getAll is a single MGET
+ * - putAll is a single pipeline of SET PX (MSET can't set TTLs)
+ *
+ * Tags: each tag is a Redis set of the keys tagged with it, kept as long
+ * as the entries it was last written with. evictTag empties the set with
+ * SPOP and UNLINKs its keys a batch at a time - no keyspace scan, and
+ * UNLINK frees the values off the main thread. A key tagged while an
+ * eviction runs is either popped by it or stays in the set for the next.
+ *
+ * Keys, values and TTLs go through the cache's own configuration, so
+ * entries are interchangeable with the ones written by @Cacheable.
+ */
+class RedisMultiKeyOperations {
+
+    private static final int EVICT_BATCH_SIZE = 500;
+
+    private final String cacheName;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration configuration;
+
+    RedisMultiKeyOperations(String cacheName,
+                            RedisConnectionFactory connectionFactory,
+                            RedisCacheConfiguration configuration) {
+        this.cacheName = cacheName;
+        this.connectionFactory = connectionFactory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @param keys Keys in their String form
+     * @return Only the keys found in Redis
+     */
+    Map<String, Object> getAll(List<String> keys) {
+        byte[][] redisKeys = keys.stream().map(this::redisKey).toArray(byte[][]::new);
+
+        List<byte[]> values;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(redisKeys);
+        }
+
+        Map<String, Object> found = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] value = values != null ? values.get(i) : null;
+            if (value != null) {
+                found.put(keys.get(i), configuration.getValueSerializationPair().read(ByteBuffer.wrap(value)));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param entries Values keyed by their String form; null values are skipped
+     */
+    void putAll(Map<String, Object> entries) {
+        putAll(entries, Map.of());
+    }
+
+    /**
+     * @param entries Values keyed by their String form; null values are skipped
+     * @param tags    Tags per key, written in the same pipeline
+     */
+    void putAll(Map<String, Object> entries, Map<String, Set<String>> tags) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            entries.forEach((key, value) -> {
+                if (value == null) {
+                    return;
+                }
+                byte[] bytes = ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+                Expiration expiration = expiration(key, value);
+                connection.stringCommands().set(redisKey(key), bytes, expiration, SetOption.upsert());
+                tag(connection, key, tags.getOrDefault(key, Set.of()), expiration);
+            });
+            connection.closePipeline();
+        }
+    }
+
+    /**
+     * Tag an entry already written.
+     *
+     * @param key Key in its String form
+     */
+    void tag(String key, Object value, Set<String> tags) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            tag(connection, key, tags, expiration(key, value));
+            connection.closePipeline();
+        }
+    }
+
+    /**
+     * Evict every entry tagged with the tag, and the tag itself.
+     *
+     * @return Keys (String form) that were tagged
+     */
+    Set<String> evictTag(String tag) {
+        byte[] tagKey = tagKey(tag);
+        Set<String> evicted = new HashSet<>();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            while (true) {
+                List<byte[]> members = connection.setCommands().sPop(tagKey, EVICT_BATCH_SIZE);
+                if (members == null || members.isEmpty()) {
+                    break;
+                }
+                byte[][] keys = new byte[members.size()][];
+                for (int i = 0; i < keys.length; i++) {
+                    String key = new String(members.get(i), StandardCharsets.UTF_8);
+                    keys[i] = redisKey(key);
+                    evicted.add(key);
+                }
+                connection.keyCommands().unlink(keys);
+            }
+        }
+        return evicted;
+    }
+
+    // SADD, and keep the tag as long as the entry it was just written with
+    private void tag(RedisConnection connection, String key, Set<String> tags, Expiration expiration) {
+        byte[] member = key.getBytes(StandardCharsets.UTF_8);
+        for (String tag : tags) {
+            byte[] tagKey = tagKey(tag);
+            connection.setCommands().sAdd(tagKey, member);
+            if (!expiration.isPersistent()) {
+                connection.keyCommands().pExpire(tagKey, expiration.getExpirationTimeInMilliseconds());
+            }
+        }
+    }
+
+    private Expiration expiration(String key, Object value) {
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    // Under the cache prefix, so clearing the cache drops its tags too
+    private byte[] tagKey(String tag) {
+        return redisKey("tag::" + tag);
+    }
+
+    private byte[] redisKey(String key) {
+        String prefixed = configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) + key : key;
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(prefixed));
+    }
+}
@@ -0,0 +1,558 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Near cache: bounded in-process L1 (Caffeine) in front of Redis L2.
+ *
+ * Read path:
+ * 1. L1 hit  -> no network, no deserialization
+ * 2. L1 miss -> read L2, promote the value into L1
+ * 3. L2 miss -> caller loads from DB, value is written to both tiers
+ *
+ * Writes and evictions always go to L2 first, so L1 never holds
+ * something Redis doesn't know about. Other nodes are then told to drop
+ * their local copy through the {@link CacheInvalidationBus}.
+ *
+ * L1 is keyed by the same String form RedisCache uses, so keys survive
+ * the trip through pub/sub unchanged.
+ *
+ * getAll/putAll batch the L2 side into one MGET / one pipeline when the
+ * remote is a RedisCache, instead of one round trip per key.
+ *
+ * Every read is counted by the {@link HotKeyDetector}, if one is given, so
+ * hot cache keys show up next to hot RedisTemplate keys. Nothing else is
+ * needed for them here: L1 already is their local copy.
+ *
+ * While the {@link RedisCircuitBreaker} is not closed, Redis is not
+ * touched: reads are served from L1 or fall through to the DB, writes go
+ * to L1 only and their keys are remembered. When Redis comes back those
+ * keys are evicted from it (or the whole cache cleared, if there were too
+ * many) before the breaker closes, so Redis never serves what it missed.
+ * Writes that race the close are evicted right after it: by the breaker's
+ * after-close pass, or by the writer itself if it sees the breaker closed.
+ *
+ * With a {@link CacheTagger}, entries written to Redis are indexed under
+ * their tags there, and {@link #evictTag} evicts everything under one
+ * tag from Redis, from L1 and from the other nodes' L1.
+ *
+ * Note: L1 hands out the cached instance itself, not a copy.
+ * Treat cached objects as read-only.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisMultiKeyOperations multiKey;
+    private final HotKeyDetector hotKeys;
+    private final String hotKeyPrefix;
+    private final RedisCircuitBreaker breaker;
+    private final CacheTagger tagger;
+
+    // Written locally while Redis was skipped: to evict from Redis once it is back
+    private static final int MAX_PENDING_EVICTIONS = 10_000;
+    private final Set<String> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile boolean pendingClear;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         CacheInvalidationBus invalidationBus,
+                         MeterRegistry registry) {
+        this(name, local, remote, null, invalidationBus, null, null, null, registry);
+    }
+
+    TwoLevelCache(String name,
+                  com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                  Cache remote,
+                  RedisMultiKeyOperations multiKey,
+                  CacheInvalidationBus invalidationBus,
+                  HotKeyDetector hotKeys,
+                  RedisCircuitBreaker breaker,
+                  CacheTagger tagger,
+                  MeterRegistry registry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.multiKey = multiKey;
+        this.invalidationBus = invalidationBus;
+        this.hotKeys = hotKeys;
+        this.hotKeyPrefix = name + "::";  // Same form as the Redis key
+        this.breaker = breaker;
+        this.tagger = tagger;
+        if (breaker != null) {
+            breaker.onClose(this::replayPendingEvictions);
+            breaker.afterClose(this::replayPendingEvictions);
+        }
+
+        this.l1Hits = counter(registry, "cache.l1.gets", "hit");
+        this.l1Misses = counter(registry, "cache.l1.gets", "miss");
+        this.l2Hits = counter(registry, "cache.l2.gets", "hit");
+        this.l2Misses = counter(registry, "cache.l2.gets", "miss");
+
+        Gauge.builder("cache.l1.hit.ratio", this, c -> ratio(c.l1Hits, c.l1Misses))
+            .description("Fraction of lookups served from the in-process cache")
+            .tag("cache", name)
+            .register(registry);
+        Gauge.builder("cache.l2.hit.ratio", this, c -> ratio(c.l2Hits, c.l2Misses))
+            .description("Fraction of L1 misses served from Redis")
+            .tag("cache", name)
+            .register(registry);
+        Gauge.builder("cache.l1.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+            .description("Estimated number of entries in the in-process cache")
+            .tag("cache", name)
+            .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        recordRead(localKey);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        l1Misses.increment();
+        if (!remoteAvailable()) {
+            return null;  // Caller loads from the DB
+        }
+
+        ValueWrapper wrapper = remote(() -> remote.get(key));
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        if (wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        if (!remoteAvailable()) {
+            T value = load(key, valueLoader);
+            putLocalOnly(localKey(key), value);
+            return value;
+        }
+        // RedisCache.get(key, loader) serializes concurrent loads within this JVM
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = remote(() -> remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        }));
+        if (value != null) {
+            if (loaded.get()) {
+                tag(key, value);
+            }
+            local.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        if (!remoteAvailable()) {
+            putLocalOnly(localKey, value);
+            return;
+        }
+        remote(() -> remote.put(key, value));
+        if (value != null) {
+            tag(key, value);
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        publishEvict(localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (!remoteAvailable()) {
+            Object existing = local.getIfPresent(localKey(key));
+            if (existing != null) {
+                return new SimpleValueWrapper(existing);
+            }
+            putLocalOnly(localKey(key), value);
+            return null;
+        }
+        ValueWrapper existing = remote(() -> remote.putIfAbsent(key, value));
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            local.put(localKey(key), current);
+        }
+        if (existing == null) {
+            if (value != null) {
+                tag(key, value);
+            }
+            publishEvict(localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (!remoteAvailable()) {
+            putLocalOnly(localKey(key), null);
+            return;
+        }
+        remote(() -> remote.evict(key));
+        local.invalidate(localKey(key));
+        publishEvict(localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        if (!remoteAvailable()) {
+            boolean present = local.getIfPresent(localKey(key)) != null;
+            putLocalOnly(localKey(key), null);
+            return present;
+        }
+        boolean present = remote(() -> remote.evictIfPresent(key));
+        local.invalidate(localKey(key));
+        publishEvict(localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        if (!remoteAvailable()) {
+            clearLocalOnly();
+            return;
+        }
+        remote(remote::clear);
+        local.invalidateAll();
+        publishClear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        if (!remoteAvailable()) {
+            boolean present = local.estimatedSize() > 0;
+            clearLocalOnly();
+            return present;
+        }
+        boolean present = remote(remote::invalidate);
+        local.invalidateAll();
+        publishClear();
+        return present;
+    }
+
+    /**
+     * Look up many keys at once: L1 first, then a single MGET for the rest.
+     *
+     * @return Only the keys that were cached
+     */
+    public <K> Map<K, Object> getAll(Collection<K> keys) {
+        Map<K, Object> found = new HashMap<>();
+        Map<String, K> remoteKeys = new HashMap<>();
+        for (K key : keys) {
+            String localKey = localKey(key);
+            recordRead(localKey);
+            Object value = local.getIfPresent(localKey);
+            if (value != null) {
+                l1Hits.increment();
+                found.put(key, value);
+            } else {
+                l1Misses.increment();
+                remoteKeys.put(localKey, key);
+            }
+        }
+        if (remoteKeys.isEmpty() || !remoteAvailable()) {
+            return found;
+        }
+
+        Map<String, Object> remoteHits = remote(() -> multiKey != null
+            ? multiKey.getAll(new ArrayList<>(remoteKeys.keySet()))
+            : getEach(remoteKeys));
+        remoteKeys.forEach((localKey, key) -> {
+            Object value = remoteHits.get(localKey);
+            if (value == null) {
+                l2Misses.increment();
+                return;
+            }
+            l2Hits.increment();
+            local.put(localKey, value);
+            found.put(key, value);
+        });
+        return found;
+    }
+
+    /**
+     * Write many entries at once: a single pipeline to L2, then L1.
+     */
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, Object> byLocalKey = new HashMap<>();
+        entries.forEach((key, value) -> byLocalKey.put(localKey(key), value));
+        if (!remoteAvailable()) {
+            byLocalKey.forEach(this::putLocalOnly);
+            return;
+        }
+
+        remote(() -> {
+            if (multiKey != null) {
+                multiKey.putAll(byLocalKey, tags(entries));
+            } else {
+                entries.forEach(remote::put);
+            }
+        });
+        byLocalKey.forEach((localKey, value) -> {
+            if (value != null) {
+                local.put(localKey, value);
+            } else {
+                local.invalidate(localKey);
+            }
+            publishEvict(localKey);
+        });
+    }
+
+    /**
+     * Evict every entry tagged with the tag, on every node.
+     *
+     * Needs the tag index in Redis: while Redis is skipped, or if the remote
+     * isn't Redis, the whole cache is cleared instead.
+     *
+     * @return Entries evicted, -1 if the cache was cleared
+     */
+    public int evictTag(String tag) {
+        if (multiKey == null) {
+            clear();
+            return -1;
+        }
+        if (!remoteAvailable()) {
+            clearLocalOnly();
+            return -1;
+        }
+        Set<String> evicted = remote(() -> multiKey.evictTag(tag));
+        evicted.forEach(key -> {
+            local.invalidate(key);
+            publishEvict(key);
+        });
+        return evicted.size();
+    }
+
+    /**
+     * Drop the local copy only. Used for invalidations from other nodes.
+     */
+    public void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    /**
+     * Drop every local copy only. Used for invalidations from other nodes.
+     */
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Evict from Redis whatever was written locally while it was skipped,
+     * and tell other nodes. Runs before the circuit breaker closes and
+     * right after.
+     *
+     * Keys can be added while this runs: each is removed only once evicted,
+     * so one added behind the iteration stays for the next pass. Once the
+     * breaker is closed, passes repeat until none are left.
+     */
+    void replayPendingEvictions() {
+        if (pendingClear) {
+            pendingClear = false;
+            pendingEvictions.clear();  // Covered by the clear; keys added from here on are not
+            try {
+                remote.clear();
+            } catch (RuntimeException e) {
+                pendingClear = true;
+                throw e;
+            }
+            publishClear();
+        }
+        do {
+            for (String key : pendingEvictions) {
+                remote.evict(key);
+                pendingEvictions.remove(key);
+                publishEvict(key);
+            }
+        } while (!pendingEvictions.isEmpty() && breakerClosed());
+    }
+
+    // After the value is in Redis: a tagged key is always one that can be evicted
+    private void tag(Object key, Object value) {
+        if (tagger == null || multiKey == null) {
+            return;
+        }
+        Set<String> tags = tagger.tags(key, value);
+        if (!tags.isEmpty()) {
+            remote(() -> multiKey.tag(localKey(key), value, tags));
+        }
+    }
+
+    private Map<String, Set<String>> tags(Map<?, ?> entries) {
+        if (tagger == null) {
+            return Map.of();
+        }
+        Map<String, Set<String>> tags = new HashMap<>();
+        entries.forEach((key, value) -> {
+            if (value != null) {
+                tags.put(localKey(key), tagger.tags(key, value));
+            }
+        });
+        return tags;
+    }
+
+    private boolean remoteAvailable() {
+        return breaker == null || breaker.allowRequest();
+    }
+
+    private <T> T remote(Supplier<T> call) {
+        return breaker != null ? breaker.execute(call) : call.get();
+    }
+
+    private void remote(Runnable call) {
+        if (breaker != null) {
+            breaker.run(call);
+        } else {
+            call.run();
+        }
+    }
+
+    // Redis is being skipped: L1 only, Redis is fixed up when it is back
+    private void putLocalOnly(String localKey, Object value) {
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        if (!pendingClear) {
+            pendingEvictions.add(localKey);
+            if (pendingEvictions.size() > MAX_PENDING_EVICTIONS) {
+                pendingClear = true;  // Too many to track: clear the whole cache instead
+            }
+        }
+        replayIfClosed();
+    }
+
+    private void clearLocalOnly() {
+        local.invalidateAll();
+        pendingClear = true;
+        replayIfClosed();
+    }
+
+    // The breaker closed after this write checked it: the after-close pass may have missed it
+    private void replayIfClosed() {
+        if (breakerClosed()) {
+            replayPendingEvictions();
+        }
+    }
+
+    private boolean breakerClosed() {
+        return breaker != null && breaker.state() == RedisCircuitBreaker.State.CLOSED;
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // Remote without multi-key support: one lookup per key
+    private Map<String, Object> getEach(Map<String, ?> keys) {
+        Map<String, Object> found = new HashMap<>();
+        keys.forEach((localKey, key) -> {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                found.put(localKey, wrapper.get());
+            }
+        });
+        return found;
+    }
+
+    private void recordRead(String localKey) {
+        if (hotKeys != null) {
+            hotKeys.record(hotKeyPrefix, localKey);
+        }
+    }
+
+    private void publishEvict(String key) {
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(name, key);
+        }
+    }
+
+    private void publishClear() {
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(name);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return key instanceof String s ? s : String.valueOf(key);
+    }
+
+    private Counter counter(MeterRegistry registry, String meter, String result) {
+        return Counter.builder(meter)
+            .tag("cache", name)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static double ratio(Counter hits, Counter misses) {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
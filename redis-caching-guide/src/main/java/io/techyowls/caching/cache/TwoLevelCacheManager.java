@@ -0,0 +1,135 @@
+package io.techyowls.caching.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager that wraps every Redis cache in a {@link TwoLevelCache}.
+ *
+ * L1 entries expire after the smaller of the near-cache TTL and the cache's
+ * Redis TTL, so a local copy never outlives the entry it was read from.
+ *
+ * When an invalidation bus is given, writes are broadcast to other nodes
+ * and their invalidations are applied to the local tier here.
+ *
+ * When a connection factory is given, caches get MGET / pipelined
+ * multi-key access to Redis (see {@link TwoLevelCache#getAll}).
+ *
+ * When a hot-key detector is given, every cache read is counted by it.
+ *
+ * Caches with a {@link CacheTagger} index their entries under its tags in
+ * Redis, so they can be evicted by tag.
+ *
+ * When a circuit breaker is given, caches skip Redis while it is open, and
+ * the writes they made meanwhile are evicted from Redis before it closes.
+ */
+public class TwoLevelCacheManager implements CacheManager, InitializingBean {
+
+    private final RedisCacheManager remote;
+    private final RedisConnectionFactory connectionFactory;
+    private final Map<String, Duration> remoteTtls;
+    private final Duration defaultRemoteTtl;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final CacheInvalidationBus invalidationBus;
+    private final HotKeyDetector hotKeys;
+    private final RedisCircuitBreaker breaker;
+    private final Map<String, CacheTagger> taggers;
+    private final MeterRegistry registry;
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager remote,
+                                RedisConnectionFactory connectionFactory,
+                                Map<String, Duration> remoteTtls,
+                                Duration defaultRemoteTtl,
+                                long localMaximumSize,
+                                Duration localTtl,
+                                CacheInvalidationBus invalidationBus,
+                                HotKeyDetector hotKeys,
+                                RedisCircuitBreaker breaker,
+                                Map<String, CacheTagger> taggers,
+                                MeterRegistry registry) {
+        this.remote = remote;
+        this.connectionFactory = connectionFactory;
+        this.remoteTtls = Map.copyOf(remoteTtls);
+        this.defaultRemoteTtl = defaultRemoteTtl;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.invalidationBus = invalidationBus;
+        this.hotKeys = hotKeys;
+        this.breaker = breaker;
+        this.taggers = Map.copyOf(taggers);
+        this.registry = registry;
+        if (invalidationBus != null) {
+            invalidationBus.onInvalidation(this::applyRemoteInvalidation);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Loads the per-cache Redis configurations (TTLs)
+        remote.afterPropertiesSet();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = remote.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> createCache(n, redisCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * Drop local copies changed on another node. Redis is not touched.
+     */
+    void applyRemoteInvalidation(CacheInvalidation invalidation) {
+        TwoLevelCache cache = caches.get(invalidation.cache());
+        if (cache == null) {
+            return;  // Nothing cached locally yet
+        }
+        if (invalidation.clear()) {
+            cache.clearLocal();
+        } else {
+            invalidation.keys().forEach(cache::evictLocal);
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache redisCache) {
+        Duration remoteTtl = remoteTtls.getOrDefault(name, defaultRemoteTtl);
+        Duration ttl = localTtl.compareTo(remoteTtl) < 0 ? localTtl : remoteTtl;
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+
+        RedisMultiKeyOperations multiKey = connectionFactory != null && redisCache instanceof RedisCache rc
+            ? new RedisMultiKeyOperations(name, connectionFactory, rc.getCacheConfiguration())
+            : null;
+
+        return new TwoLevelCache(name, local, redisCache, multiKey, invalidationBus, hotKeys, breaker,
+            taggers.get(name), registry);
+    }
+}
@@ -5,33 +5,97 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.techyowls.caching.cache.CacheInvalidationBus;
+import io.techyowls.caching.cache.CircuitBreakerProperties;
+import io.techyowls.caching.cache.CompactRedisSerializer;
+import io.techyowls.caching.cache.HotKeyDetector;
+import io.techyowls.caching.cache.HotKeysEndpoint;
+import io.techyowls.caching.cache.RedisCircuitBreaker;
+import io.techyowls.caching.cache.TwoLevelCacheManager;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.model.ProductIds;
+import io.techyowls.caching.service.ProductCacheTags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.interceptor.CacheErrorHandler;
-import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Redis configuration with:
  * - JSON serialization (human-readable, debuggable)
+ * - Compact binary serialization for selected caches
  * - Per-cache TTL configuration
+ * - In-process L1 (Caffeine) in front of Redis
+ * - Cross-node L1 invalidation over pub/sub
+ * - Tag index for the products cache (evict by category / product)
+ * - Hot-key detection
+ * - Circuit breaker: skip Redis while it is down or slow
  * - Error handling
  */
 @Configuration
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
 public class RedisConfig implements CachingConfigurer {
 
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    // Per-cache TTL configuration
+    private static final Map<String, Duration> CACHE_TTLS = Map.of(
+        "products", Duration.ofMinutes(30),
+        "users", Duration.ofHours(1),
+        "prices", Duration.ofMinutes(5)  // Short TTL for volatile data
+    );
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${cache.near.ttl:60s}")
+    private Duration nearCacheTtl;
+
+    @Value("${cache.compact-serialization.caches:}")
+    private Set<String> compactCaches;
+
+    @Value("${cache.compact-serialization.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${cache.invalidation.flush-interval:10ms}")
+    private Duration invalidationFlushInterval;
+
+    @Value("${cache.invalidation.max-batch-size:500}")
+    private int invalidationMaxBatchSize;
+
+    @Value("${cache.hot-keys.threshold:500}")
+    private double hotKeyThreshold;
+
+    @Value("${cache.hot-keys.decay-interval:1s}")
+    private Duration hotKeyDecayInterval;
+
+    @Value("${cache.hot-keys.max-keys:100}")
+    private int maxHotKeys;
+
+    @Value("${cache.hot-keys.sampling:8}")
+    private int hotKeySampling;
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -50,46 +114,110 @@ public class RedisConfig implements CachingConfigurer {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBus invalidationBus,
+                                     HotKeyDetector hotKeyDetector,
+                                     RedisCircuitBreaker circuitBreaker,
+                                     MeterRegistry meterRegistry) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper());
+
         // Default config
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(10))
+            .entryTtl(DEFAULT_TTL)
             .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
-                new GenericJackson2JsonRedisSerializer(objectMapper())))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
             .disableCachingNullValues();
 
-        // Per-cache TTL configuration
+        // Binary values for the caches listed in cache.compact-serialization.caches
+        RedisSerializationContext.SerializationPair<Object> compactValues =
+            RedisSerializationContext.SerializationPair.fromSerializer(compactSerializer(jsonSerializer));
+
         Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
-        cacheConfigs.put("products", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigs.put("users", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigs.put("prices", defaultConfig.entryTtl(Duration.ofMinutes(5)));  // Short TTL for volatile data
+        CACHE_TTLS.forEach((name, ttl) -> cacheConfigs.put(name, defaultConfig.entryTtl(ttl)));
+        for (String name : compactCaches) {
+            cacheConfigs.put(name, cacheConfigs.getOrDefault(name, defaultConfig).serializeValuesWith(compactValues));
+        }
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigs)
             .build();
+
+        // L1 in front of every Redis cache, bounded in size and never outliving the Redis TTL
+        return new TwoLevelCacheManager(
+            redisCacheManager, connectionFactory, CACHE_TTLS, DEFAULT_TTL,
+            nearCacheMaximumSize, nearCacheTtl, invalidationBus, hotKeyDetector, circuitBreaker,
+            Map.of("products", new ProductCacheTags()), meterRegistry);
+    }
+
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(RedisConnectionFactory connectionFactory,
+                                                   CircuitBreakerProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker(connectionFactory, properties, meterRegistry);
+    }
+
+    @Bean
+    public HotKeyDetector hotKeyDetector(MeterRegistry meterRegistry) {
+        return new HotKeyDetector(hotKeyThreshold, hotKeyDecayInterval, maxHotKeys, hotKeySampling, meterRegistry);
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(HotKeyDetector hotKeyDetector) {
+        return new HotKeysEndpoint(hotKeyDetector);
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                                     MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(stringRedisTemplate,
+            invalidationFlushInterval, invalidationMaxBatchSize, meterRegistry);
+    }
+
+    /**
+     * Shared pub/sub subscriber: cache invalidations, lock release notifications.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
     }
 
     /**
      * Graceful degradation - if Redis is down, app keeps working.
+     *
+     * Get/put errors are logged and the call goes on without the cache. Only calls
+     * made before the circuit breaker opens get here: after that, caches
+     * don't call Redis at all.
      */
     @Override
     public CacheErrorHandler errorHandler() {
-        return new SimpleCacheErrorHandler() {
+        return new LoggingCacheErrorHandler() {
+            // A lost evict leaves stale data in Redis: fail the call instead
             @Override
-            public void handleCacheGetError(RuntimeException exception, org.springframework.cache.Cache cache, Object key) {
-                // Log and continue without cache
-                System.err.println("Cache get error: " + exception.getMessage());
+            public void handleCacheEvictError(RuntimeException exception, org.springframework.cache.Cache cache, Object key) {
+                throw exception;
             }
 
             @Override
-            public void handleCachePutError(RuntimeException exception, org.springframework.cache.Cache cache, Object key, Object value) {
-                System.err.println("Cache put error: " + exception.getMessage());
+            public void handleCacheClearError(RuntimeException exception, org.springframework.cache.Cache cache) {
+                throw exception;
             }
         };
     }
 
+    /**
+     * Type ids are persisted with every entry: only ever append new ones.
+     */
+    private RedisSerializer<Object> compactSerializer(RedisSerializer<Object> fallback) {
+        return new CompactRedisSerializer(fallback, compressionThreshold)
+            .register(1, Product.class)
+            .register(2, ProductIds.class);
+    }
+
     private ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
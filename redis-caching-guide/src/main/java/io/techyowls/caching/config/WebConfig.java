@@ -0,0 +1,33 @@
+package io.techyowls.caching.config;
+
+import io.techyowls.caching.ratelimit.RateLimitInterceptor;
+import io.techyowls.caching.ratelimit.RateLimitProperties;
+import io.techyowls.caching.ratelimit.RedisRateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web configuration: rate limits on the API.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RedisRateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+
+    public WebConfig(RedisRateLimiter rateLimiter, RateLimitProperties rateLimitProperties) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (rateLimitProperties.enabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, rateLimitProperties))
+                .addPathPatterns("/api/**");
+        }
+    }
+}
@@ -2,12 +2,14 @@ package io.techyowls.caching.controller;
 
 import io.techyowls.caching.model.Product;
 import io.techyowls.caching.service.ProductService;
+import io.techyowls.caching.warmup.ProductAccessLog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -15,11 +17,15 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductAccessLog accessLog;
 
     @GetMapping("/{id}")
     public ResponseEntity<Product> getById(@PathVariable Long id) {
         return productService.findById(id)
-            .map(ResponseEntity::ok)
+            .map(product -> {
+                accessLog.record(id);  // Feeds the startup warm-up; misses would crowd out hot products
+                return ResponseEntity.ok(product);
+            })
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -45,12 +51,28 @@ public class ProductController {
         return productService.update(product);
     }
 
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<Product> updateStock(@PathVariable Long id, @RequestParam int quantity) {
+        return productService.updateStock(id, quantity)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
         productService.deleteById(id);
     }
 
+    /**
+     * Evict by tag, e.g. after a bulk import:
+     * POST /api/products/cache/invalidate?tag=category:books&tag=product:42
+     */
+    @PostMapping("/cache/invalidate")
+    public Map<String, Integer> invalidateCache(@RequestParam("tag") List<String> tags) {
+        return Map.of("evicted", productService.invalidate(tags));
+    }
+
     @PostMapping("/cache/clear")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void clearCache() {
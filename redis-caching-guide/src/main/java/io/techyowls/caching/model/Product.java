@@ -12,7 +12,7 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "products")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product implements Serializable {
@@ -0,0 +1,24 @@
+package io.techyowls.caching.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A cached list query result, stored as IDs only.
+ * The products themselves live in their per-ID cache entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductIds implements Serializable {
+
+    private List<Long> ids;
+
+    public static ProductIds of(List<Product> products) {
+        return new ProductIds(products.stream().map(Product::getId).toList());
+    }
+}
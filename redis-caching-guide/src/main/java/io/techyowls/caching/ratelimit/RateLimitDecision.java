@@ -0,0 +1,19 @@
+package io.techyowls.caching.ratelimit;
+
+/**
+ * Outcome of one rate limit check.
+ *
+ * @param allowed      Whether the request may proceed
+ * @param remaining    Requests left right now (0 when rejected)
+ * @param retryAfterMs When a rejected request may be retried (0 when allowed)
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterMs) {
+
+    static RateLimitDecision allowed(long remaining) {
+        return new RateLimitDecision(true, remaining, 0);
+    }
+
+    static RateLimitDecision rejected(long retryAfterMs) {
+        return new RateLimitDecision(false, 0, retryAfterMs);
+    }
+}
@@ -0,0 +1,74 @@
+package io.techyowls.caching.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies rate limits per route and per client before the controller runs.
+ *
+ * Route is the HTTP method plus the handler mapping pattern
+ * ("GET /api/products/{id}"), so /api/products/1 and /api/products/2 share
+ * one limit. Client is the authenticated principal if there is one, else
+ * the remote address. The client header is used instead of the remote
+ * address only with rate-limit.trust-client-header, i.e. when a gateway in
+ * front sets it: clients can send any value, and a new value would be a
+ * fresh budget (or burn someone else's).
+ *
+ * Rejected requests get 429 with Retry-After.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RedisRateLimiter rateLimiter;
+    private final String clientHeader;  // null: not trusted
+    private final RateLimitPolicy defaultPolicy;
+    private final Map<String, RateLimitPolicy> routePolicies = new HashMap<>();
+
+    public RateLimitInterceptor(RedisRateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = properties.trustClientHeader() ? properties.clientHeader() : null;
+        this.defaultPolicy = properties.defaults();
+        for (RateLimitProperties.Route route : properties.routes()) {
+            routePolicies.put(route.method().toUpperCase() + " " + route.pattern(), route.policy());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String route = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RateLimitPolicy policy = routePolicies.getOrDefault(route, defaultPolicy);
+        if (policy == null) {
+            return true;
+        }
+
+        RateLimitDecision decision = rateLimiter.tryAcquire(route + ":" + client(request), policy);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(policy.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        if (decision.allowed()) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.ceilDiv(decision.retryAfterMs(), 1000)));
+        return false;
+    }
+
+    private String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String client = clientHeader != null ? request.getHeader(clientHeader) : null;
+        return client != null && !client.isBlank() ? "client:" + client : "addr:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,35 @@
+package io.techyowls.caching.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * How many requests a client may make to a route.
+ *
+ * @param algorithm How the limit is enforced
+ * @param limit     Requests per window (token bucket: bucket capacity)
+ * @param window    Sliding window length (token bucket: time to refill a full bucket)
+ */
+public record RateLimitPolicy(Algorithm algorithm, int limit, Duration window) {
+
+    public enum Algorithm {
+        /**
+         * Exact count of requests in the last window (sorted set of timestamps).
+         * Memory grows with the limit.
+         */
+        SLIDING_WINDOW,
+
+        /**
+         * Smooth refill, allows bursts up to the capacity (two hash fields).
+         */
+        TOKEN_BUCKET
+    }
+
+    public RateLimitPolicy {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        if (window == null || window.toMillis() <= 0) {
+            throw new IllegalArgumentException("window must be at least 1ms: " + window);
+        }
+    }
+}
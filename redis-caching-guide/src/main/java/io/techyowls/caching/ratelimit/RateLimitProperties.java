@@ -0,0 +1,37 @@
+package io.techyowls.caching.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * rate-limit.* settings.
+ *
+ * @param enabled           Turn the interceptor off entirely
+ * @param clientHeader      Header identifying the client, set by a trusted gateway
+ * @param trustClientHeader Key unauthenticated requests on clientHeader instead of the
+ *                          remote address; only when a gateway sets (and overwrites) it
+ * @param defaults          Policy for routes not listed below, none if unset
+ * @param routes            Per-route policies
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("X-Client-Id") String clientHeader,
+                                  @DefaultValue("false") boolean trustClientHeader,
+                                  RateLimitPolicy defaults,
+                                  @DefaultValue List<Route> routes) {
+
+    /**
+     * @param method  HTTP method
+     * @param pattern Handler mapping pattern, e.g. /api/products/{id}
+     */
+    public record Route(String method, String pattern,
+                        RateLimitPolicy.Algorithm algorithm, int limit, Duration window) {
+
+        public RateLimitPolicy policy() {
+            return new RateLimitPolicy(algorithm, limit, window);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.techyowls.caching.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide rate limiting with Redis.
+ *
+ * Each check is one atomic Lua script, timed by the Redis clock so nodes
+ * with skewed clocks still agree on the window.
+ *
+ * Local pre-check: when Redis rejects a key, this node remembers until
+ * when. Further requests for that key are rejected without a Redis call,
+ * so a client hammering an exhausted limit costs nothing but a map lookup.
+ *
+ * If Redis is unavailable, requests are allowed (fail open), the same
+ * trade-off the cache makes.
+ */
+@Service
+@Slf4j
+public class RedisRateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    // ZSET of request timestamps: drop the ones outside the window, then count
+    private static final RedisScript<List> SLIDING_WINDOW = new DefaultRedisScript<>("""
+        local time = redis.call('TIME')
+        local now = time[1] * 1000 + math.floor(time[2] / 1000)
+        local window = tonumber(ARGV[1])
+        local limit = tonumber(ARGV[2])
+        redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+        local count = redis.call('ZCARD', KEYS[1])
+        if count < limit then
+            redis.call('ZADD', KEYS[1], now, ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], window)
+            return {1, limit - count - 1, 0}
+        end
+        local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+        return {0, 0, tonumber(oldest[2]) + window - now}
+        """, List.class);
+
+    // HASH {tokens, ts}: refill for the time elapsed, then take one token
+    private static final RedisScript<List> TOKEN_BUCKET = new DefaultRedisScript<>("""
+        local time = redis.call('TIME')
+        local now = time[1] * 1000 + math.floor(time[2] / 1000)
+        local window = tonumber(ARGV[1])
+        local capacity = tonumber(ARGV[2])
+        local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(state[1]) or capacity
+        local ts = tonumber(state[2]) or now
+        tokens = math.min(capacity, tokens + (now - ts) * capacity / window)
+        local allowed = 0
+        local retry = 0
+        if tokens >= 1 then
+            tokens = tokens - 1
+            allowed = 1
+        else
+            retry = math.ceil((1 - tokens) * window / capacity)
+        end
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+        redis.call('PEXPIRE', KEYS[1], window)
+        return {allowed, math.floor(tokens), retry}
+        """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Key -> epoch millis until which Redis already said no
+    private final Cache<String, Long> blockedUntil = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .build();
+
+    // Sliding window members must be unique across nodes
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter rejectedLocally;
+    private final Counter errors;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+
+        this.allowed = counter(meterRegistry, "allowed");
+        this.rejected = counter(meterRegistry, "rejected");
+        this.rejectedLocally = counter(meterRegistry, "rejected_local");
+        this.errors = counter(meterRegistry, "error");
+    }
+
+    /**
+     * Take one request from the limit for this key.
+     *
+     * @param key    What is being limited, e.g. route + client
+     * @param policy Limit to apply
+     */
+    public RateLimitDecision tryAcquire(String key, RateLimitPolicy policy) {
+        String redisKey = KEY_PREFIX + policy.algorithm().name().toLowerCase() + ":" + key;
+
+        Long until = blockedUntil.getIfPresent(redisKey);
+        if (until != null) {
+            long wait = until - System.currentTimeMillis();
+            if (wait > 0) {
+                rejectedLocally.increment();
+                return RateLimitDecision.rejected(wait);
+            }
+            blockedUntil.invalidate(redisKey);
+        }
+
+        List<Long> result;
+        try {
+            result = execute(redisKey, policy);
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("Rate limit check failed for {}, allowing request: {}", key, e.getMessage());
+            return RateLimitDecision.allowed(policy.limit());
+        }
+
+        if (result.get(0) == 1) {
+            allowed.increment();
+            return RateLimitDecision.allowed(result.get(1));
+        }
+        rejected.increment();
+        long retryAfterMs = Math.max(1, result.get(2));
+        blockedUntil.put(redisKey, System.currentTimeMillis() + retryAfterMs);
+        return RateLimitDecision.rejected(retryAfterMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> execute(String redisKey, RateLimitPolicy policy) {
+        String window = String.valueOf(policy.window().toMillis());
+        String limit = String.valueOf(policy.limit());
+        return switch (policy.algorithm()) {
+            case SLIDING_WINDOW -> redisTemplate.execute(SLIDING_WINDOW, List.of(redisKey),
+                window, limit, nodeId + ":" + sequence.incrementAndGet());
+            case TOKEN_BUCKET -> redisTemplate.execute(TOKEN_BUCKET, List.of(redisKey), window, limit);
+        };
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("ratelimit.decisions")
+            .tag("result", result)
+            .register(registry);
+    }
+}
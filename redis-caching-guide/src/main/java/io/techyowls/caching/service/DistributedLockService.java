@@ -1,12 +1,36 @@
 package io.techyowls.caching.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
@@ -15,31 +39,166 @@ import java.util.function.Supplier;
  * Use cases:
  * - Prevent thundering herd on cache miss
  * - Ensure only one instance runs a scheduled job
- * - Rate limiting
+ *
+ * (Rate limiting has its own scripts: see RedisRateLimiter.)
+ *
+ * Each acquisition is a lease:
+ * - The lock value is a random owner token, so only the owner can release it
+ * - Release is compare-and-delete in Lua, never a blind DEL
+ * - A watchdog extends the lease while a long task is still running
+ * - Every acquisition gets a fencing token that only ever goes up, so a
+ *   downstream store can reject writes from a holder whose lease expired.
+ *   The counter expires after FENCE_TTL without acquisitions (there is one
+ *   per cache key); a new one starts at Redis TIME in microseconds, so
+ *   tokens keep going up across expiry
+ * - Releases are published, so waiters wake up instead of polling
+ * - Waiters in the same JVM queue locally, so only one of them at a time
+ *   competes for the Redis lock
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class DistributedLockService {
+public class DistributedLockService implements MessageListener {
+
+    private static final String LOCK_PREFIX = "lock:";
+    private static final String FENCE_PREFIX = "lock-fence:";
+    private static final String WAITERS_PREFIX = "lock-waiters:";
+    private static final String RELEASED_PREFIX = "lock-released:";
+    private static final Duration FENCE_TTL = Duration.ofDays(1);
+
+    // SET NX PX, then hand out the next fencing token (ARGV[4] = fence TTL).
+    // On failure, a caller that is going to wait flags itself (ARGV[3] = flag TTL, 0 = not waiting).
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+        if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+            if redis.call('exists', KEYS[2]) == 0 then
+                local now = redis.call('time')
+                redis.call('set', KEYS[2], now[1] .. string.rep('0', 6 - #now[2]) .. now[2])
+            end
+            local fence = redis.call('incr', KEYS[2])
+            redis.call('pexpire', KEYS[2], ARGV[4])
+            return fence
+        end
+        if tonumber(ARGV[3]) > 0 then
+            redis.call('set', KEYS[3], '1', 'PX', ARGV[3])
+        end
+        return 0
+        """, Long.class);
+
+    // Delete only if we still own it, then wake waiters (if anyone is waiting)
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+        if redis.call('get', KEYS[1]) == ARGV[1] then
+            redis.call('del', KEYS[1])
+            if redis.call('exists', KEYS[2]) == 1 then
+                redis.call('publish', ARGV[2], '1')
+            end
+            return 1
+        end
+        return 0
+        """, Long.class);
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    // Extend only if we still own it
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+        if redis.call('get', KEYS[1]) == ARGV[1] then
+            return redis.call('pexpire', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Completed when a release for the key is published
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> releaseSignals = new ConcurrentHashMap<>();
+
+    // Local FIFO queue per key for executeWithLockAndRetry, removed when unused
+    private final ConcurrentHashMap<String, LocalGate> localGates = new ConcurrentHashMap<>();
+
+    private record LocalGate(Semaphore permit, AtomicInteger users) {
+    }
+
+    // Only ticks: renewals run on virtual threads, so one slow renewal
+    // doesn't hold up the other leases'
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService renewals = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter acquired;
+    private final Counter contended;
+    private final Counter leaseLost;
+
+    public DistributedLockService(StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new PatternTopic(RELEASED_PREFIX + "*"));
+
+        this.acquired = Counter.builder("lock.attempts").tag("result", "acquired").register(meterRegistry);
+        this.contended = Counter.builder("lock.attempts").tag("result", "contended").register(meterRegistry);
+        this.leaseLost = Counter.builder("lock.lease.lost")
+            .description("Renewals that found the lock owned by someone else")
+            .register(meterRegistry);
+    }
+
+    /**
+     * A held lock.
+     *
+     * @param lockKey      Key passed to tryLock
+     * @param ownerToken   Random value stored in Redis, proves ownership
+     * @param fencingToken Increases with every acquisition of this key
+     */
+    public record Lease(String lockKey, String ownerToken, long fencingToken) {
+    }
 
     /**
-     * Simple distributed lock.
+     * Try to acquire the lock once.
      *
      * @param lockKey Unique key for this lock
-     * @param ttl How long to hold the lock
-     * @return true if lock acquired
+     * @param ttl How long to hold the lock unless renewed
+     * @return the lease if acquired
      */
-    public boolean tryLock(String lockKey, Duration ttl) {
-        String key = "lock:" + lockKey;
-        Boolean success = redisTemplate.opsForValue()
-            .setIfAbsent(key, "locked", ttl);
-        return Boolean.TRUE.equals(success);
+    public Optional<Lease> tryLock(String lockKey, Duration ttl) {
+        return tryLock(lockKey, ttl, 0);
+    }
+
+    private Optional<Lease> tryLock(String lockKey, Duration ttl, long waitMs) {
+        String ownerToken = UUID.randomUUID().toString();
+        Long fencingToken = redisTemplate.execute(ACQUIRE,
+            List.of(LOCK_PREFIX + lockKey, FENCE_PREFIX + lockKey, WAITERS_PREFIX + lockKey),
+            ownerToken, String.valueOf(ttl.toMillis()), String.valueOf(waitMs), String.valueOf(FENCE_TTL.toMillis()));
+
+        if (fencingToken == null || fencingToken == 0) {
+            contended.increment();
+            return Optional.empty();
+        }
+        acquired.increment();
+        return Optional.of(new Lease(lockKey, ownerToken, fencingToken));
     }
 
-    public void unlock(String lockKey) {
-        redisTemplate.delete("lock:" + lockKey);
+    /**
+     * Release the lock if this lease still owns it.
+     *
+     * @return false if the lease had already expired (and maybe been taken by someone else)
+     */
+    public boolean unlock(Lease lease) {
+        Long released = redisTemplate.execute(RELEASE,
+            List.of(LOCK_PREFIX + lease.lockKey(), WAITERS_PREFIX + lease.lockKey()),
+            lease.ownerToken(), RELEASED_PREFIX + lease.lockKey());
+        if (released == null || released == 0) {
+            log.warn("Lock {} expired before release (fencing token {})", lease.lockKey(), lease.fencingToken());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Extend the lease if this lease still owns it.
+     */
+    public boolean renew(Lease lease, Duration ttl) {
+        Long renewed = redisTemplate.execute(RENEW,
+            List.of(LOCK_PREFIX + lease.lockKey()),
+            lease.ownerToken(), String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed == 1;
     }
 
     /**
@@ -51,41 +210,169 @@ public class DistributedLockService {
     public <T> T executeWithLock(String lockKey, Duration lockTtl,
                                   Supplier<T> onLockAcquired,
                                   Supplier<T> onLockNotAcquired) {
-        if (tryLock(lockKey, lockTtl)) {
-            try {
-                log.debug("Lock acquired: {}", lockKey);
-                return onLockAcquired.get();
-            } finally {
-                unlock(lockKey);
-                log.debug("Lock released: {}", lockKey);
-            }
-        } else {
-            log.debug("Lock not acquired, using fallback: {}", lockKey);
-            return onLockNotAcquired.get();
+        Optional<Lease> lease = tryLock(lockKey, lockTtl);
+        if (lease.isPresent()) {
+            log.debug("Lock acquired: {} (fencing token {})", lockKey, lease.get().fencingToken());
+            return runHolding(lease.get(), lockTtl, onLockAcquired);
         }
+        log.debug("Lock not acquired, using fallback: {}", lockKey);
+        return onLockNotAcquired.get();
     }
 
     /**
      * Execute with retry - waits for lock if not immediately available.
+     *
+     * Callers in this JVM first line up behind a local per-key permit, so
+     * only the head of the line talks to Redis. Between attempts it parks
+     * until the holder publishes its release, or at most {@code retryDelayMs}
+     * (covers holders that crash and let the lease expire).
      */
     public <T> T executeWithLockAndRetry(String lockKey, Duration lockTtl,
                                           int maxRetries, long retryDelayMs,
                                           Supplier<T> task) {
+        LocalGate gate = localGates.compute(lockKey, (k, existing) -> {
+            LocalGate g = existing != null ? existing : new LocalGate(new Semaphore(1, true), new AtomicInteger());
+            g.users().incrementAndGet();
+            return g;
+        });
+        try {
+            long maxWaitMs = maxRetries * retryDelayMs;
+            if (!gate.permit().tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Failed to acquire lock after " + maxRetries + " attempts");
+            }
+            try {
+                return acquireAndRun(lockKey, lockTtl, maxRetries, retryDelayMs, task);
+            } finally {
+                gate.permit().release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Lock acquisition interrupted", e);
+        } finally {
+            localGates.computeIfPresent(lockKey, (k, g) -> g.users().decrementAndGet() == 0 ? null : g);
+        }
+    }
+
+    private <T> T acquireAndRun(String lockKey, Duration lockTtl,
+                                int maxRetries, long retryDelayMs,
+                                Supplier<T> task) {
         for (int i = 0; i < maxRetries; i++) {
-            if (tryLock(lockKey, lockTtl)) {
-                try {
-                    return task.get();
-                } finally {
-                    unlock(lockKey);
+            // Taken before the attempt so a release in between isn't missed;
+            // only one thread per key gets here (local gate)
+            CompletableFuture<Void> released = releaseSignals.computeIfAbsent(lockKey, k -> new CompletableFuture<>());
+            Optional<Lease> lease;
+            try {
+                // Flag outlives our park so the holder knows to publish its release
+                lease = tryLock(lockKey, lockTtl, retryDelayMs * 2);
+                if (lease.isEmpty()) {
+                    awaitRelease(released, retryDelayMs);
                 }
+            } finally {
+                releaseSignals.remove(lockKey, released);
             }
-            try {
-                TimeUnit.MILLISECONDS.sleep(retryDelayMs);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Lock acquisition interrupted", e);
+            if (lease.isPresent()) {
+                return runHolding(lease.get(), lockTtl, task);
             }
         }
         throw new RuntimeException("Failed to acquire lock after " + maxRetries + " attempts");
     }
+
+    private static void awaitRelease(CompletableFuture<Void> released, long timeoutMs) {
+        try {
+            released.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Retry anyway: the holder may have expired without publishing
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Lock acquisition interrupted", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        CompletableFuture<Void> released = releaseSignals.remove(channel.substring(RELEASED_PREFIX.length()));
+        if (released != null) {
+            released.complete(null);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        renewals.shutdownNow();
+    }
+
+    /**
+     * Run the task while the watchdog keeps renewing the lease every ttl/3,
+     * each renewal on its own virtual thread. A renewal that fails (e.g.
+     * Redis briefly unreachable) is retried on the next tick until the
+     * lease would have expired. A tick that finds the previous renewal
+     * still running skips, and gives the lease up once it would have
+     * expired.
+     */
+    private <T> T runHolding(Lease lease, Duration ttl, Supplier<T> task) {
+        long period = Math.max(1, ttl.toMillis() / 3);
+        AtomicLong renewedAt = new AtomicLong(System.nanoTime());
+        AtomicBoolean renewing = new AtomicBoolean();
+        AtomicBoolean lost = new AtomicBoolean();
+        ScheduledFuture<?> renewal = watchdog.scheduleAtFixedRate(() -> {
+            if (lost.get()) {
+                throw new IllegalStateException("lease lost");  // Cancels further renewals
+            }
+            if (!renewing.compareAndSet(false, true)) {
+                if (System.nanoTime() - renewedAt.get() >= ttl.toNanos() && lost.compareAndSet(false, true)) {
+                    leaseLost.increment();
+                    log.warn("Renewal of lock {} still running when its lease expired (fencing token {})",
+                        lease.lockKey(), lease.fencingToken());
+                }
+                return;
+            }
+            renewals.execute(() -> {
+                try {
+                    if (!lost.get() && !renewOnce(lease, ttl, renewedAt) && lost.compareAndSet(false, true)) {
+                        leaseLost.increment();
+                    }
+                } finally {
+                    renewing.set(false);
+                }
+            });
+        }, period, period, TimeUnit.MILLISECONDS);
+
+        try {
+            return task.get();
+        } finally {
+            renewal.cancel(false);
+            unlock(lease);
+            log.debug("Lock released: {}", lease.lockKey());
+        }
+    }
+
+    /**
+     * @return false once the lease is lost: taken by someone else, or not
+     *         renewable before it expired
+     */
+    private boolean renewOnce(Lease lease, Duration ttl, AtomicLong renewedAt) {
+        boolean renewed;
+        try {
+            renewed = renew(lease, ttl);
+        } catch (RuntimeException e) {
+            if (System.nanoTime() - renewedAt.get() < ttl.toNanos()) {
+                log.debug("Renewal of lock {} failed, retrying: {}", lease.lockKey(), e.toString());
+                return true;
+            }
+            log.warn("Could not renew lock {} before its lease expired (fencing token {})",
+                lease.lockKey(), lease.fencingToken(), e);
+            return false;
+        }
+        if (!renewed) {
+            log.warn("Lost lock {} while task still running (fencing token {})",
+                lease.lockKey(), lease.fencingToken());
+            return false;
+        }
+        renewedAt.set(System.nanoTime());
+        return true;
+    }
 }
@@ -0,0 +1,52 @@
+package io.techyowls.caching.service;
+
+import io.techyowls.caching.cache.CacheTagger;
+import io.techyowls.caching.model.Product;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tags for the 'products' cache:
+ * - a product entry: product:ID, category:CAT
+ * - a 'category:CAT' list: category:CAT
+ * - a blob list (List<Product>): also product:ID for every product in it,
+ *   since it holds a copy of each. ID lists (ProductIds) don't: they read
+ *   products through their own entries, so product changes don't touch them
+ *
+ * So evicting product:ID drops the product and any copy of it, and
+ * evicting category:CAT drops the category's list and every product in it.
+ */
+public class ProductCacheTags implements CacheTagger {
+
+    private static final String CATEGORY_KEY = "category:";
+
+    public static String product(Long id) {
+        return "product:" + id;
+    }
+
+    public static String category(String category) {
+        return "category:" + category;
+    }
+
+    @Override
+    public Set<String> tags(Object key, Object value) {
+        Set<String> tags = new HashSet<>();
+        if (value instanceof Product product) {
+            tags.add(product(product.getId()));
+            if (product.getCategory() != null) {
+                tags.add(category(product.getCategory()));
+            }
+            return tags;
+        }
+
+        if (value instanceof List<?> products) {
+            products.forEach(p -> tags.add(product(((Product) p).getId())));
+        }
+        if (key instanceof String list && list.startsWith(CATEGORY_KEY)) {
+            tags.add(category(list.substring(CATEGORY_KEY.length())));
+        }
+        return tags;
+    }
+}
@@ -2,10 +2,14 @@ package io.techyowls.caching.service;
 
 import io.techyowls.caching.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategory(String category);
+
+    @Query("select distinct p.category from Product p where p.category is not null")
+    List<String> findDistinctCategories();
 }
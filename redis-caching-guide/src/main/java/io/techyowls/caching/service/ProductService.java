@@ -1,16 +1,28 @@
 package io.techyowls.caching.service;
 
+import io.techyowls.caching.cache.TwoLevelCache;
 import io.techyowls.caching.model.Product;
-import lombok.RequiredArgsConstructor;
+import io.techyowls.caching.model.ProductIds;
+import io.techyowls.caching.writebehind.StockWriteBehind;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service demonstrating Spring Cache annotations with Redis.
@@ -19,13 +31,34 @@ import java.util.Optional;
  * 1. Check cache for data
  * 2. If not found, fetch from DB
  * 3. Store in cache, return to caller
+ *
+ * Methods that use the cache directly rather than through annotations
+ * handle Redis errors the way the CacheErrorHandler does for annotated
+ * ones: a failed read is a miss, a failed write is logged and skipped.
+ * A failed evict is thrown, on purpose: the DB change is committed, but
+ * the entry it should have removed may now be stale, and the caller has
+ * to know.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    private static final String PRODUCTS = "products";
+
     private final ProductRepository repository;
+    private final CacheManager cacheManager;
+    private final boolean normalizedLists;
+    private final StockWriteBehind stockWriteBehind;
+
+    public ProductService(ProductRepository repository,
+                          CacheManager cacheManager,
+                          @Value("${cache.normalized-lists:true}") boolean normalizedLists,
+                          StockWriteBehind stockWriteBehind) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.normalizedLists = normalizedLists;
+        this.stockWriteBehind = stockWriteBehind;
+    }
 
     /**
      * @Cacheable - Cache the result
@@ -41,13 +74,14 @@ public class ProductService {
     }
 
     /**
-     * @Cacheable with custom key
+     * List query, cached under 'category:' + category (see {@link #cachedList})
      */
-    @Cacheable(value = "products", key = "'category:' + #category")
     public List<Product> findByCategory(String category) {
-        log.info("DB QUERY: Finding products by category: {}", category);
-        simulateSlowQuery();
-        return repository.findByCategory(category);
+        return cachedList("category:" + category, result -> true, () -> {
+            log.info("DB QUERY: Finding products by category: {}", category);
+            simulateSlowQuery();
+            return repository.findByCategory(category);
+        });
     }
 
     /**
@@ -62,36 +96,112 @@ public class ProductService {
     }
 
     /**
-     * @CacheEvict - Remove from cache
+     * Stock-only update, the hottest write path.
+     *
+     * Write-through by default. With cache.write-behind.enabled the change
+     * is queued in Redis and the cache updated; the DB catches up in
+     * batches (see {@link StockWriteBehind}). If Redis can't take the
+     * change, it is written through instead.
      *
-     * Use for deletes or when you want to force refresh.
+     * While write-behind is on, change stock only through here: a full
+     * update() can be overwritten by a stock change still in the queue.
+     */
+    public Optional<Product> updateStock(Long id, int stockQuantity) {
+        TwoLevelCache cache = productsCache();
+        Cache.ValueWrapper cached = cacheGet(cache, id);
+        Optional<Product> current = cached != null && cached.get() instanceof Product product
+            ? Optional.of(product)
+            : repository.findById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Cached instances are shared: update a copy
+        Product updated = current.get().toBuilder().stockQuantity(stockQuantity).build();
+        if (stockWriteBehind != null && stockWriteBehind.enabled() && queueStock(id, stockQuantity)) {
+            cachePut(() -> cache.put(id, updated));
+            return Optional.of(updated);
+        }
+        log.info("DB WRITE: Updating stock of product {}", id);
+        Product saved = repository.save(updated);
+        cachePut(() -> cache.put(id, saved));
+        return Optional.of(saved);
+    }
+
+    private boolean queueStock(Long id, int stockQuantity) {
+        try {
+            stockWriteBehind.updateStock(id, stockQuantity);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Write-behind unavailable, writing stock through: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Evicts the product and any blob list holding a copy of it (tag
+     * product:ID). ID lists skip it once it is gone.
      */
-    @CacheEvict(value = "products", key = "#id")
     public void deleteById(Long id) {
         log.info("DB DELETE: Removing product: {}", id);
         repository.deleteById(id);
+        productsCache().evictTag(ProductCacheTags.product(id));
     }
 
     /**
-     * @Caching - Multiple cache operations
-     *
      * When updating a product:
-     * 1. Update the product cache entry
-     * 2. Evict category caches (they're now stale)
+     * 1. If its category changed, evict the old and the new category's
+     *    lists (their membership changed). Other lists hold only its ID.
+     *    The old category comes from the cached entry, or the DB on a miss.
+     * 2. With blob lists, evict every list holding a copy (tag product:ID)
+     * 3. Cache the updated product, replacing the old entry
      */
-    @Caching(
-        put = @CachePut(value = "products", key = "#result.id"),
-        evict = @CacheEvict(value = "products", key = "'category:' + #product.category")
-    )
     public Product update(Product product) {
         log.info("DB UPDATE: Updating product: {}", product.getId());
-        return repository.save(product);
+        TwoLevelCache cache = productsCache();
+        Cache.ValueWrapper cached = cacheGet(cache, product.getId());
+        String oldCategory = cached != null && cached.get() instanceof Product old
+            ? old.getCategory()
+            : repository.findById(product.getId()).map(Product::getCategory).orElse(null);
+        Product saved = repository.save(product);
+        if (!Objects.equals(oldCategory, saved.getCategory())) {
+            if (oldCategory != null) {
+                cache.evict("category:" + oldCategory);
+            }
+            cache.evict("category:" + saved.getCategory());
+        }
+        if (!normalizedLists) {
+            cache.evictTag(ProductCacheTags.product(saved.getId()));
+        }
+        cachePut(() -> cache.put(saved.getId(), saved));
+        return saved;
+    }
+
+    /**
+     * Evict everything under the tags (see {@link ProductCacheTags}), e.g.
+     * category:X after a bulk import into category X. One SPOP + UNLINK
+     * per 500 entries, no keyspace scan.
+     *
+     * @return Entries evicted, -1 if the cache had to be cleared instead
+     */
+    public int invalidate(Collection<String> tags) {
+        TwoLevelCache cache = productsCache();
+        int evicted = 0;
+        for (String tag : tags) {
+            int count = cache.evictTag(tag);
+            if (count < 0) {
+                return -1;
+            }
+            evicted += count;
+        }
+        log.info("CACHE EVICT: {} entries tagged {}", evicted, tags);
+        return evicted;
     }
 
     /**
      * @CacheEvict with allEntries - Nuclear option
      *
-     * Clears entire cache. Use sparingly (e.g., bulk imports).
+     * Clears entire cache. For bulk imports, prefer {@link #invalidate}.
      */
     @CacheEvict(value = "products", allEntries = true)
     public void clearAllProducts() {
@@ -110,11 +220,109 @@ public class ProductService {
     /**
      * Condition - only cache expensive queries
      */
-    @Cacheable(value = "products", key = "'all'", condition = "#result.size() > 10")
     public List<Product> findAll() {
-        log.info("DB QUERY: Finding all products");
-        simulateSlowQuery();
-        return repository.findAll();
+        return cachedList("all", result -> result.size() > 10, () -> {
+            log.info("DB QUERY: Finding all products");
+            simulateSlowQuery();
+            return repository.findAll();
+        });
+    }
+
+    /**
+     * Batch lookup through the per-ID entries: one MGET, one findAllById
+     * for the misses. Unknown IDs are skipped.
+     */
+    public List<Product> findAllById(List<Long> ids) {
+        return resolve(productsCache(), ids);
+    }
+
+    /**
+     * List results are cached one of two ways (cache.normalized-lists):
+     *
+     * Normalized (default): the list entry holds only IDs. Products are read
+     * from their per-ID entries - the same ones findById uses - with one MGET.
+     * Misses are loaded with one findAllById and written back in one pipeline.
+     * A product is stored once no matter how many lists it's in, and updating
+     * it doesn't invalidate any list.
+     *
+     * Blob: the whole List<Product> is stored under the list key.
+     */
+    private List<Product> cachedList(String key, Predicate<List<Product>> cacheIf, Supplier<List<Product>> query) {
+        TwoLevelCache cache = productsCache();
+        Cache.ValueWrapper cached = cacheGet(cache, key);
+        Object value = cached != null ? cached.get() : null;
+
+        if (!normalizedLists) {
+            if (value instanceof List<?> products) {
+                return products.stream().map(Product.class::cast).toList();
+            }
+            List<Product> result = query.get();
+            if (cacheIf.test(result)) {
+                cachePut(() -> cache.put(key, result));
+            }
+            return result;
+        }
+
+        if (value instanceof ProductIds ids) {
+            return resolve(cache, ids.getIds());
+        }
+        List<Product> result = query.get();
+        if (cacheIf.test(result)) {
+            cachePut(() -> {
+                cache.put(key, ProductIds.of(result));
+                cache.putAll(byId(result));
+            });
+        }
+        return result;
+    }
+
+    private List<Product> resolve(TwoLevelCache cache, List<Long> ids) {
+        Map<Long, Object> found = cacheGetAll(cache, ids);
+
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            log.info("DB QUERY: Finding {} products by id", missing.size());
+            Map<Long, Product> loaded = byId(repository.findAllById(missing));
+            cachePut(() -> cache.putAll(loaded));
+            found.putAll(loaded);
+        }
+
+        // Deleted since the list was cached: skipped
+        return ids.stream().map(found::get).filter(Objects::nonNull).map(Product.class::cast).toList();
+    }
+
+    private static Cache.ValueWrapper cacheGet(TwoLevelCache cache, Object key) {
+        try {
+            return cache.get(key);
+        } catch (DataAccessException e) {
+            log.warn("Cache get failed for key {}, loading from the DB: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<Long, Object> cacheGetAll(TwoLevelCache cache, List<Long> ids) {
+        try {
+            return cache.getAll(ids);
+        } catch (DataAccessException e) {
+            log.warn("Cache getAll failed, loading {} products from the DB: {}", ids.size(), e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private static void cachePut(Runnable write) {
+        try {
+            write.run();
+        } catch (DataAccessException e) {
+            log.warn("Cache put failed, result not cached: {}", e.getMessage());
+        }
+    }
+
+    private TwoLevelCache productsCache() {
+        return (TwoLevelCache) cacheManager.getCache(PRODUCTS);
+    }
+
+    private static Map<Long, Product> byId(List<Product> products) {
+        return products.stream().collect(Collectors.toMap(Product::getId, product -> product));
     }
 
     private void simulateSlowQuery() {
@@ -1,11 +1,28 @@
 package io.techyowls.caching.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.techyowls.caching.cache.HotKeyDetector;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -18,18 +35,80 @@ import java.util.function.Supplier;
  *
  * The Solution:
  * Only ONE request refreshes the cache. Others wait or use stale data.
+ *
+ * Two layers:
+ * 1. In-JVM single-flight - concurrent misses for a key share one future
+ * 2. Redis lock - one leader per key across all nodes
+ *
+ * Keys the {@link HotKeyDetector} reports as hot are read from a local copy
+ * that lives for cache.hot-keys.local-ttl, so one node sends at most one
+ * read per hot key per TTL to Redis. Writes from this node replace the
+ * copy; writes from other nodes show up once it expires.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ThunderingHerdProtectedService {
 
+    // XFetch aggressiveness: > 1 refreshes earlier, < 1 later
+    private static final double XFETCH_BETA = 1.0;
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final DistributedLockService lockService;
+    private final HotKeyDetector hotKeys;
+
+    // Short-lived copies of hot keys
+    private final Cache<String, Object> hotCopies;
+
+    // One in-flight computation per key in this JVM
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter coalescedRequests;
+    private final Counter lockWonRequests;
+    private final Counter fallbackComputedRequests;
+
+    // Background refresh: virtual threads, bounded, one refresh per key
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore refreshPermits;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter refreshSucceeded;
+    private final Counter refreshFailed;
+    private final Counter refreshRejected;
+    private final Timer refreshLag;
+
+    public ThunderingHerdProtectedService(RedisTemplate<String, Object> redisTemplate,
+                                          DistributedLockService lockService,
+                                          HotKeyDetector hotKeys,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${cache.refresh.max-concurrency:16}") int maxConcurrentRefreshes,
+                                          @Value("${cache.hot-keys.local-ttl:1s}") Duration hotKeyLocalTtl) {
+        this.redisTemplate = redisTemplate;
+        this.lockService = lockService;
+        this.hotKeys = hotKeys;
+        this.hotCopies = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(hotKeyLocalTtl)
+            .build();
+        this.coalescedRequests = missCounter(meterRegistry, "coalesced");
+        this.lockWonRequests = missCounter(meterRegistry, "lock_won");
+        this.fallbackComputedRequests = missCounter(meterRegistry, "fallback_computed");
+
+        this.refreshPermits = new Semaphore(maxConcurrentRefreshes);
+        this.refreshSucceeded = refreshCounter(meterRegistry, "success");
+        this.refreshFailed = refreshCounter(meterRegistry, "failure");
+        this.refreshRejected = refreshCounter(meterRegistry, "rejected");
+        this.refreshLag = Timer.builder("cache.refresh.lag")
+            .description("Time a stale value was served past its soft TTL before the refresh landed")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
 
     /**
      * Get or compute with thundering herd protection.
      *
+     * On a miss, only the first caller per key in this JVM goes to Redis for
+     * the lock. Everyone else arriving while it runs waits on its future.
+     *
      * @param cacheKey Cache key
      * @param ttl Cache TTL
      * @param compute Function to compute the value if not cached
@@ -37,7 +116,7 @@ public class ThunderingHerdProtectedService {
     @SuppressWarnings("unchecked")
     public <T> T getOrCompute(String cacheKey, Duration ttl, Supplier<T> compute) {
         // 1. Try to get from cache
-        Object cached = redisTemplate.opsForValue().get(cacheKey);
+        Object cached = read(cacheKey);
         if (cached != null) {
             log.debug("Cache HIT: {}", cacheKey);
             return (T) cached;
@@ -45,12 +124,37 @@ public class ThunderingHerdProtectedService {
 
         log.debug("Cache MISS: {}", cacheKey);
 
-        // 2. Cache miss - acquire lock to prevent thundering herd
+        // 2. Join a computation already running in this JVM
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(cacheKey, call);
+        if (existing != null) {
+            coalescedRequests.increment();
+            log.debug("Joined in-flight computation: {}", cacheKey);
+            return (T) await(existing);
+        }
+
+        // 3. Leader for this JVM - go through the distributed lock
+        try {
+            T value = computeWithLock(cacheKey, ttl, compute);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, call);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T computeWithLock(String cacheKey, Duration ttl, Supplier<T> compute) {
         String lockKey = "compute:" + cacheKey;
         return lockService.executeWithLock(
             lockKey,
             Duration.ofSeconds(30),
             () -> {
+                lockWonRequests.increment();
+
                 // Double-check: another thread might have populated the cache
                 Object doubleCheck = redisTemplate.opsForValue().get(cacheKey);
                 if (doubleCheck != null) {
@@ -63,7 +167,7 @@ public class ThunderingHerdProtectedService {
                 T value = compute.get();
 
                 // Store in cache
-                redisTemplate.opsForValue().set(cacheKey, value, ttl);
+                write(cacheKey, value, ttl);
                 return value;
             },
             () -> {
@@ -78,6 +182,7 @@ public class ThunderingHerdProtectedService {
                     return (T) retryValue;
                 }
                 // Last resort: compute anyway (better than failing)
+                fallbackComputedRequests.increment();
                 log.warn("Fallback compute for: {}", cacheKey);
                 return compute.get();
             }
@@ -85,54 +190,179 @@ public class ThunderingHerdProtectedService {
     }
 
     /**
-     * Proactive cache refresh - refresh before TTL expires.
+     * Proactive cache refresh - stale-while-revalidate.
      *
      * Strategy: Store data with a "soft TTL" embedded.
-     * When soft TTL expires, one request refreshes while others get stale data.
+     * When soft TTL expires, the caller gets the stale value immediately and
+     * one background refresh per key recomputes it.
+     *
+     * Refreshes start slightly before the soft TTL with a probability that
+     * grows as expiry approaches and with how long the value took to compute
+     * (XFetch), so keys written together don't all expire together.
+     *
+     * Note: {@code compute} runs on a refresher thread, not the caller's.
      */
     public <T> T getWithProactiveRefresh(String cacheKey, Duration softTtl,
                                           Duration hardTtl, Supplier<T> compute) {
         CacheEntry<T> entry = getCacheEntry(cacheKey);
 
         if (entry == null) {
-            // Complete cache miss
+            // Complete cache miss - nothing to serve, compute inline
+            long start = System.nanoTime();
             T value = compute.get();
-            storeCacheEntry(cacheKey, value, softTtl, hardTtl);
+            storeCacheEntry(cacheKey, value, softTtl, hardTtl, elapsedMillis(start));
             return value;
         }
 
-        if (entry.isExpired()) {
-            // Soft TTL expired - try to refresh in background
-            if (lockService.tryLock("refresh:" + cacheKey, Duration.ofSeconds(30))) {
-                // Got the lock - refresh asynchronously
-                // In production, use @Async or executor
+        if (entry.shouldRefresh(XFETCH_BETA)) {
+            refreshInBackground(cacheKey, entry, softTtl, hardTtl, compute);
+        }
+
+        // Return current value (fresh or stale)
+        return entry.value();
+    }
+
+    private <T> void refreshInBackground(String cacheKey, CacheEntry<T> stale, Duration softTtl,
+                                         Duration hardTtl, Supplier<T> compute) {
+        if (!refreshing.add(cacheKey)) {
+            return;  // Already refreshing in this JVM
+        }
+        if (!refreshPermits.tryAcquire()) {
+            refreshing.remove(cacheKey);
+            refreshRejected.increment();
+            return;  // Refresher saturated - a later request will retry
+        }
+
+        try {
+            refresher.execute(() -> {
                 try {
-                    T freshValue = compute.get();
-                    storeCacheEntry(cacheKey, freshValue, softTtl, hardTtl);
-                    return freshValue;
+                    refresh(cacheKey, stale, softTtl, hardTtl, compute);
                 } finally {
-                    lockService.unlock("refresh:" + cacheKey);
+                    refreshPermits.release();
+                    refreshing.remove(cacheKey);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshPermits.release();
+            refreshing.remove(cacheKey);
+            refreshRejected.increment();
+        }
+    }
+
+    private <T> void refresh(String cacheKey, CacheEntry<T> stale, Duration softTtl,
+                             Duration hardTtl, Supplier<T> compute) {
+        // Other nodes may be refreshing the same key
+        Optional<DistributedLockService.Lease> lease = lockService.tryLock("refresh:" + cacheKey, Duration.ofSeconds(30));
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            T freshValue = compute.get();
+            storeCacheEntry(cacheKey, freshValue, softTtl, hardTtl, elapsedMillis(start));
+
+            refreshSucceeded.increment();
+            // How long past the soft TTL the stale value was served (0 when refreshed early)
+            refreshLag.record(Math.max(0, System.currentTimeMillis() - stale.expiresAt()), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            refreshFailed.increment();
+            log.warn("Background refresh failed for {}: {}", cacheKey, e.getMessage());
+        } finally {
+            lockService.unlock(lease.get());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader saw
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
             }
+            throw e;
         }
+    }
 
-        // Return current value (fresh or stale)
-        return entry.value();
+    private static Counter missCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cache.herd.misses")
+            .description("Cache misses handled by getOrCompute, by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static Counter refreshCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cache.refresh")
+            .description("Background refreshes by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
     }
 
     @SuppressWarnings("unchecked")
     private <T> CacheEntry<T> getCacheEntry(String key) {
-        return (CacheEntry<T>) redisTemplate.opsForValue().get("entry:" + key);
+        return (CacheEntry<T>) read("entry:" + key);
+    }
+
+    private <T> void storeCacheEntry(String key, T value, Duration softTtl, Duration hardTtl, long computeMillis) {
+        CacheEntry<T> entry = new CacheEntry<>(value, System.currentTimeMillis() + softTtl.toMillis(), computeMillis);
+        write("entry:" + key, entry, hardTtl);
+    }
+
+    /**
+     * Read a key, from the local copy when it is hot.
+     */
+    private Object read(String key) {
+        boolean hot = hotKeys.record("", key);
+        if (hot) {
+            Object copy = hotCopies.getIfPresent(key);
+            if (copy != null) {
+                return copy;
+            }
+        }
+        Object value = redisTemplate.opsForValue().get(key);
+        if (hot && value != null) {
+            hotCopies.put(key, value);
+        }
+        return value;
     }
 
-    private <T> void storeCacheEntry(String key, T value, Duration softTtl, Duration hardTtl) {
-        CacheEntry<T> entry = new CacheEntry<>(value, System.currentTimeMillis() + softTtl.toMillis());
-        redisTemplate.opsForValue().set("entry:" + key, entry, hardTtl);
+    private void write(String key, Object value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+        if (hotCopies.getIfPresent(key) != null) {
+            hotCopies.put(key, value);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
     }
 
-    public record CacheEntry<T>(T value, long expiresAt) {
+    /**
+     * @param computeMillis How long the value took to compute (XFetch delta)
+     */
+    public record CacheEntry<T>(T value, long expiresAt, long computeMillis) {
         public boolean isExpired() {
             return System.currentTimeMillis() > expiresAt;
         }
+
+        /**
+         * XFetch: refresh early with probability rising towards expiry.
+         * Slow-to-compute values start refreshing further ahead.
+         */
+        public boolean shouldRefresh(double beta) {
+            if (isExpired()) {
+                return true;
+            }
+            double headStart = -computeMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+            return System.currentTimeMillis() + headStart >= expiresAt;
+        }
     }
 }
@@ -0,0 +1,210 @@
+package io.techyowls.caching.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.techyowls.caching.service.ProductRepository;
+import io.techyowls.caching.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the caches before the node takes traffic.
+ *
+ * Runs as an ApplicationRunner, and Spring Boot only reports readiness
+ * (/actuator/health/readiness) once all runners have returned - so a cold
+ * node stays out of the load balancer until this is done or times out.
+ *
+ * Hot set:
+ * - The top-N products from the {@link ProductAccessLog}, in batches
+ * - Every category list through {@link ProductService#findByCategory}
+ *
+ * Each batch runs on its own virtual thread; a semaphore caps how many hit
+ * the database at once. Hot products go first: category loads queue for a
+ * permit only once every product batch has one. Whatever is unfinished at
+ * the timeout is cancelled and the node starts with what it has, without
+ * waiting for loads that ignore the interrupt.
+ */
+@Component
+@Slf4j
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final ProductService productService;
+    private final ProductRepository repository;
+    private final ProductAccessLog accessLog;
+    private final boolean enabled;
+    private final int topProducts;
+    private final boolean categories;
+    private final int dbConcurrency;
+    private final Duration timeout;
+
+    private final Timer duration;
+    private volatile WarmupReport lastReport = WarmupReport.NONE;
+
+    public CacheWarmupRunner(ProductService productService,
+                             ProductRepository repository,
+                             ProductAccessLog accessLog,
+                             MeterRegistry meterRegistry,
+                             @Value("${cache.warmup.enabled:true}") boolean enabled,
+                             @Value("${cache.warmup.top-products:1000}") int topProducts,
+                             @Value("${cache.warmup.categories:true}") boolean categories,
+                             @Value("${cache.warmup.db-concurrency:8}") int dbConcurrency,
+                             @Value("${cache.warmup.timeout:60s}") Duration timeout) {
+        this.productService = productService;
+        this.repository = repository;
+        this.accessLog = accessLog;
+        this.enabled = enabled;
+        this.topProducts = topProducts;
+        this.categories = categories;
+        this.dbConcurrency = dbConcurrency;
+        this.timeout = timeout;
+
+        this.duration = Timer.builder("cache.warmup.duration").register(meterRegistry);
+        Gauge.builder("cache.warmup.coverage", this, w -> w.lastReport.productCoverage())
+            .description("Fraction of the hot products loaded by the last warm-up")
+            .tag("source", "products")
+            .register(meterRegistry);
+        Gauge.builder("cache.warmup.coverage", this, w -> w.lastReport.categoryCoverage())
+            .description("Fraction of the category lists loaded by the last warm-up")
+            .tag("source", "categories")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Requested: what the warm-up tried to load. Warmed: what made it into the cache.
+     */
+    public record WarmupReport(Duration duration,
+                               int productsRequested, int productsWarmed,
+                               int categoriesRequested, int categoriesWarmed) {
+
+        static final WarmupReport NONE = new WarmupReport(Duration.ZERO, 0, 0, 0, 0);
+
+        public double productCoverage() {
+            return productsRequested == 0 ? 1.0 : (double) productsWarmed / productsRequested;
+        }
+
+        public double categoryCoverage() {
+            return categoriesRequested == 0 ? 1.0 : (double) categoriesWarmed / categoriesRequested;
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    public WarmupReport warmUp() {
+        long start = System.nanoTime();
+
+        List<Long> productIds = topProducts > 0 ? hotProducts() : List.of();
+        List<String> categoryNames = categories ? repository.findDistinctCategories() : List.of();
+
+        Semaphore db = new Semaphore(dbConcurrency);
+        CountDownLatch productsAdmitted = new CountDownLatch(Math.ceilDiv(productIds.size(), BATCH_SIZE));
+        List<Callable<Integer>> productBatches = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i += BATCH_SIZE) {
+            List<Long> batch = productIds.subList(i, Math.min(i + BATCH_SIZE, productIds.size()));
+            productBatches.add(() -> {
+                try {
+                    db.acquire();
+                } finally {
+                    productsAdmitted.countDown();
+                }
+                return releasing(db, () -> productService.findAllById(batch).size());
+            });
+        }
+        List<Callable<Integer>> categoryLoads = categoryNames.stream()
+            .<Callable<Integer>>map(category -> () -> {
+                productsAdmitted.await();
+                db.acquire();
+                return releasing(db, () -> {
+                    productService.findByCategory(category);
+                    return 1;
+                });
+            })
+            .toList();
+
+        List<Callable<Integer>> tasks = new ArrayList<>(productBatches);
+        tasks.addAll(categoryLoads);
+        List<Future<Integer>> results = runAll(tasks);
+
+        boolean ran = results.size() == tasks.size();
+        WarmupReport report = new WarmupReport(
+            Duration.ofNanos(System.nanoTime() - start),
+            productIds.size(), ran ? sum(results.subList(0, productBatches.size())) : 0,
+            categoryNames.size(), ran ? sum(results.subList(productBatches.size(), results.size())) : 0);
+        duration.record(report.duration());
+        lastReport = report;
+
+        log.info("Cache warm-up finished in {} ms: {}/{} products, {}/{} categories",
+            report.duration().toMillis(),
+            report.productsWarmed(), report.productsRequested(),
+            report.categoriesWarmed(), report.categoriesRequested());
+        return report;
+    }
+
+    private List<Long> hotProducts() {
+        try {
+            return accessLog.top(topProducts);
+        } catch (RuntimeException e) {
+            log.warn("Could not read the access log, skipping hot products: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<Future<Integer>> runAll(List<Callable<Integer>> tasks) {
+        // Not try-with-resources: close() would wait for loads that ignore the interrupt
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            // Cancels whatever hasn't finished by the deadline
+            return executor.invokeAll(tasks, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int releasing(Semaphore db, Callable<Integer> load) throws Exception {
+        try {
+            return load.call();
+        } finally {
+            db.release();
+        }
+    }
+
+    private static int sum(List<Future<Integer>> results) {
+        int total = 0;
+        for (Future<Integer> result : results) {
+            try {
+                total += result.get();
+            } catch (CancellationException | ExecutionException e) {
+                // Timed out or failed: not warmed
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,116 @@
+package io.techyowls.caching.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Which products get read, persisted in Redis so it survives deploys.
+ *
+ * Reads are counted in memory and flushed periodically as one pipeline of
+ * ZINCRBY, so recording an access never costs a round trip. The sorted
+ * set is trimmed to the most-read products on every flush. At most
+ * maxPending distinct products are counted between flushes: reads of
+ * further ones are dropped until the next flush.
+ *
+ * The warm-up reads the top of it on startup.
+ */
+@Component
+@Slf4j
+public class ProductAccessLog implements DisposableBean {
+
+    static final String KEY = "cache:access-log:products";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxSize;
+    private final int maxPending;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "access-log-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductAccessLog(StringRedisTemplate redisTemplate,
+                            @Value("${cache.warmup.access-log.flush-interval:10s}") Duration flushInterval,
+                            @Value("${cache.warmup.access-log.max-size:10000}") int maxSize,
+                            @Value("${cache.warmup.access-log.max-pending:10000}") int maxPending) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+        this.maxPending = maxPending;
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+            flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count a read of an existing product.
+     */
+    public void record(Long productId) {
+        LongAdder count = pending.get(productId);
+        if (count == null) {
+            if (pending.size() >= maxPending) {
+                return;  // Full until the next flush
+            }
+            count = pending.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * @return Most-read product IDs first
+     */
+    public List<Long> top(int count) {
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(KEY, 0, count - 1L);
+        return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+    }
+
+    /**
+     * Push pending counts to Redis.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long id : pending.keySet()) {
+                LongAdder count = pending.remove(id);
+                if (count != null) {
+                    redis.zIncrBy(KEY, count.sum(), id.toString());
+                }
+            }
+            redis.zRemRange(KEY, 0, -maxSize - 1L);  // Keep only the top maxSize
+            return null;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Access log flush failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package io.techyowls.caching.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.service.DistributedLockService;
+import io.techyowls.caching.service.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind for stock changes (cache.write-behind.enabled).
+ *
+ * A stock change is appended to a Redis stream and the caller returns;
+ * the DB is updated later, in batches:
+ * - every flush interval, or as soon as batch-size changes are waiting
+ * - changes to the same product are coalesced, the latest wins
+ * - one findAllById + saveAll per batch, in one transaction
+ * - stream entries are acknowledged and deleted only after the commit,
+ *   in one script call that also returns the new backlog
+ *
+ * Crash safety: entries stay in the stream (and in the consumer group's
+ * pending list once read) until they are persisted. Every node reads as
+ * the same consumer, so there is one pending list: a batch that failed,
+ * or whose node died, is re-read by the next flush on any node.
+ * Only as durable as Redis itself: run it with AOF.
+ *
+ * Order: one node flushes at a time (distributed lock, renewed while the
+ * flush runs), pending entries before new ones, so an older stock value
+ * never lands after a newer one.
+ *
+ * Backpressure: if more than max-pending changes are waiting, callers
+ * block for up to max-wait for the flusher to catch up, then get a
+ * {@link WriteBehindBacklogException}.
+ */
+@Component
+@Slf4j
+public class StockWriteBehind implements DisposableBean {
+
+    static final String STREAM = "write-behind:products:stock";
+    static final String GROUP = "db-writer";
+    private static final String LOCK = "write-behind:products:stock";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    // Shared by all nodes: only the lock holder reads
+    private static final String CONSUMER = "flusher";
+    private static final int MAX_BATCHES_PER_FLUSH = 20;
+
+    // XACK + XDEL the entries (ARGV[2..], ARGV[1] = group), then the backlog.
+    // In chunks: unpack() is limited to a few thousand values.
+    private static final RedisScript<Long> ACK_AND_DELETE = new DefaultRedisScript<>("""
+        for i = 2, #ARGV, 1000 do
+            local last = math.min(i + 999, #ARGV)
+            redis.call('xack', KEYS[1], ARGV[1], unpack(ARGV, i, last))
+            redis.call('xdel', KEYS[1], unpack(ARGV, i, last))
+        end
+        return redis.call('xlen', KEYS[1])
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductRepository repository;
+    private final DistributedLockService lockService;
+    private final TransactionOperations transactions;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxPending;
+    private final Duration maxWait;
+
+    // Changes waiting in the stream, all nodes; refreshed on every flush
+    private final AtomicLong backlog = new AtomicLong();
+    private final Object backlogDrained = new Object();
+    private final AtomicLong sinceFlush = new AtomicLong();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter persisted;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Timer flushDuration;
+
+    public StockWriteBehind(StringRedisTemplate redisTemplate,
+                            ProductRepository repository,
+                            DistributedLockService lockService,
+                            TransactionOperations transactions,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.write-behind.enabled:false}") boolean enabled,
+                            @Value("${cache.write-behind.flush-interval:1s}") Duration flushInterval,
+                            @Value("${cache.write-behind.batch-size:500}") int batchSize,
+                            @Value("${cache.write-behind.max-pending:10000}") long maxPending,
+                            @Value("${cache.write-behind.max-wait:2s}") Duration maxWait) {
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.lockService = lockService;
+        this.transactions = transactions;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxWait = maxWait;
+
+        this.persisted = Counter.builder("cache.write_behind.changes")
+            .description("Stock changes written to the DB")
+            .tag("result", "persisted")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.write_behind.changes")
+            .description("Stock changes superseded by a later change before reaching the DB")
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("cache.write_behind.changes")
+            .description("Stock changes refused because the backlog was full")
+            .tag("result", "rejected")
+            .register(meterRegistry);
+        this.flushDuration = Timer.builder("cache.write_behind.flush").register(meterRegistry);
+        Gauge.builder("cache.write_behind.backlog", backlog, AtomicLong::get)
+            .description("Stock changes waiting to be written to the DB")
+            .register(meterRegistry);
+
+        if (enabled) {
+            createGroup();
+            flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a stock change for the DB.
+     *
+     * @throws WriteBehindBacklogException if the backlog stayed full for max-wait
+     */
+    public void updateStock(Long productId, int stockQuantity) {
+        awaitBacklogBelowLimit();
+        redisTemplate.opsForStream().add(STREAM, Map.of(
+            "id", productId.toString(),
+            "stock", Integer.toString(stockQuantity)));
+        backlog.incrementAndGet();
+        if (sinceFlush.incrementAndGet() >= batchSize) {
+            flushSoon();
+        }
+    }
+
+    /**
+     * Write waiting changes to the DB, if no other node is doing it.
+     *
+     * @return Changes persisted
+     */
+    public int flush() {
+        sinceFlush.set(0);
+        try {
+            return lockService.executeWithLock(LOCK, LOCK_TTL, this::flushHolding, () -> 0);
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdownNow();
+        if (enabled) {
+            flushQuietly();  // Whatever is left stays in the stream for the next node
+        }
+    }
+
+    private int flushHolding() {
+        long start = System.nanoTime();
+        int flushed = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_FLUSH; i++) {
+                // Pending entries (failed batches, from any node) before new ones
+                List<MapRecord<String, Object, Object>> batch = read(ReadOffset.from("0"));
+                if (batch.isEmpty()) {
+                    batch = read(ReadOffset.lastConsumed());
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                persist(batch);
+                flushed += batch.size();
+            }
+        } finally {
+            flushDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (flushed > 0) {
+            log.debug("Write-behind flushed {} stock changes", flushed);
+        }
+        return flushed;
+    }
+
+    private void persist(List<MapRecord<String, Object, Object>> batch) {
+        // Stream order: the last change per product wins
+        Map<Long, Integer> latest = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> change : batch) {
+            latest.put(Long.valueOf((String) change.getValue().get("id")),
+                Integer.valueOf((String) change.getValue().get("stock")));
+        }
+
+        transactions.executeWithoutResult(status -> {
+            List<Product> products = repository.findAllById(latest.keySet());
+            products.forEach(product -> product.setStockQuantity(latest.get(product.getId())));
+            repository.saveAll(products);  // Deleted products are skipped
+        });
+
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        args.add(GROUP);
+        batch.forEach(change -> args.add(change.getId().getValue()));
+        Long remaining = redisTemplate.execute(ACK_AND_DELETE, List.of(STREAM), args.toArray());
+        persisted.increment(latest.size());
+        coalesced.increment(batch.size() - latest.size());
+        setBacklog(remaining);  // Callers blocked on backpressure go on after each batch
+    }
+
+    @SuppressWarnings("unchecked")  // StreamOffset<String>... is a generic varargs array, only read by the template
+    private List<MapRecord<String, Object, Object>> read(ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+            Consumer.from(GROUP, CONSUMER),
+            StreamReadOptions.empty().count(batchSize),
+            StreamOffset.create(STREAM, offset));
+        return records != null ? records : List.of();
+    }
+
+    private void awaitBacklogBelowLimit() {
+        if (backlog.get() < maxPending) {
+            return;
+        }
+        flushSoon();
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        synchronized (backlogDrained) {
+            while (backlog.get() >= maxPending) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    rejected.increment();
+                    throw new WriteBehindBacklogException(backlog.get());
+                }
+                try {
+                    backlogDrained.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected.increment();
+                    throw new WriteBehindBacklogException(backlog.get());
+                }
+            }
+        }
+    }
+
+    private void refreshBacklog() {
+        try {
+            setBacklog(redisTemplate.opsForStream().size(STREAM));
+        } catch (RuntimeException e) {
+            log.debug("Could not read write-behind backlog: {}", e.getMessage());
+            synchronized (backlogDrained) {
+                backlogDrained.notifyAll();
+            }
+        }
+    }
+
+    private void setBacklog(Long size) {
+        backlog.set(size != null ? size : 0);
+        synchronized (backlogDrained) {
+            backlogDrained.notifyAll();
+        }
+    }
+
+    private void flushSoon() {
+        if (flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Entries stay pending and are retried on the next flush
+            log.warn("Write-behind flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void createGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(STREAM, ReadOffset.from("0"), GROUP);
+        } catch (RedisSystemException e) {
+            if (e.getCause() == null || !String.valueOf(e.getCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+            // Group already exists
+        }
+    }
+}
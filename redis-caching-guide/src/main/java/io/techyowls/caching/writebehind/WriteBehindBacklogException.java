@@ -0,0 +1,15 @@
+package io.techyowls.caching.writebehind;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Too many stock changes are waiting for the DB: try again later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteBehindBacklogException extends RuntimeException {
+
+    public WriteBehindBacklogException(long backlog) {
+        super("Write-behind backlog full: " + backlog + " stock changes waiting");
+    }
+}
@@ -0,0 +1,185 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Several cache nodes sharing one embedded Redis, each with its own L1.
+ */
+class CacheInvalidationBusTest {
+
+    private static EmbeddedRedis redis;
+
+    private CacheNode nodeA;
+    private CacheNode nodeB;
+    private CacheNode nodeC;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new CacheNode(redis);
+        nodeB = new CacheNode(redis);
+        nodeC = new CacheNode(redis);
+        nodeA.products().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        List.of(nodeA, nodeB, nodeC).forEach(CacheNode::close);
+    }
+
+    @Test
+    void shouldDropStaleLocalCopyOnOtherNodes() {
+        nodeA.products().put(1L, "v1");
+        assertThat(nodeB.products().get(1L).get()).isEqualTo("v1");
+        assertThat(nodeC.products().get(1L).get()).isEqualTo("v1");
+
+        nodeA.products().put(1L, "v2");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertThat(nodeB.products().get(1L).get()).isEqualTo("v2");
+            assertThat(nodeC.products().get(1L).get()).isEqualTo("v2");
+        });
+    }
+
+    @Test
+    void shouldPropagateEvictAndClear() {
+        nodeA.products().put(1L, "v1");
+        nodeA.products().put(2L, "v1");
+        nodeB.products().get(1L);
+        nodeB.products().get(2L);
+
+        nodeA.products().evict(1L);
+        await().atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(nodeB.products().get(1L)).isNull());
+
+        nodeC.products().clear();
+        await().atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() -> assertThat(nodeB.products().get(2L)).isNull());
+    }
+
+    @Test
+    void shouldCoalesceWriteBurstIntoFewMessages() {
+        // Window long enough that the whole burst lands in it
+        CacheNode importer = new CacheNode(redis, Duration.ofHours(1));
+        try {
+            nodeB.products().put(7L, "stale");  // now held in node B's L1
+            for (long id = 0; id < 2_000; id++) {
+                importer.products().put(id % 100, "v" + id);  // 100 distinct keys, 20 writes each
+            }
+            importer.bus().flush();
+
+            double published = importer.registry().get("cache.invalidation.messages")
+                .tag("direction", "out").counter().count();
+            double coalesced = importer.registry().get("cache.invalidation.keys")
+                .tag("result", "coalesced").counter().count();
+
+            assertThat(published).isEqualTo(1);
+            assertThat(coalesced).isEqualTo(1_900);
+            await().atMost(5, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertThat(nodeB.products().get(7L).get()).isEqualTo("v1907"));
+        } finally {
+            importer.close();
+        }
+    }
+
+    /**
+     * One application node: its own connection, L1, bus and listener container.
+     */
+    record CacheNode(LettuceConnectionFactory connectionFactory,
+                     RedisMessageListenerContainer container,
+                     CacheInvalidationBus bus,
+                     TwoLevelCacheManager cacheManager,
+                     SimpleMeterRegistry registry) {
+
+        CacheNode(EmbeddedRedis redis) {
+            this(redis, Duration.ofMillis(10));
+        }
+
+        CacheNode(EmbeddedRedis redis, Duration flushInterval) {
+            this(redis.connectionFactory(), new SimpleMeterRegistry(), flushInterval);
+        }
+
+        private CacheNode(LettuceConnectionFactory connectionFactory, SimpleMeterRegistry registry,
+                          Duration flushInterval) {
+            this(connectionFactory, registry, busFor(connectionFactory, registry, flushInterval));
+        }
+
+        private CacheNode(LettuceConnectionFactory connectionFactory, SimpleMeterRegistry registry,
+                          CacheInvalidationBus bus) {
+            this(connectionFactory, listen(connectionFactory, bus), bus,
+                managerFor(connectionFactory, bus, registry), registry);
+        }
+
+        Cache products() {
+            return cacheManager.getCache("products");
+        }
+
+        void close() {
+            bus.destroy();
+            try {
+                container.stop();
+                container.destroy();
+            } catch (Exception ignored) {
+                // Best effort
+            }
+            connectionFactory.destroy();
+        }
+
+        private static CacheInvalidationBus busFor(LettuceConnectionFactory factory, SimpleMeterRegistry registry,
+                                                   Duration flushInterval) {
+            return new CacheInvalidationBus(new StringRedisTemplate(factory), flushInterval, 500, registry);
+        }
+
+        private static RedisMessageListenerContainer listen(LettuceConnectionFactory factory,
+                                                            CacheInvalidationBus bus) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(factory);
+            container.addMessageListener(bus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+            container.afterPropertiesSet();
+            container.start();
+            return container;
+        }
+
+        private static TwoLevelCacheManager managerFor(LettuceConnectionFactory factory,
+                                                       CacheInvalidationBus bus,
+                                                       SimpleMeterRegistry registry) {
+            RedisCacheManager redis = RedisCacheManager.builder(factory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig())
+                .build();
+            TwoLevelCacheManager manager = new TwoLevelCacheManager(
+                redis, factory, Map.of(), Duration.ofMinutes(10), 1_000, Duration.ofMinutes(1), bus, null, null, Map.of(), registry);
+            manager.afterPropertiesSet();
+            return manager;
+        }
+    }
+}
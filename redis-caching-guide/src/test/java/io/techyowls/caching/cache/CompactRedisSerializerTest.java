@@ -0,0 +1,52 @@
+package io.techyowls.caching.cache;
+
+import io.techyowls.caching.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CompactRedisSerializer serializer =
+        new CompactRedisSerializer(json, 512).register(1, Product.class);
+
+    @Test
+    void shouldRoundTripProductAndProductList() {
+        Product product = product(1);
+        List<Product> products = LongStream.rangeClosed(1, 50).mapToObj(this::product).toList();
+
+        assertThat(serializer.deserialize(serializer.serialize(product))).isEqualTo(product);
+        assertThat(serializer.deserialize(serializer.serialize(products))).isEqualTo(products);
+        assertThat(serializer.deserialize(serializer.serialize(List.of()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void shouldBeSmallerThanTypedJson() {
+        List<Product> products = LongStream.rangeClosed(1, 50).mapToObj(this::product).toList();
+
+        assertThat(serializer.serialize(product(1)).length).isLessThan(json.serialize(product(1)).length);
+        assertThat(serializer.serialize(products).length).isLessThan(json.serialize(products).length / 2);
+    }
+
+    @Test
+    void shouldReadEntriesWrittenAsJson() {
+        byte[] legacy = json.serialize(product(1));
+
+        assertThat(serializer.deserialize(legacy)).isEqualTo(product(1));
+    }
+
+    private Product product(long id) {
+        return Product.builder()
+            .id(id)
+            .name("Widget " + id)
+            .price(new BigDecimal("9.99"))
+            .category("Electronics")
+            .build();
+    }
+}
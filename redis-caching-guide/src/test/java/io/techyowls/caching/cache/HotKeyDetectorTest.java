@@ -0,0 +1,89 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyDetectorTest {
+
+    private SimpleMeterRegistry registry;
+    private HotKeyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Long interval: the test drives decay itself
+        detector = new HotKeyDetector(100, Duration.ofMinutes(1), 2, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        detector.destroy();
+    }
+
+    @Test
+    void shouldPromoteOnlyKeysAboveTheThreshold() {
+        // ~108 req/s over a 1 minute interval
+        for (int i = 0; i < 20_000; i++) {
+            detector.record("products::", String.valueOf(i));  // Long tail, once each
+        }
+        boolean hot = false;
+        for (int i = 0; i < 6_500; i++) {
+            hot = detector.record("products::", "42");
+        }
+
+        assertThat(hot).isTrue();
+        assertThat(detector.hotKeys()).extracting(HotKeyDetector.HotKey::key).containsExactly("products::42");
+        assertThat(detector.hotKeys().get(0).requestsPerSecond()).isBetween(100L, 115L);
+        assertThat(registry.get("cache.hot.keys").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldListHottestFirstAndCapPromotions() {
+        hit("a", 7_000);
+        hit("b", 9_000);
+        hit("c", 8_000);  // Over the cap of 2
+
+        assertThat(detector.hotKeys()).extracting(HotKeyDetector.HotKey::key).containsExactly("b", "a");
+        assertThat(registry.get("cache.hot.promotions").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDemoteOnceTrafficStops() {
+        hit("a", 8_000);
+        assertThat(detector.hotKeys()).hasSize(1);
+
+        detector.decay();  // ~67 req/s: above half the threshold, stays hot
+        assertThat(detector.hotKeys()).hasSize(1);
+
+        detector.decay();  // ~33 req/s
+        assertThat(detector.hotKeys()).isEmpty();
+    }
+
+    @Test
+    void shouldEstimateRatesFromSampledReads() {
+        HotKeyDetector sampled = new HotKeyDetector(100, Duration.ofMinutes(1), 2, 8, new SimpleMeterRegistry());
+        try {
+            boolean hot = false;
+            for (int i = 0; i < 6_500; i++) {
+                hot = sampled.record("products::", "42");  // ~108 req/s, ~810 counted
+            }
+
+            assertThat(hot).isTrue();
+            assertThat(sampled.hotKeys().get(0).requestsPerSecond()).isBetween(90L, 125L);
+        } finally {
+            sampled.destroy();
+        }
+    }
+
+    private void hit(String key, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record("", key);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.techyowls.caching.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RedisCircuitBreakerTest {
+
+    private RedisConnection connection;
+    private SimpleMeterRegistry registry;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        registry = new SimpleMeterRegistry();
+        // Long probe interval: the test drives the prober itself
+        breaker = new RedisCircuitBreaker(connectionFactory, new CircuitBreakerProperties(
+            true, 10, 5, 0.5, Duration.ofMillis(100), 0.5, Duration.ZERO, Duration.ofHours(1), 2), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        breaker.destroy();
+    }
+
+    @Test
+    void shouldOpenOnFailureRateAndSkipRedis() {
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> "ok");
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> breaker.execute(() -> {
+                throw new RedisConnectionFailureException("down");
+            })).isInstanceOf(RedisConnectionFailureException.class);
+        }
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);  // 3 of 7
+
+        assertThatThrownBy(() -> breaker.run(() -> {
+            throw new RedisConnectionFailureException("down");
+        }));
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);  // 4 of 8
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(registry.get("cache.circuit.short_circuited").counter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.circuit.state").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOpenWhenMostCallsAreSlow() {
+        for (int i = 0; i < 5; i++) {
+            breaker.record(Duration.ofMillis(i < 2 ? 5 : 300).toNanos(), false);
+        }
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldCloseAfterGoodProbesAndReconcileFirst() {
+        trip();
+        AtomicInteger reconciled = new AtomicInteger();
+        breaker.onClose(() -> {
+            assertThat(breaker.allowRequest()).isFalse();  // Still skipping Redis meanwhile
+            reconciled.incrementAndGet();
+        });
+        when(connection.ping()).thenReturn("PONG");
+
+        breaker.tick();
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+        breaker.tick();
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(reconciled.get()).isEqualTo(1);
+        assertThat(registry.get("cache.circuit.transitions").tag("to", "closed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() {
+        trip();
+        when(connection.ping()).thenReturn("PONG").thenThrow(new RedisConnectionFailureException("down"));
+
+        breaker.tick();
+        breaker.tick();
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(registry.get("cache.circuit.transitions").tag("to", "open").counter().count()).isEqualTo(2);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 5; i++) {
+            breaker.record(0, true);
+        }
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+}
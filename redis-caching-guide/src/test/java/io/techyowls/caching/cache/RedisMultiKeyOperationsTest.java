@@ -0,0 +1,101 @@
+package io.techyowls.caching.cache;
+
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MGET / pipelined SET entries must be the same entries RedisCache reads and writes.
+ */
+class RedisMultiKeyOperationsTest {
+
+    private static EmbeddedRedis redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCache redisCache;
+    private RedisMultiKeyOperations multiKey;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = redis.connectionFactory();
+        RedisCacheManager manager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)))
+            .build();
+        manager.afterPropertiesSet();
+        redisCache = (RedisCache) manager.getCache("products");
+        redisCache.clear();
+        multiKey = new RedisMultiKeyOperations("products", connectionFactory, redisCache.getCacheConfiguration());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldReadEntriesWrittenByRedisCache() {
+        redisCache.put(1L, "one");
+        redisCache.put(3L, "three");
+
+        assertThat(multiKey.getAll(List.of("1", "2", "3")))
+            .containsOnly(Map.entry("1", "one"), Map.entry("3", "three"));
+    }
+
+    @Test
+    void shouldWriteEntriesReadableByRedisCacheWithTtl() {
+        multiKey.putAll(Map.of("1", "one", "2", "two"));
+
+        Cache.ValueWrapper one = redisCache.get(1L);
+        assertThat(one).isNotNull();
+        assertThat(one.get()).isEqualTo("one");
+        Long ttl = new StringRedisTemplate(connectionFactory).getExpire("products::2", TimeUnit.SECONDS);
+        assertThat(ttl).isBetween(1L, 300L);
+    }
+
+    @Test
+    void shouldEvictEverythingUnderATagOnly() {
+        multiKey.putAll(Map.of("1", "one", "2", "two", "3", "three"), Map.of(
+            "1", Set.of("category:a"),
+            "2", Set.of("category:a", "product:2"),
+            "3", Set.of("category:b")));
+        redisCache.put("category:a", "list");
+        multiKey.tag("category:a", "list", Set.of("category:a"));
+
+        assertThat(multiKey.evictTag("category:a")).containsExactlyInAnyOrder("1", "2", "category:a");
+
+        assertThat(redisCache.get(1L)).isNull();
+        assertThat(redisCache.get("category:a")).isNull();
+        assertThat(redisCache.get(3L)).isNotNull();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        assertThat(template.hasKey("products::tag::category:a")).isFalse();
+        assertThat(template.getExpire("products::tag::category:b", TimeUnit.SECONDS)).isBetween(1L, 300L);
+        assertThat(multiKey.evictTag("category:a")).isEmpty();
+    }
+}
@@ -0,0 +1,142 @@
+package io.techyowls.caching.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * L1/L2 behaviour, with a ConcurrentMapCache standing in for Redis.
+ */
+class TwoLevelCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ConcurrentMapCache remote;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        remote = new ConcurrentMapCache("products", false);
+        cache = new TwoLevelCache("products",
+            Caffeine.newBuilder().maximumSize(100).build(), remote, null, registry);
+    }
+
+    @Test
+    void shouldPromoteRemoteHitIntoLocal() {
+        remote.put(1L, "widget");
+
+        assertThat(cache.get(1L).get()).isEqualTo("widget");  // L2 hit
+        remote.evict(1L);
+        assertThat(cache.get(1L).get()).isEqualTo("widget");  // L1 hit, Redis not consulted
+
+        assertThat(registry.get("cache.l1.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(registry.get("cache.l2.hit.ratio").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldEvictBothTiers() {
+        cache.put(1L, "widget");
+
+        cache.evict(1L);
+
+        assertThat(remote.get(1L)).isNull();
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void shouldLoadOnceThroughValueLoader() {
+        assertThat(cache.get(1L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("loaded");
+        assertThat(remote.get(1L).get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void shouldGetAllFromBothTiers() {
+        cache.put(1L, "local");
+        remote.put(2L, "remote");
+
+        Map<Long, Object> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(found).containsOnly(Map.entry(1L, "local"), Map.entry(2L, "remote"));
+        assertThat(registry.get("cache.l2.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+        remote.evict(2L);
+        assertThat(cache.get(2L).get()).isEqualTo("remote");  // Promoted into L1
+    }
+
+    @Test
+    void shouldPutAllIntoBothTiers() {
+        cache.putAll(Map.of(1L, "a", 2L, "b"));
+
+        assertThat(remote.get(1L).get()).isEqualTo("a");
+        assertThat(remote.get(2L).get()).isEqualTo("b");
+        remote.clear();
+        assertThat(cache.getAll(List.of(1L, 2L))).hasSize(2);
+    }
+
+    @Test
+    void shouldSkipRedisWhileCircuitIsOpenAndReconcileOnClose() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.ping()).thenReturn("PONG");
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(connectionFactory, new CircuitBreakerProperties(
+            true, 10, 1, 0.5, Duration.ofSeconds(1), 0.5, Duration.ZERO, Duration.ofHours(1), 1), registry);
+        TwoLevelCache guarded = new TwoLevelCache("products",
+            Caffeine.newBuilder().maximumSize(100).build(), remote, null, null, null, breaker, null, registry);
+        // String keys: replay evicts by the String form, which is what RedisCache keys on
+        remote.put("1", "old");
+        remote.put("2", "unchanged");
+
+        breaker.record(0, true);  // Open
+        guarded.put("1", "new");
+
+        assertThat(guarded.get("1").get()).isEqualTo("new");  // From L1
+        assertThat(guarded.get("2")).isNull();  // Redis not consulted: load from the DB
+        assertThat(remote.get("1").get()).isEqualTo("old");
+
+        breaker.tick();  // Half-open, probe succeeds, closes
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(remote.get("1")).isNull();  // Missed write evicted before Redis serves again
+        assertThat(guarded.get("2").get()).isEqualTo("unchanged");
+        breaker.destroy();
+    }
+
+    @Test
+    void shouldEvictWritesThatRaceTheClose() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.ping()).thenReturn("PONG");
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(connectionFactory, new CircuitBreakerProperties(
+            true, 10, 1, 0.5, Duration.ofSeconds(1), 0.5, Duration.ZERO, Duration.ofHours(1), 1), registry);
+        TwoLevelCache guarded = new TwoLevelCache("products",
+            Caffeine.newBuilder().maximumSize(100).build(), remote, null, null, null, breaker, null, registry);
+        remote.put("1", "old");
+        remote.put("2", "old");
+
+        breaker.record(0, true);  // Open
+        guarded.put("1", "new");
+        // Runs after the cache's replay, before the flip: still skips Redis
+        breaker.onClose(() -> guarded.put("2", "new"));
+
+        breaker.tick();
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(remote.get("1")).isNull();
+        assertThat(remote.get("2")).isNull();  // Evicted right after the flip
+        breaker.destroy();
+    }
+}
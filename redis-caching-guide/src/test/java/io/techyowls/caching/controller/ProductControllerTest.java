@@ -0,0 +1,34 @@
+package io.techyowls.caching.controller;
+
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.service.ProductService;
+import io.techyowls.caching.warmup.ProductAccessLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductControllerTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final ProductAccessLog accessLog = mock(ProductAccessLog.class);
+    private final ProductController controller = new ProductController(productService, accessLog);
+
+    @Test
+    void shouldRecordOnlyReadsOfExistingProducts() {
+        when(productService.findById(1L)).thenReturn(Optional.of(Product.builder().id(1L).build()));
+        when(productService.findById(404L)).thenReturn(Optional.empty());
+
+        assertThat(controller.getById(404L).getStatusCode().value()).isEqualTo(404);
+        verify(accessLog, never()).record(any());
+
+        assertThat(controller.getById(1L).getStatusCode().value()).isEqualTo(200);
+        verify(accessLog).record(1L);
+    }
+}
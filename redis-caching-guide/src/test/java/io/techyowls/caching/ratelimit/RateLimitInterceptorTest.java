@@ -0,0 +1,67 @@
+package io.techyowls.caching.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitInterceptorTest {
+
+    private final RedisRateLimiter rateLimiter = mock(RedisRateLimiter.class);
+    private final HandlerMethod handler = mock(HandlerMethod.class);
+
+    @Test
+    void shouldIgnoreClientHeaderUnlessTrusted() {
+        limit(request("203.0.113.7", "someone-else"), false);
+
+        verify(rateLimiter).tryAcquire("GET /api/products/{id}:addr:203.0.113.7", policy());
+    }
+
+    @Test
+    void shouldUseClientHeaderFromTrustedGateway() {
+        limit(request("10.0.0.1", "tenant-42"), true);
+
+        verify(rateLimiter).tryAcquire("GET /api/products/{id}:client:tenant-42", policy());
+    }
+
+    @Test
+    void shouldPreferAuthenticatedPrincipal() {
+        MockHttpServletRequest request = request("10.0.0.1", "tenant-42");
+        request.setUserPrincipal(() -> "alice");
+
+        limit(request, true);
+
+        verify(rateLimiter).tryAcquire("GET /api/products/{id}:user:alice", policy());
+    }
+
+    private void limit(MockHttpServletRequest request, boolean trustClientHeader) {
+        when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(RateLimitDecision.allowed(1));
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter,
+            new RateLimitProperties(true, "X-Client-Id", trustClientHeader, policy(), List.of()));
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Client-Id", clientId);
+        return request;
+    }
+
+    private static RateLimitPolicy policy() {
+        return new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 100, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,99 @@
+package io.techyowls.caching.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisRateLimiterTest {
+
+    private static EmbeddedRedis redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private SimpleMeterRegistry registry;
+    private RedisRateLimiter nodeA;
+    private RedisRateLimiter nodeB;
+    private String key;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = redis.connectionFactory();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        registry = new SimpleMeterRegistry();
+        nodeA = new RedisRateLimiter(redisTemplate, registry);
+        nodeB = new RedisRateLimiter(redisTemplate, new SimpleMeterRegistry());
+        key = "GET /api/products/{id}:" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldShareSlidingWindowAcrossNodes() {
+        var policy = new RateLimitPolicy(RateLimitPolicy.Algorithm.SLIDING_WINDOW, 10, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(nodeA.tryAcquire(key, policy).allowed()).isTrue();
+            assertThat(nodeB.tryAcquire(key, policy).allowed()).isTrue();
+        }
+        RateLimitDecision rejected = nodeA.tryAcquire(key, policy);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMs()).isBetween(1L, 60_000L);
+    }
+
+    @Test
+    void shouldRefillTokenBucket() throws Exception {
+        var policy = new RateLimitPolicy(RateLimitPolicy.Algorithm.TOKEN_BUCKET, 5, Duration.ofSeconds(5));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(nodeA.tryAcquire(key, policy).allowed()).isTrue();  // Burst up to capacity
+        }
+        RateLimitDecision rejected = nodeA.tryAcquire(key, policy);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMs()).isBetween(1L, 1_000L);  // One token per second
+
+        Thread.sleep(rejected.retryAfterMs() + 50);
+        assertThat(nodeA.tryAcquire(key, policy).allowed()).isTrue();
+    }
+
+    @Test
+    void shouldRejectLocallyOnceRedisHasSaidNo() {
+        var policy = new RateLimitPolicy(RateLimitPolicy.Algorithm.SLIDING_WINDOW, 1, Duration.ofMinutes(1));
+        nodeA.tryAcquire(key, policy);
+        nodeA.tryAcquire(key, policy);  // Rejected by Redis
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(nodeA.tryAcquire(key, policy).allowed()).isFalse();
+        }
+
+        assertThat(count("rejected")).isEqualTo(1);
+        assertThat(count("rejected_local")).isEqualTo(100);
+    }
+
+    private double count(String result) {
+        return registry.get("ratelimit.decisions").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,166 @@
+package io.techyowls.caching.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistributedLockServiceTest {
+
+    private static EmbeddedRedis redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer container;
+    private SimpleMeterRegistry registry;
+    private DistributedLockService lockService;
+    private String lockKey;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = redis.connectionFactory();
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        registry = new SimpleMeterRegistry();
+        lockService = new DistributedLockService(
+            new StringRedisTemplate(connectionFactory), container, registry);
+        container.afterPropertiesSet();
+        container.start();
+        lockKey = "job-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lockService.shutdown();
+        container.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldNotReleaseLockTakenOverAfterExpiry() throws Exception {
+        var slowHolder = lockService.tryLock(lockKey, Duration.ofMillis(50)).orElseThrow();
+        Thread.sleep(100);  // Lease expires
+        var newHolder = lockService.tryLock(lockKey, Duration.ofSeconds(10)).orElseThrow();
+
+        assertThat(lockService.unlock(slowHolder)).isFalse();
+        assertThat(lockService.tryLock(lockKey, Duration.ofSeconds(10))).isEmpty();  // Still held
+        assertThat(newHolder.fencingToken()).isGreaterThan(slowHolder.fencingToken());
+        assertThat(lockService.unlock(newHolder)).isTrue();
+    }
+
+    @Test
+    void shouldKeepFencingTokensRisingAfterTheCounterExpires() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        var first = lockService.tryLock(lockKey, Duration.ofSeconds(10)).orElseThrow();
+        lockService.unlock(first);
+        assertThat(redisTemplate.getExpire("lock-fence:" + lockKey)).isPositive();
+
+        redisTemplate.delete("lock-fence:" + lockKey);  // As if it had expired
+        var second = lockService.tryLock(lockKey, Duration.ofSeconds(10)).orElseThrow();
+
+        assertThat(second.fencingToken()).isGreaterThan(first.fencingToken());
+    }
+
+    @Test
+    void shouldRenewLeaseWhileTaskRuns() {
+        String result = lockService.executeWithLock(lockKey, Duration.ofMillis(300), () -> {
+            sleep(1_000);  // Over three TTLs
+            assertThat(lockService.tryLock(lockKey, Duration.ofSeconds(1))).isEmpty();
+            return "done";
+        }, () -> "not acquired");
+
+        assertThat(result).isEqualTo("done");
+        assertThat(lockService.tryLock(lockKey, Duration.ofSeconds(1))).isPresent();
+    }
+
+    @Test
+    void shouldKeepRenewingOtherLeasesWhileOneRenewalHangs() throws Exception {
+        String stuckKey = lockKey + "-stuck";
+        lockService.shutdown();
+        lockService = new DistributedLockService(new StringRedisTemplate(connectionFactory), container, registry) {
+            @Override
+            public boolean renew(Lease lease, Duration ttl) {
+                if (lease.lockKey().equals(stuckKey)) {
+                    sleep(2_000);  // e.g. a connection that stopped answering
+                }
+                return super.renew(lease, ttl);
+            }
+        };
+        CountDownLatch holding = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> stuck = executor.submit(() -> lockService.executeWithLock(stuckKey, Duration.ofMillis(300), () -> {
+                holding.countDown();
+                sleep(1_000);
+                return null;
+            }, () -> null));
+            holding.await();
+
+            String result = lockService.executeWithLock(lockKey, Duration.ofMillis(300), () -> {
+                sleep(1_000);  // Over three TTLs
+                assertThat(lockService.tryLock(lockKey, Duration.ofSeconds(1))).isEmpty();
+                return "done";
+            }, () -> "not acquired");
+
+            stuck.get();
+            assertThat(result).isEqualTo("done");
+            assertThat(registry.get("lock.lease.lost").counter().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldWakeWaiterOnReleaseInsteadOfPolling() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> lockService.executeWithLock(lockKey, Duration.ofSeconds(10), () -> {
+                holding.countDown();
+                sleep(200);
+                return null;
+            }, () -> null));
+            holding.await();
+
+            long start = System.nanoTime();
+            // One retry with a 10s park: only the release notification can make this fast
+            String result = lockService.executeWithLockAndRetry(lockKey, Duration.ofSeconds(10), 2, 10_000, () -> "waited");
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            holder.get();
+            assertThat(result).isEqualTo("waited");
+            assertThat(waitedMs).isLessThan(2_000);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
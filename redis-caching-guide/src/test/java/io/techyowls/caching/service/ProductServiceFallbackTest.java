@@ -0,0 +1,73 @@
+package io.techyowls.caching.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.cache.TwoLevelCache;
+import io.techyowls.caching.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis failing while the circuit breaker is still closed (or disabled):
+ * list reads and stock updates go on without the cache.
+ */
+class ProductServiceFallbackTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        RedisCacheWriter failing = mock(RedisCacheWriter.class, invocation -> {
+            throw new RedisConnectionFailureException("Redis is down");
+        });
+        RedisCacheManager redis = RedisCacheManager.builder(failing).build();
+        TwoLevelCache products = new TwoLevelCache("products",
+            Caffeine.newBuilder().maximumSize(100).build(), redis.getCache("products"), null, new SimpleMeterRegistry());
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("products")).thenReturn(products);
+
+        productService = new ProductService(repository, cacheManager, true, null);
+    }
+
+    @Test
+    void shouldServeListsFromTheDatabase() {
+        List<Product> all = LongStream.rangeClosed(1, 11).mapToObj(id -> product(id, "books")).toList();
+        when(repository.findAll()).thenReturn(all);
+        when(repository.findByCategory("books")).thenReturn(all);
+        when(repository.findAllById(anyList())).thenReturn(all.subList(0, 2));
+
+        assertThat(productService.findAll()).isEqualTo(all);
+        assertThat(productService.findByCategory("books")).isEqualTo(all);
+        assertThat(productService.findAllById(List.of(1L, 2L))).isEqualTo(all.subList(0, 2));
+    }
+
+    @Test
+    void shouldWriteStockThrough() {
+        when(repository.findById(1L)).thenReturn(Optional.of(product(1L, "books")));
+        when(repository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Product> updated = productService.updateStock(1L, 7);
+
+        assertThat(updated).map(Product::getStockQuantity).contains(7);
+    }
+
+    private static Product product(long id, String category) {
+        return Product.builder().id(id).name("Product " + id).price(BigDecimal.TEN).category(category).build();
+    }
+}
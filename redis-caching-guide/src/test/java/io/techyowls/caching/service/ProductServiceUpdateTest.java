@@ -0,0 +1,104 @@
+package io.techyowls.caching.service;
+
+import io.techyowls.caching.cache.TwoLevelCache;
+import io.techyowls.caching.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An update evicts only the lists it can change: category lists when the
+ * category moves, and blob lists holding a copy. A failed put is skipped,
+ * a failed evict is thrown.
+ */
+class ProductServiceUpdateTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final TwoLevelCache cache = mock(TwoLevelCache.class);
+    private final CacheManager cacheManager = mock(CacheManager.class);
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache("products")).thenReturn(cache);
+        when(repository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findById(1L)).thenReturn(Optional.of(product("books")));
+    }
+
+    @Test
+    void shouldKeepListsWhenCategoryIsUnchanged() {
+        Product updated = product("books");
+
+        new ProductService(repository, cacheManager, true, null).update(updated);
+
+        verify(cache, never()).evict(any());
+        verify(cache, never()).evictTag(anyString());
+        verify(cache).put(1L, updated);
+    }
+
+    @Test
+    void shouldEvictOldAndNewCategoryListsWhenCategoryChanges() {
+        new ProductService(repository, cacheManager, true, null).update(product("games"));
+
+        verify(cache).evict("category:books");
+        verify(cache).evict("category:games");
+        verify(cache, never()).evict("all");
+        verify(cache, never()).evictTag(anyString());
+    }
+
+    @Test
+    void shouldEvictBlobListsHoldingACopy() {
+        new ProductService(repository, cacheManager, false, null).update(product("books"));
+
+        verify(cache).evictTag(ProductCacheTags.product(1L));
+        verify(cache, never()).evict(any());
+    }
+
+    @Test
+    void shouldReadOldCategoryFromCachedEntry() {
+        when(cache.get(1L)).thenReturn(new SimpleValueWrapper(product("books")));
+
+        new ProductService(repository, cacheManager, true, null).update(product("games"));
+
+        verify(repository, never()).findById(anyLong());
+        verify(cache).evict("category:books");
+        verify(cache).evict("category:games");
+    }
+
+    @Test
+    void shouldReturnSavedProductWhenCachePutFails() {
+        Product updated = product("books");
+        doThrow(new RedisConnectionFailureException("down")).when(cache).put(1L, updated);
+
+        assertThat(new ProductService(repository, cacheManager, true, null).update(updated)).isEqualTo(updated);
+    }
+
+    @Test
+    void shouldThrowWhenEvictFails() {
+        doThrow(new RedisConnectionFailureException("down")).when(cache).evict("category:books");
+
+        ProductService service = new ProductService(repository, cacheManager, true, null);
+
+        assertThatThrownBy(() -> service.update(product("games"))).isInstanceOf(RedisConnectionFailureException.class);
+        verify(repository).save(any(Product.class));
+    }
+
+    private static Product product(String category) {
+        return Product.builder().id(1L).name("Product 1").price(BigDecimal.TEN).category(category).build();
+    }
+}
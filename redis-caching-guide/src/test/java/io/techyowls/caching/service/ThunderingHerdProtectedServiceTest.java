@@ -0,0 +1,206 @@
+package io.techyowls.caching.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.cache.HotKeyDetector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThunderingHerdProtectedServiceTest {
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private ValueOperations<String, Object> valueOps;
+    private DistributedLockService lockService;
+    private SimpleMeterRegistry registry;
+    private HotKeyDetector hotKeys;
+    private ThunderingHerdProtectedService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        // Lock always available: the Redis side is covered by DistributedLockServiceTest
+        lockService = mock(DistributedLockService.class);
+        when(lockService.executeWithLock(anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        when(lockService.tryLock(anyString(), any()))
+            .thenReturn(Optional.of(new DistributedLockService.Lease("refresh", "owner", 1)));
+
+        registry = new SimpleMeterRegistry();
+        hotKeys = new HotKeyDetector(50, Duration.ofSeconds(1), 10, registry);
+        service = new ThunderingHerdProtectedService(redisTemplate, lockService, hotKeys, registry, 4,
+            Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotKeys.destroy();
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMissesIntoOneLockAttempt() throws Exception {
+        int callers = 200;
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> service.getOrCompute("product:1", Duration.ofMinutes(1), () -> {
+                    computations.incrementAndGet();
+                    awaitQuietly(release);
+                    return "widget";
+                })));
+            }
+            Thread.sleep(200);  // Let every caller miss and join
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("widget");
+            }
+        }
+
+        assertThat(computations.get()).isEqualTo(1);
+        verify(lockService, times(1)).executeWithLock(eq("compute:product:1"), any(), any(), any());
+        assertThat(count("lock_won")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(callers - 1);
+        assertThat(count("fallback_computed")).isZero();
+    }
+
+    @Test
+    void shouldPropagateLeaderFailureToWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> service.getOrCompute("product:2", Duration.ofMinutes(1), () -> {
+                awaitQuietly(release);
+                throw new IllegalStateException("db down");
+            }));
+            Thread.sleep(50);
+            Future<Object> waiter = executor.submit(() -> service.getOrCompute("product:2", Duration.ofMinutes(1),
+                () -> "never"));
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Object> f : List.of(leader, waiter)) {
+                assertThatThrownBy(f::get)
+                    .cause().isInstanceOf(IllegalStateException.class).hasMessage("db down");
+            }
+        }
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeStaleValueWhileRefreshingInBackground() {
+        long expiredAt = System.currentTimeMillis() - 1_000;
+        when(valueOps.get("entry:prices")).thenReturn(
+            new ThunderingHerdProtectedService.CacheEntry<>("stale", expiredAt, 10));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 50; i++) {
+            String value = service.getWithProactiveRefresh("prices", Duration.ofMinutes(1), Duration.ofMinutes(5), () -> {
+                computations.incrementAndGet();
+                awaitQuietly(release);
+                return "fresh";
+            });
+            assertThat(value).isEqualTo("stale");
+        }
+        release.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            verify(valueOps).set(eq("entry:prices"), any(ThunderingHerdProtectedService.CacheEntry.class),
+                eq(Duration.ofMinutes(5)));
+            assertThat(registry.get("cache.refresh").tag("outcome", "success").counter().count()).isEqualTo(1);
+        });
+        assertThat(computations.get()).isEqualTo(1);
+        assertThat(registry.get("cache.refresh.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountFailedRefreshAndKeepServingStale() {
+        when(valueOps.get("entry:prices")).thenReturn(
+            new ThunderingHerdProtectedService.CacheEntry<>("stale", 0, 10));
+
+        String value = service.getWithProactiveRefresh("prices", Duration.ofMinutes(1), Duration.ofMinutes(5),
+            () -> { throw new IllegalStateException("db down"); });
+
+        assertThat(value).isEqualTo("stale");
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            assertThat(registry.get("cache.refresh").tag("outcome", "failure").counter().count()).isEqualTo(1));
+    }
+
+    @Test
+    void shouldServeHotKeyFromLocalCopy() {
+        when(valueOps.get("product:hot")).thenReturn("widget");
+        when(valueOps.get("product:cold")).thenReturn("gadget");
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(service.<String>getOrCompute("product:hot", Duration.ofMinutes(1), () -> "never"))
+                .isEqualTo("widget");
+        }
+        service.getOrCompute("product:cold", Duration.ofMinutes(1), () -> "never");
+
+        // Redis is read until the key is promoted, then only the local copy
+        verify(valueOps, atMost(200)).get("product:hot");
+        verify(valueOps, times(1)).get("product:cold");
+        assertThat(hotKeys.hotKeys()).extracting(HotKeyDetector.HotKey::key).containsExactly("product:hot");
+    }
+
+    @Test
+    void shouldRefreshEarlierForSlowValuesNearExpiry() {
+        long now = System.currentTimeMillis();
+        var slowNearExpiry = new ThunderingHerdProtectedService.CacheEntry<>("v", now + 1_000, 5_000);
+        var fastFarFromExpiry = new ThunderingHerdProtectedService.CacheEntry<>("v", now + 60_000, 5);
+
+        int slowRefreshes = 0;
+        int fastRefreshes = 0;
+        for (int i = 0; i < 1_000; i++) {
+            slowRefreshes += slowNearExpiry.shouldRefresh(1.0) ? 1 : 0;
+            fastRefreshes += fastFarFromExpiry.shouldRefresh(1.0) ? 1 : 0;
+        }
+
+        assertThat(slowRefreshes).isBetween(700, 900);  // 1 - e^(-1/5) ~ 18% stay fresh
+        assertThat(fastRefreshes).isZero();
+    }
+
+    private double count(String outcome) {
+        return registry.get("cache.herd.misses").tag("outcome", outcome).counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
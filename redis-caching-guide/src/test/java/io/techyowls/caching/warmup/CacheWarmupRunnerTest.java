@@ -0,0 +1,106 @@
+package io.techyowls.caching.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.service.ProductRepository;
+import io.techyowls.caching.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheWarmupRunnerTest {
+
+    private ProductService productService;
+    private ProductRepository repository;
+    private ProductAccessLog accessLog;
+    private SimpleMeterRegistry registry;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        repository = mock(ProductRepository.class);
+        accessLog = mock(ProductAccessLog.class);
+        registry = new SimpleMeterRegistry();
+
+        when(accessLog.top(250)).thenReturn(LongStream.rangeClosed(1, 250).boxed().toList());
+        when(repository.findDistinctCategories())
+            .thenReturn(IntStream.range(0, 20).mapToObj(i -> "category-" + i).toList());
+    }
+
+    @Test
+    void shouldCapConcurrentLoadsAndReportCoverage() {
+        when(productService.findAllById(anyList())).thenAnswer(invocation -> slowLoad(() -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id <= 200).map(id -> Product.builder().id(id).build()).toList();
+        }));
+        when(productService.findByCategory(anyString())).thenAnswer(invocation -> slowLoad(List::of));
+
+        CacheWarmupRunner.WarmupReport report = runner(4, Duration.ofSeconds(30)).warmUp();
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(4);
+        assertThat(report.productsRequested()).isEqualTo(250);
+        assertThat(report.productsWarmed()).isEqualTo(200);  // 50 IDs no longer exist
+        assertThat(report.categoriesWarmed()).isEqualTo(20);
+        assertThat(registry.get("cache.warmup.coverage").tag("source", "products").gauge().value())
+            .isEqualTo(0.8);
+    }
+
+    @Test
+    void shouldStartWithPartialCacheAfterTimeout() {
+        when(productService.findAllById(anyList())).thenAnswer(invocation -> slowLoad(() -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> Product.builder().id(id).build()).toList();
+        }));
+        when(productService.findByCategory(anyString())).thenAnswer(invocation -> {
+            sleepUninterruptibly(Duration.ofSeconds(3));
+            return List.of();
+        });
+
+        // Stuck category loads, more of them than permits: they must not starve the product batches
+        CacheWarmupRunner.WarmupReport report = runner(4, Duration.ofMillis(500)).warmUp();
+
+        assertThat(report.duration()).isLessThan(Duration.ofSeconds(2));
+        assertThat(report.productsWarmed()).isEqualTo(250);
+        assertThat(report.categoriesWarmed()).isZero();
+    }
+
+    private CacheWarmupRunner runner(int dbConcurrency, Duration timeout) {
+        return new CacheWarmupRunner(productService, repository, accessLog, registry,
+            true, 250, true, dbConcurrency, timeout);
+    }
+
+    private static void sleepUninterruptibly(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (long left = duration.toNanos(); left > 0; left = deadline - System.nanoTime()) {
+            try {
+                Thread.sleep(Duration.ofNanos(left));
+            } catch (InterruptedException e) {
+                // Ignored, like a blocking driver call would
+            }
+        }
+    }
+
+    private <T> T slowLoad(java.util.function.Supplier<T> load) throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            return load.get();
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
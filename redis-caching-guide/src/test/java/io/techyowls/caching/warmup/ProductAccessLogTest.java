@@ -0,0 +1,61 @@
+package io.techyowls.caching.warmup;
+
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductAccessLogTest {
+
+    private static EmbeddedRedis redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private ProductAccessLog accessLog;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = redis.connectionFactory();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(ProductAccessLog.KEY);
+        accessLog = new ProductAccessLog(redisTemplate, Duration.ofHours(1), 100, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLog.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldStopCountingNewProductsPastMaxPendingUntilFlushed() {
+        for (long id = 1; id <= 5; id++) {
+            accessLog.record(id);
+        }
+        accessLog.record(2L);  // Already pending: still counted
+        accessLog.flush();
+
+        assertThat(accessLog.top(10)).containsExactly(2L, 3L, 1L);
+
+        accessLog.record(5L);
+        accessLog.flush();
+        assertThat(accessLog.top(10)).contains(5L);
+    }
+}
@@ -0,0 +1,180 @@
+package io.techyowls.caching.writebehind;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.techyowls.caching.model.Product;
+import io.techyowls.caching.service.DistributedLockService;
+import io.techyowls.caching.service.ProductRepository;
+import io.techyowls.caching.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockWriteBehindTest {
+
+    private static EmbeddedRedis redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private ProductRepository repository;
+    private DistributedLockService lockService;
+    private SimpleMeterRegistry registry;
+    private StockWriteBehind writeBehind;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        connectionFactory = redis.connectionFactory();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.delete(StockWriteBehind.STREAM);
+
+        repository = mock(ProductRepository.class);
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation ->
+            ((Collection<Long>) invocation.getArgument(0)).stream()
+                .map(id -> Product.builder().id(id).stockQuantity(100).build())
+                .toList());
+
+        // Lock always available: the Redis side is covered by DistributedLockServiceTest
+        lockService = mock(DistributedLockService.class);
+        when(lockService.executeWithLock(anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+
+        registry = new SimpleMeterRegistry();
+        writeBehind = writeBehind(10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceChangesIntoOneSaveAll() {
+        writeBehind.updateStock(1L, 5);
+        writeBehind.updateStock(2L, 9);
+        writeBehind.updateStock(1L, 4);
+        writeBehind.updateStock(1L, 3);
+
+        assertThat(writeBehind.flush()).isEqualTo(4);
+
+        ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Product::getId, Product::getStockQuantity)
+            .containsExactlyInAnyOrder(tuple(1L, 3), tuple(2L, 9));
+        assertThat(redisTemplate.opsForStream().size(StockWriteBehind.STREAM)).isZero();
+        assertThat(changes("persisted")).isEqualTo(2);
+        assertThat(changes("coalesced")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepChangesUntilTheDbHasThem() {
+        writeBehind.updateStock(1L, 7);
+        when(repository.saveAll(anyIterable())).thenThrow(new IllegalStateException("db down")).thenReturn(List.of());
+
+        assertThatThrownBy(writeBehind::flush).hasMessage("db down");
+        assertThat(redisTemplate.opsForStream().size(StockWriteBehind.STREAM)).isEqualTo(1);
+
+        assertThat(writeBehind.flush()).isEqualTo(1);  // Re-read from the pending list
+        assertThat(redisTemplate.opsForStream().size(StockWriteBehind.STREAM)).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRetryAnotherNodesFailedBatchBeforeNewerChanges() {
+        StockWriteBehind otherNode = writeBehind(10_000);
+        try {
+            otherNode.updateStock(1L, 7);
+            when(repository.saveAll(anyIterable())).thenThrow(new IllegalStateException("db down")).thenReturn(List.of());
+            assertThatThrownBy(otherNode::flush).hasMessage("db down");
+
+            writeBehind.updateStock(1L, 9);  // Newer
+            assertThat(writeBehind.flush()).isEqualTo(2);
+
+            ArgumentCaptor<List<Product>> saved = ArgumentCaptor.forClass(List.class);
+            verify(repository, times(3)).saveAll(saved.capture());
+            assertThat(saved.getAllValues()).extracting(products -> products.get(0).getStockQuantity())
+                .containsExactly(7, 7, 9);
+        } finally {
+            otherNode.destroy();
+        }
+    }
+
+    @Test
+    void shouldAcknowledgeAndDeleteBatchesLargerThanOneScriptChunk() {
+        writeBehind.destroy();
+        writeBehind = writeBehind(10_000, 2500);
+        for (long id = 1; id <= 2400; id++) {
+            writeBehind.updateStock(id, 1);
+        }
+
+        assertThat(writeBehind.flush()).isEqualTo(2400);
+
+        assertThat(redisTemplate.opsForStream().size(StockWriteBehind.STREAM)).isZero();
+        assertThat(redisTemplate.opsForStream().pending(StockWriteBehind.STREAM, StockWriteBehind.GROUP)
+            .getTotalPendingMessages()).isZero();
+        assertThat(registry.get("cache.write_behind.backlog").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldRejectOnceBacklogStaysFull() {
+        writeBehind.destroy();
+        writeBehind = writeBehind(2);
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get())  // Another node is flushing
+            .when(lockService).executeWithLock(anyString(), any(), any(), any());
+
+        writeBehind.updateStock(1L, 1);
+        writeBehind.updateStock(2L, 1);
+
+        assertThatThrownBy(() -> writeBehind.updateStock(3L, 1)).isInstanceOf(WriteBehindBacklogException.class);
+        assertThat(changes("rejected")).isEqualTo(1);
+        assertThat(redisTemplate.opsForStream().size(StockWriteBehind.STREAM)).isEqualTo(2);
+    }
+
+    private StockWriteBehind writeBehind(long maxPending) {
+        return writeBehind(maxPending, 500);
+    }
+
+    private StockWriteBehind writeBehind(long maxPending, int batchSize) {
+        // Long interval: the test flushes itself
+        return new StockWriteBehind(redisTemplate, repository, lockService, TransactionOperations.withoutTransaction(),
+            registry, true, Duration.ofHours(1), batchSize, maxPending, Duration.ofMillis(200));
+    }
+
+    private double changes(String result) {
+        return registry.get("cache.write_behind.changes").tag("result", result).counter().count();
+    }
+}
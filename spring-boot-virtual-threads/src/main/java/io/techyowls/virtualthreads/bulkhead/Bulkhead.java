@@ -0,0 +1,203 @@
+package io.techyowls.virtualthreads.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent calls to one dependency.
+ *
+ * With virtual threads nothing else stops thousands of requests from
+ * hitting a downstream at once. Callers over the limit wait up to
+ * queueTimeout for a permit, then get a {@link BulkheadFullException}.
+ * Waiting uses a ReentrantLock condition, not synchronized, so a waiting
+ * virtual thread doesn't pin its carrier.
+ *
+ * The limit adapts to observed latency (AIMD):
+ * - a call slower than latencyThreshold multiplies it by backoffRatio,
+ *   unless it started before the last decrease: calls already in flight
+ *   then saw the same overload, so a burst of them backs off only once
+ * - a faster one, while at least half the permits are in use, adds
+ *   1/limit: about +1 per limit such calls
+ * It stays within minLimit..maxLimit.
+ *
+ * Metrics ({@link #bindTo}), tagged name: bulkhead.limit,
+ * bulkhead.permits.in.use and bulkhead.queued (gauges), bulkhead.rejected
+ * (counter).
+ */
+public class Bulkhead implements MeterBinder {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration queueTimeout;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitFreed = lock.newCondition();
+    private double limit;
+    private int inUse;
+    private int queued;
+    private long rejected;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    public Bulkhead(String name, int initialLimit, int minLimit, int maxLimit,
+                    Duration queueTimeout, Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Bulkhead " + name + ": need 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueTimeout = queueTimeout;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Run task under a permit; its latency adjusts the limit.
+     */
+    public <T> T call(Supplier<T> task) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wait up to queueTimeout for a permit. Pair with {@link #release}.
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            if (inUse < (int) limit) {
+                inUse++;
+                return;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeout.toNanos();
+                while (inUse >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected++;
+                        throw new BulkheadFullException(name, queueTimeout);
+                    }
+                    remaining = permitFreed.awaitNanos(remaining);
+                }
+                inUse++;
+            } finally {
+                queued--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for bulkhead " + name, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give the permit back, adjusting the limit to how long it was held.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int saturation = inUse;
+            inUse--;
+            int before = (int) limit;
+            long now = System.nanoTime();
+            if (latencyNanos > latencyThresholdNanos) {
+                if (now - latencyNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (saturation * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            permitFreed.signal();
+            if ((int) limit > before) {
+                permitFreed.signal();  // One more permit than before
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.limit", this, Bulkhead::limit)
+            .description("Current concurrency limit")
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("bulkhead.permits.in.use", this, Bulkhead::inUse)
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("bulkhead.queued", this, Bulkhead::queued)
+            .description("Callers waiting for a permit")
+            .tag("name", name)
+            .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", this, Bulkhead::rejected)
+            .description("Callers that got no permit within the queue timeout")
+            .tag("name", name)
+            .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package io.techyowls.virtualthreads.bulkhead;
+
+import java.time.Duration;
+
+/**
+ * No permit became free within the bulkhead's queue timeout.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String bulkhead, Duration queueTimeout) {
+        super("Bulkhead " + bulkhead + " full: no permit within " + queueTimeout.toMillis() + "ms");
+    }
+}
@@ -0,0 +1,62 @@
+package io.techyowls.virtualthreads.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.techyowls.virtualthreads.bulkhead.Bulkhead;
+import io.techyowls.virtualthreads.bulkhead.BulkheadDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * One adaptive {@link Bulkhead} per downstream: the simulated inventory,
+ * payment and notification APIs, and the database (every DataSource
+ * connection holds a permit of the database bulkhead until closed).
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead inventoryBulkhead(BulkheadProperties properties, MeterRegistry registry) {
+        return bulkhead("inventory", properties.inventory(), registry);
+    }
+
+    @Bean
+    public Bulkhead paymentBulkhead(BulkheadProperties properties, MeterRegistry registry) {
+        return bulkhead("payment", properties.payment(), registry);
+    }
+
+    @Bean
+    public Bulkhead notificationBulkhead(BulkheadProperties properties, MeterRegistry registry) {
+        return bulkhead("notification", properties.notification(), registry);
+    }
+
+    @Bean
+    public Bulkhead databaseBulkhead(BulkheadProperties properties, MeterRegistry registry) {
+        return bulkhead("database", properties.database(), registry);
+    }
+
+    @Bean
+    static BeanPostProcessor databaseBulkheadDataSource(@Qualifier("databaseBulkhead") ObjectProvider<Bulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)
+                    ? new BulkheadDataSource(dataSource, bulkhead.getObject())
+                    : bean;
+            }
+        };
+    }
+
+    private static Bulkhead bulkhead(String name, BulkheadProperties.Limits limits, MeterRegistry registry) {
+        Bulkhead bulkhead = new Bulkhead(name, limits.initialLimit(), limits.minLimit(), limits.maxLimit(),
+            limits.queueTimeout(), limits.latencyThreshold(), limits.backoffRatio());
+        bulkhead.bindTo(registry);
+        return bulkhead;
+    }
+}
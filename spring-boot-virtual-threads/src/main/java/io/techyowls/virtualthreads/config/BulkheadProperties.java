@@ -0,0 +1,31 @@
+package io.techyowls.virtualthreads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * bulkhead.* in application.yml: limits per downstream dependency.
+ */
+@ConfigurationProperties("bulkhead")
+public record BulkheadProperties(
+    @DefaultValue Limits inventory,
+    @DefaultValue Limits payment,
+    @DefaultValue Limits notification,
+    @DefaultValue Limits database
+) {
+
+    /**
+     * @param latencyThreshold Calls slower than this shrink the limit
+     * @param backoffRatio     What the limit is multiplied by when they do
+     */
+    public record Limits(
+        @DefaultValue("50") int initialLimit,
+        @DefaultValue("5") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("500ms") Duration queueTimeout,
+        @DefaultValue("1s") Duration latencyThreshold,
+        @DefaultValue("0.9") double backoffRatio
+    ) {}
+}
@@ -1,9 +1,11 @@
 package io.techyowls.virtualthreads.exception;
 
+import io.techyowls.virtualthreads.bulkhead.BulkheadFullException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -31,6 +33,23 @@ public class GlobalExceptionHandler {
             .body(new ErrorResponse("ORDER_ERROR", e.getMessage(), LocalDateTime.now()));
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFull(BulkheadFullException e) {
+        log.warn("Shed load: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "1")
+            .body(new ErrorResponse("BULKHEAD_FULL", e.getMessage(), LocalDateTime.now()));
+    }
+
+    // The database bulkhead refuses the connection a transaction starts with
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransaction(CannotCreateTransactionException e) {
+        if (e.getRootCause() instanceof BulkheadFullException full) {
+            return handleBulkheadFull(full);
+        }
+        return handleGenericException(e);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationException(MethodArgumentNotValidException e) {
         Map<String, String> errors = new HashMap<>();
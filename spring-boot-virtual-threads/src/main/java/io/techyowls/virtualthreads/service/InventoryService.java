@@ -1,8 +1,10 @@
 package io.techyowls.virtualthreads.service;
 
+import io.techyowls.virtualthreads.bulkhead.Bulkhead;
 import io.techyowls.virtualthreads.model.dto.OrderItemRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +18,8 @@ import java.util.Random;
  * Simulates an external Inventory Service API.
  * In production, this would make HTTP calls to the actual inventory service.
  * The simulated delays demonstrate how virtual threads handle I/O-bound operations.
+ * Calls go through the inventory {@link Bulkhead}, except the releaseStock
+ * compensation, which must not be turned away.
  */
 @Service
 public class InventoryService {
@@ -26,6 +30,12 @@ public class InventoryService {
     @Value("${external.inventory.delay-ms:50}")
     private int simulatedDelayMs;
 
+    private final Bulkhead bulkhead;
+
+    public InventoryService(@Qualifier("inventoryBulkhead") Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     // Simulated product catalog
     private static final Map<String, ProductInfo> PRODUCTS = Map.of(
         "PROD-001", new ProductInfo("Wireless Headphones", new BigDecimal("79.99"), 100),
@@ -57,6 +67,10 @@ public class InventoryService {
      * This method simulates an I/O-bound operation (API call).
      */
     public InventoryCheckResult checkAvailability(List<OrderItemRequest> items) {
+        return bulkhead.call(() -> check(items));
+    }
+
+    private InventoryCheckResult check(List<OrderItemRequest> items) {
         log.debug("Checking inventory availability on thread: {} (virtual: {})",
             Thread.currentThread().getName(),
             Thread.currentThread().isVirtual());
@@ -92,13 +106,15 @@ public class InventoryService {
      * Reserve stock for an order.
      */
     public void reserveStock(Long orderId, List<OrderItemRequest> items) {
-        log.debug("Reserving stock for order {} on thread: {} (virtual: {})",
-            orderId,
-            Thread.currentThread().getName(),
-            Thread.currentThread().isVirtual());
-
-        simulateNetworkDelay();
-        log.info("Stock reserved for order {}", orderId);
+        bulkhead.run(() -> {
+            log.debug("Reserving stock for order {} on thread: {} (virtual: {})",
+                orderId,
+                Thread.currentThread().getName(),
+                Thread.currentThread().isVirtual());
+
+            simulateNetworkDelay();
+            log.info("Stock reserved for order {}", orderId);
+        });
     }
 
     /**
@@ -1,9 +1,11 @@
 package io.techyowls.virtualthreads.service;
 
+import io.techyowls.virtualthreads.bulkhead.Bulkhead;
 import io.techyowls.virtualthreads.model.Customer;
 import io.techyowls.virtualthreads.model.Order;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,8 @@ import java.util.concurrent.CompletableFuture;
  * Notification service for sending emails/SMS.
  * Uses @Async to not block the main order flow.
  * With virtual threads enabled, @Async methods run on virtual threads.
+ * Sends go through the notification {@link Bulkhead}: when it is full the
+ * notification is dropped (the returned future fails), not the order.
  */
 @Service
 public class NotificationService {
@@ -25,20 +29,28 @@ public class NotificationService {
     @Value("${external.notification.delay-ms:100}")
     private int simulatedDelayMs;
 
+    private final Bulkhead bulkhead;
+
+    public NotificationService(@Qualifier("notificationBulkhead") Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     /**
      * Send order confirmation email asynchronously.
      * This runs on a separate virtual thread so it doesn't block the response.
      */
     @Async
     public CompletableFuture<Void> sendOrderConfirmation(Order order, Customer customer) {
-        log.debug("Sending order confirmation on thread: {} (virtual: {})",
-            Thread.currentThread().getName(),
-            Thread.currentThread().isVirtual());
+        bulkhead.run(() -> {
+            log.debug("Sending order confirmation on thread: {} (virtual: {})",
+                Thread.currentThread().getName(),
+                Thread.currentThread().isVirtual());
 
-        simulateNetworkDelay();
+            simulateNetworkDelay();
 
-        log.info("Order confirmation email sent to {} for order {}",
-            customer.getEmail(), order.getId());
+            log.info("Order confirmation email sent to {} for order {}",
+                customer.getEmail(), order.getId());
+        });
 
         return CompletableFuture.completedFuture(null);
     }
@@ -48,14 +60,16 @@ public class NotificationService {
      */
     @Async
     public CompletableFuture<Void> sendShippingNotification(Customer customer, Order order, String trackingNumber) {
-        log.debug("Sending shipping notification on thread: {} (virtual: {})",
-            Thread.currentThread().getName(),
-            Thread.currentThread().isVirtual());
+        bulkhead.run(() -> {
+            log.debug("Sending shipping notification on thread: {} (virtual: {})",
+                Thread.currentThread().getName(),
+                Thread.currentThread().isVirtual());
 
-        simulateNetworkDelay();
+            simulateNetworkDelay();
 
-        log.info("Shipping notification sent to {} for order {} with tracking {}",
-            customer.getEmail(), order.getId(), trackingNumber);
+            log.info("Shipping notification sent to {} for order {} with tracking {}",
+                customer.getEmail(), order.getId(), trackingNumber);
+        });
 
         return CompletableFuture.completedFuture(null);
     }
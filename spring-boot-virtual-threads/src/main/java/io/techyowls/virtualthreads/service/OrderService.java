@@ -9,6 +9,7 @@ import io.techyowls.virtualthreads.repository.CustomerRepository;
 import io.techyowls.virtualthreads.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +17,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
 
 /**
  * Main Order Service that orchestrates the order creation process.
@@ -28,6 +31,13 @@ import java.util.Optional;
  * 4. Process payment (External API)
  * 5. Create order (DB)
  * 6. Send notification (Async)
+ *
+ * Steps 1 and 2 are independent. order.execution-mode=structured forks
+ * step 2 in a StructuredTaskScope (a preview API in Java 21, hence
+ * --enable-preview) while step 1 runs, so they take as long as the slower
+ * of the two, and a rejected customer cancels the inventory check. Stock
+ * is only reserved, and paid for, once both passed: those steps and their
+ * compensation stay sequential in either mode.
  */
 @Service
 @Transactional
@@ -40,17 +50,29 @@ public class OrderService {
     private final InventoryService inventoryService;
     private final PaymentService paymentService;
     private final NotificationService notificationService;
+    private final ExecutionMode executionMode;
+
+    public enum ExecutionMode {
+        /** One step after another */
+        SEQUENTIAL,
+        /** Independent steps concurrently, in a StructuredTaskScope */
+        STRUCTURED
+    }
+
+    private record Validation(Customer customer, InventoryService.InventoryCheckResult inventory) {}
 
     public OrderService(OrderRepository orderRepository,
                         CustomerRepository customerRepository,
                         InventoryService inventoryService,
                         PaymentService paymentService,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        @Value("${order.execution-mode:sequential}") ExecutionMode executionMode) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.inventoryService = inventoryService;
         this.paymentService = paymentService;
         this.notificationService = notificationService;
+        this.executionMode = executionMode;
     }
 
     /**
@@ -58,6 +80,7 @@ public class OrderService {
      * This method demonstrates sequential I/O operations that benefit from virtual threads.
      * Total I/O time: ~50ms + ~50ms + ~200ms + ~100ms = ~400ms
      * With virtual threads, the carrier thread is released during each wait.
+     * In structured mode, steps 1 and 2 overlap.
      */
     public OrderResponse createOrder(CreateOrderRequest request) {
         long startTime = System.currentTimeMillis();
@@ -66,22 +89,12 @@ public class OrderService {
             Thread.currentThread().getName(),
             Thread.currentThread().isVirtual());
 
-        // Step 1: Validate customer (DB call - ~20ms)
-        Customer customer = customerRepository.findById(request.customerId())
-            .filter(Customer::isActive)
-            .orElseThrow(() -> new OrderException("Customer not found or inactive: " + request.customerId()));
-
-        log.debug("Step 1 complete: Customer validated");
-
-        // Step 2: Check inventory (External API - ~50ms)
-        InventoryService.InventoryCheckResult inventoryResult =
-            inventoryService.checkAvailability(request.items());
-
-        if (!inventoryResult.allAvailable()) {
-            throw new OrderException("Items unavailable: " + inventoryResult.unavailableItems());
-        }
-
-        log.debug("Step 2 complete: Inventory checked");
+        // Steps 1-2: Validate customer (DB call - ~20ms), check inventory (External API - ~50ms)
+        Validation validation = executionMode == ExecutionMode.STRUCTURED
+            ? validateConcurrently(request)
+            : validateSequentially(request);
+        Customer customer = validation.customer();
+        InventoryService.InventoryCheckResult inventoryResult = validation.inventory();
 
         // Step 3: Calculate total
         BigDecimal totalAmount = calculateTotal(inventoryResult.itemPrices(), request.items());
@@ -98,13 +111,20 @@ public class OrderService {
             log.debug("Step 4 complete: Stock reserved");
 
             // Step 6: Process payment (External API - ~200ms - slowest operation)
-            PaymentService.PaymentResult paymentResult = paymentService.processPayment(
-                new PaymentService.PaymentRequest(
-                    request.paymentInfo().cardToken(),
-                    totalAmount,
-                    order.getId().toString()
-                )
-            );
+            PaymentService.PaymentResult paymentResult;
+            try {
+                paymentResult = paymentService.processPayment(
+                    new PaymentService.PaymentRequest(
+                        request.paymentInfo().cardToken(),
+                        totalAmount,
+                        order.getId().toString()
+                    )
+                );
+            } catch (RuntimeException e) {
+                // Compensation: no payment (e.g. payment bulkhead full), release stock
+                inventoryService.releaseStock(order.getId());
+                throw e;
+            }
 
             if (!paymentResult.success()) {
                 // Compensation: release stock
@@ -157,6 +177,64 @@ public class OrderService {
             .toList();
     }
 
+    private Validation validateSequentially(CreateOrderRequest request) {
+        Customer customer = findActiveCustomer(request.customerId());
+        log.debug("Step 1 complete: Customer validated");
+
+        InventoryService.InventoryCheckResult inventory = checkInventory(request.items());
+        log.debug("Step 2 complete: Inventory checked");
+
+        return new Validation(customer, inventory);
+    }
+
+    /**
+     * Step 2 forked onto its own virtual thread while step 1 runs here: the
+     * customer lookup stays in this order's transaction, on its connection.
+     * With a second connection per order, a pool's worth of concurrent
+     * orders would each hold one and wait for another until the pool's
+     * connection-timeout.
+     */
+    private Validation validateConcurrently(CreateOrderRequest request) {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            Subtask<InventoryService.InventoryCheckResult> inventory = scope.fork(() -> checkInventory(request.items()));
+
+            Customer customer;
+            try {
+                customer = findActiveCustomer(request.customerId());
+            } catch (RuntimeException e) {
+                scope.shutdown();  // Cancel the inventory check
+                scope.join();
+                throw e;
+            }
+
+            scope.join().throwIfFailed(OrderService::asRuntimeException);
+            log.debug("Steps 1-2 complete: Customer validated, inventory checked");
+
+            return new Validation(customer, inventory.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderException("Interrupted while validating order", e);
+        }
+    }
+
+    private Customer findActiveCustomer(Long customerId) {
+        return customerRepository.findById(customerId)
+            .filter(Customer::isActive)
+            .orElseThrow(() -> new OrderException("Customer not found or inactive: " + customerId));
+    }
+
+    private InventoryService.InventoryCheckResult checkInventory(List<OrderItemRequest> items) {
+        InventoryService.InventoryCheckResult inventoryResult = inventoryService.checkAvailability(items);
+        if (!inventoryResult.allAvailable()) {
+            throw new OrderException("Items unavailable: " + inventoryResult.unavailableItems());
+        }
+        return inventoryResult;
+    }
+
+    private static RuntimeException asRuntimeException(Throwable failure) {
+        return failure instanceof RuntimeException e ? e : new OrderException("Order validation failed", failure);
+    }
+
     private Order createPendingOrder(Long customerId, List<OrderItemRequest> items,
                                       BigDecimal total, InventoryService.InventoryCheckResult inventory) {
         Order order = new Order();
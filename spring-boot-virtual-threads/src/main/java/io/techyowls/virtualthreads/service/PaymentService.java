@@ -1,7 +1,9 @@
 package io.techyowls.virtualthreads.service;
 
+import io.techyowls.virtualthreads.bulkhead.Bulkhead;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +15,8 @@ import java.util.UUID;
  * Simulates an external Payment Gateway API.
  * In production, this would integrate with Stripe, PayPal, etc.
  * Payment processing is typically the slowest I/O operation.
+ * Payments go through the payment {@link Bulkhead}; refunds (compensation)
+ * don't.
  */
 @Service
 public class PaymentService {
@@ -23,6 +27,12 @@ public class PaymentService {
     @Value("${external.payment.delay-ms:200}")
     private int simulatedDelayMs;
 
+    private final Bulkhead bulkhead;
+
+    public PaymentService(@Qualifier("paymentBulkhead") Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     public record PaymentRequest(
         String cardToken,
         BigDecimal amount,
@@ -41,6 +51,10 @@ public class PaymentService {
      * Virtual threads shine here - 200ms delay doesn't block the carrier thread.
      */
     public PaymentResult processPayment(PaymentRequest request) {
+        return bulkhead.call(() -> pay(request));
+    }
+
+    private PaymentResult pay(PaymentRequest request) {
         log.debug("Processing payment for order {} on thread: {} (virtual: {})",
             request.orderId(),
             Thread.currentThread().getName(),
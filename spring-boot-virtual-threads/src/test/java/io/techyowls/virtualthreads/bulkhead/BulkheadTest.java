@@ -0,0 +1,117 @@
+package io.techyowls.virtualthreads.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void shouldRejectCallersThatWaitPastTheQueueTimeout() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("payment", 2, 1, 2, Duration.ofMillis(50), Duration.ofSeconds(1), 0.5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead.bindTo(registry);
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        assertEquals(1, registry.get("bulkhead.rejected").tag("name", "payment").functionCounter().count());
+        assertEquals(2, registry.get("bulkhead.permits.in.use").tag("name", "payment").gauge().value());
+
+        // A waiter gets the next freed permit
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(bulkhead::acquire);
+        Thread.sleep(10);
+        bulkhead.release(MS);
+        waiter.get(1, TimeUnit.SECONDS);
+        assertEquals(2, bulkhead.inUse());
+        assertEquals(0, bulkhead.queued());
+    }
+
+    @Test
+    void shouldShrinkOnSlowCallsAndGrowWhenBusyAndFast() {
+        Bulkhead bulkhead = new Bulkhead("inventory", 10, 2, 12, Duration.ofMillis(50), Duration.ofMillis(10), 0.5);
+
+        bulkhead.run(() -> sleep(15));  // Slow: 10 -> 5
+        assertEquals(5, bulkhead.limit());
+        for (int i = 0; i < 5; i++) {
+            bulkhead.run(() -> sleep(15));
+        }
+        assertEquals(2, bulkhead.limit());  // Floor
+
+        // Fast, but mostly idle: no reason to grow
+        for (int i = 0; i < 100; i++) {
+            bulkhead.call(() -> null);
+        }
+        assertEquals(2, bulkhead.limit());
+
+        // Fast with every permit busy: grows, up to the ceiling
+        busyRounds(bulkhead, 10);
+        assertTrue(bulkhead.limit() > 4, "limit " + bulkhead.limit());
+        busyRounds(bulkhead, 100);
+        assertEquals(12, bulkhead.limit());
+    }
+
+    @Test
+    void shouldBackOffOnceForSlowCallsInFlightTogether() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("payment", 10, 1, 10, Duration.ofMillis(50), Duration.ofMillis(10), 0.5);
+        int calls = 10;
+        CountDownLatch started = new CountDownLatch(calls);
+        CountDownLatch finish = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < calls; i++) {
+                executor.submit(() -> bulkhead.run(() -> {
+                    started.countDown();
+                    awaitQuietly(finish);
+                }));
+            }
+            started.await(1, TimeUnit.SECONDS);
+            sleep(15);
+            finish.countDown();
+        }
+
+        assertEquals(5, bulkhead.limit());  // Not 10 * 0.5^10
+
+        bulkhead.run(() -> sleep(15));  // Started after the decrease
+        assertEquals(2, bulkhead.limit());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void busyRounds(Bulkhead bulkhead, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int permits = bulkhead.limit();
+            for (int i = 0; i < permits; i++) {
+                bulkhead.acquire();
+            }
+            for (int i = 0; i < permits; i++) {
+                bulkhead.release(MS);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.techyowls.virtualthreads.service;
+
+import io.techyowls.virtualthreads.exception.OrderException;
+import io.techyowls.virtualthreads.model.dto.CreateOrderRequest;
+import io.techyowls.virtualthreads.model.dto.OrderItemRequest;
+import io.techyowls.virtualthreads.model.dto.PaymentInfo;
+import io.techyowls.virtualthreads.repository.CustomerRepository;
+import io.techyowls.virtualthreads.repository.OrderRepository;
+import io.techyowls.virtualthreads.service.OrderService.ExecutionMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * createOrder latency, sequential vs structured, with CONCURRENCY orders
+ * in flight on virtual threads: orders that go through, and orders for an
+ * unknown customer (rejected at validation). Each mode runs a warm-up
+ * round first.
+ *
+ * The customer lookup is H2 in memory, well under a millisecond, so it is
+ * also run with 20 ms added to findById: a database over the network.
+ *
+ * Not part of the regular build:
+ * mvn test -Dtest=OrderServiceLoadTest -Dload-test=true
+ */
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+@SpringBootTest(properties = "logging.level.io.techyowls=OFF")
+class OrderServiceLoadTest {
+
+    private static final int ORDERS = 200;
+    private static final int CONCURRENCY = 20;  // Below the database bulkhead's 50 permits
+    private static final long UNKNOWN_CUSTOMER = 999;
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private PaymentService paymentService;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void compareExecutionModes() throws InterruptedException {
+        StringBuilder report = new StringBuilder(String.format(
+            "%n%d orders per case, %d concurrent%n%-8s %-11s %-17s %8s %8s %8s %9s%n", ORDERS, CONCURRENCY,
+            "db ms", "mode", "case", "mean ms", "p50 ms", "p99 ms", "rejected"));
+        for (Duration dbLatency : new Duration[] {Duration.ZERO, Duration.ofMillis(20)}) {
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                OrderService service = orderService(mode, dbLatency);
+                run(service, 1);  // Warm-up
+                for (long customerId : new long[] {1, UNKNOWN_CUSTOMER}) {
+                    Result result = run(service, customerId);
+                    if (customerId == UNKNOWN_CUSTOMER) {
+                        assertEquals(ORDERS, result.rejected.get());
+                    } else {
+                        assertTrue(result.rejected.get() < ORDERS / 5, "Only declined payments should fail");
+                    }
+                    report.append(String.format("%-8d %-11s %-17s %8.1f %8.1f %8.1f %9d%n",
+                        dbLatency.toMillis(), mode.name().toLowerCase(),
+                        customerId == UNKNOWN_CUSTOMER ? "unknown customer" : "ok",
+                        result.mean(), result.percentile(50), result.percentile(99), result.rejected.get()));
+                }
+            }
+        }
+        System.out.println(report);
+    }
+
+    // Transactional, like the OrderService bean, but in the given mode
+    private OrderService orderService(ExecutionMode mode, Duration dbLatency) {
+        OrderService service = new OrderService(orderRepository, withLatency(customerRepository, dbLatency),
+            inventoryService, paymentService, notificationService, mode);
+        return (OrderService) beanFactory.initializeBean(service, "orderService-" + mode);
+    }
+
+    private static CustomerRepository withLatency(CustomerRepository repository, Duration latency) {
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+            new Class<?>[] {CustomerRepository.class}, (proxy, method, args) -> {
+                if (method.getName().equals("findById") && !latency.isZero()) {
+                    Thread.sleep(latency);
+                }
+                try {
+                    return method.invoke(repository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private Result run(OrderService service, long customerId) throws InterruptedException {
+        Result result = new Result();
+        CreateOrderRequest request = new CreateOrderRequest(customerId,
+            List.of(new OrderItemRequest("PROD-001", 2), new OrderItemRequest("PROD-002", 1)),
+            new PaymentInfo("tok_visa_4242", "123 Main St"));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < CONCURRENCY; worker++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < ORDERS / CONCURRENCY; i++) {
+                        long start = System.nanoTime();
+                        try {
+                            service.createOrder(request);
+                            result.record(System.nanoTime() - start);
+                        } catch (OrderException e) {
+                            result.rejected.incrementAndGet();
+                            if (customerId == UNKNOWN_CUSTOMER) {
+                                result.record(System.nanoTime() - start);
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Latencies of completed orders, or of rejections for the unknown customer.
+     */
+    private static class Result {
+
+        private final List<Long> nanos = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        void record(long elapsedNanos) {
+            nanos.add(elapsedNanos);
+        }
+
+        double mean() {
+            return nanos.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6;
+        }
+
+        double percentile(int percentile) {
+            List<Long> sorted = nanos.stream().sorted().toList();
+            return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100)) / 1e6;
+        }
+    }
+}